@@ -0,0 +1,108 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ *
+ *   The ISD records the benchmarks parse, in three kinds:
+ *     - CLEAN: well formed records with a short additional data section,
+ *     - MALFORMED: every numeric field of the control and mandatory data
+ *       is malformed, so every field takes the substitution path,
+ *     - LONG_TAIL: well formed records with an additional data section
+ *       that fills them up to the maximum record size (2,844 characters),
+ *       i.e. an additional data section of 2,739 characters.
+ *
+ *   Every kind is a set of RECORDS records that differ in their station,
+ *   date and temperatures, so the parser does not see the same bytes
+ *   over and over again. The same seed always gives the same records.
+ *
+ * @author BusyBee
+ *
+ */
+final class BenchmarkRecords {
+
+	static final int RECORDS = 64;
+
+	static final int MAX_RECORD_LENGTH = 2844;
+
+	enum Kind { CLEAN, MALFORMED, LONG_TAIL }
+
+	private static final String RECORD = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	// the numeric fields of the control and mandatory data, as [start, end).
+	private static final int[][] NUMERIC_FIELDS = {
+		{ 0, 4 }, { 28, 34 }, { 34, 41 }, { 46, 51 },
+		{ 60, 63 }, { 65, 69 }, { 70, 75 }, { 78, 84 },
+		{ 87, 92 }, { 93, 98 }, { 99, 104 }
+	};
+
+	final String[] strings = new String[RECORDS];
+	final Text[] texts = new Text[RECORDS];
+	final byte[][] bytes = new byte[RECORDS][];
+
+
+	BenchmarkRecords( Kind kind ) {
+
+		final Random random = new Random(20180112L);
+		for( int i = 0; i < RECORDS; i++ ) {
+
+			final String record = build(kind, random);
+			strings[i] = record;
+			bytes[i] = record.getBytes(StandardCharsets.US_ASCII);
+			texts[i] = new Text(bytes[i]);
+		}
+	}
+	// ^^ BenchmarkRecords(Kind)
+
+
+	private static String build( Kind kind, Random random ) {
+
+		final StringBuilder record = new StringBuilder(RECORD);
+
+		// station, date and temperatures
+		record.replace(4, 10, String.format("%06d", random.nextInt(1000000)));
+		record.replace(15, 23, String.format("%04d%02d%02d", 1901 + random.nextInt(120), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+		record.replace(87, 92, String.format("%+05d", random.nextInt(801) - 400));
+		record.replace(93, 98, String.format("%+05d", random.nextInt(801) - 400));
+
+		switch( kind ) {
+
+		case MALFORMED:
+			for( int[] field : NUMERIC_FIELDS ) {
+				for( int p = field[0]; p < field[1]; p++ ) {
+					record.setCharAt(p, "X#/&%".charAt(random.nextInt(5)));
+				}
+			}
+			break;
+
+		case LONG_TAIL:
+			record.setLength(105);
+			record.append("ADD");
+			while( record.length() + 15 <= MAX_RECORD_LENGTH ) {
+				record.append(String.format("MA1%05d1%05d1", 9000 + random.nextInt(2000), 9000 + random.nextInt(2000)));
+			}
+			while( record.length() < MAX_RECORD_LENGTH ) {
+				record.append(' ');
+			}
+			record.replace(0, 4, String.format("%04d", record.length() - 105));
+			break;
+
+		default:
+			break;
+		}
+		return record.toString();
+	}
+	// ^^ build(Kind, Random)
+
+}
+// ^^ class BenchmarkRecords
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,127 @@
+package ncdcparsersimple;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ *   JMH benchmarks of the three entry points of NCDCParserSimple:
+ * parse(String), parse(Text) and parse(byte[], int, int), on the clean,
+ * malformed and long-tail records of BenchmarkRecords.
+ *
+ *   Every invocation parses the next record of the set and hands one
+ * field of every section to the Blackhole, so nothing is optimised away.
+ * The score is records per second; run them with the GC profiler (see
+ * main()) to get the bytes allocated per record as well:
+ *
+ *     java -cp <classpath> ncdcparsersimple.ParserBenchmark [regexp]
+ *
+ *   or, from an uber jar built by the JMH archetype,
+ *
+ *     java -jar benchmarks.jar ParserBenchmark -prof gc
+ *
+ * @author BusyBee
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+	@Param({ "CLEAN", "MALFORMED", "LONG_TAIL" })
+	public String kind;
+
+	private BenchmarkRecords records;
+	private NCDCParserSimple parser;
+	private int iNext;
+
+
+	@Setup
+	public void setUp() {
+		records = new BenchmarkRecords(BenchmarkRecords.Kind.valueOf(kind));
+		parser = new NCDCParserSimple();
+	}
+
+
+	private int next() {
+		final int i = iNext;
+		iNext = (i + 1) & (BenchmarkRecords.RECORDS - 1);
+		return i;
+	}
+
+
+	private void consume( Blackhole blackhole ) {
+		blackhole.consume(parser.getFixedWeatherStation_USAFMasterStationCatId());
+		blackhole.consume(parser.getAirTemperatureObservation_AirTemperature());
+		blackhole.consume(parser.getAdditionalData());
+	}
+
+
+	@Benchmark
+	public void parseString( Blackhole blackhole ) {
+		parser.parse(records.strings[next()]);
+		consume(blackhole);
+	}
+
+
+	@Benchmark
+	public void parseText( Blackhole blackhole ) {
+		parser.parse(records.texts[next()]);
+		consume(blackhole);
+	}
+
+
+	@Benchmark
+	public void parseBytes( Blackhole blackhole ) {
+		final byte[] record = records.bytes[next()];
+		parser.parse(record, 0, record.length);
+		consume(blackhole);
+	}
+
+
+	/**
+	 *   Runs the benchmarks of this class whose names match the regexp
+	 * (all of them by default) with the GC profiler.
+	 *
+	 * @param args
+	 * @throws RunnerException
+	 */
+	public static void main( String[] args ) throws RunnerException {
+
+		final Options options = new OptionsBuilder()
+				.include(ParserBenchmark.class.getSimpleName() + "." + (args.length > 0 ? args[0] : ""))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+	// ^^ main(String[])
+
+}
+// ^^ class ParserBenchmark
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,192 @@
+package ncdcparsersimple;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *
+ *   JMH benchmarks of the two section parsers on their own, i.e. of
+ * every field of the control data (positions 1-60) with
+ * ControlDataSectionParsing_ParserSimple and of every field of the
+ * mandatory data (positions 61-105) with
+ * MandatoryDataSectionParsing_ParserSimple, each both from substrings
+ * of a String record (the parse(String) path) and from the bytes of
+ * the record (the parse(Text) and parse(byte[], int, int) path).
+ *
+ *   The section parsers do not read the additional data, so the
+ * LONG_TAIL records are left out. The score is sections per second;
+ * main() runs them with the GC profiler, as ParserBenchmark does.
+ *
+ * @author BusyBee
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SectionParsingBenchmark {
+
+	@Param({ "CLEAN", "MALFORMED" })
+	public String kind;
+
+	private BenchmarkRecords records;
+	private ControlDataSectionParsing_ParserSimple controlData;
+	private MandatoryDataSectionParsing_ParserSimple mandatoryData;
+	private int iNext;
+
+
+	@Setup
+	public void setUp() {
+		records = new BenchmarkRecords(BenchmarkRecords.Kind.valueOf(kind));
+		controlData = new ControlDataSectionParsing_ParserSimple();
+		mandatoryData = new MandatoryDataSectionParsing_ParserSimple();
+	}
+
+
+	private int next() {
+		final int i = iNext;
+		iNext = (i + 1) & (BenchmarkRecords.RECORDS - 1);
+		return i;
+	}
+
+
+	@Benchmark
+	public void controlDataString( Blackhole blackhole ) {
+
+		final String r = records.strings[next()];
+		final ControlDataSectionParsing_ParserSimple p = controlData;
+
+		blackhole.consume(p.parseTotalVariableChars(r.substring(0, 4)));
+		blackhole.consume(p.parseFixedWeatherStation_USAFMasterStationCatId(r.substring(4, 10)));
+		blackhole.consume(p.parseFixedWeatherStation_NCEIWbanId(r.substring(10, 15)));
+		blackhole.consume(p.parseGeophysicalPointObservation_Date(r.substring(15, 23)));
+		blackhole.consume(p.parseGeophysicalPointObservation_Time(r.substring(23, 27)));
+		blackhole.consume(p.parseGeophysicalPointObservation_DataSourceFlag(r.charAt(27)));
+		blackhole.consume(p.parseGeophysicalPointObservation_LatitudeCoord(r.substring(28, 34)));
+		blackhole.consume(p.parseGeophysicalPointObservation_LongitudeCoord(r.substring(34, 41)));
+		blackhole.consume(p.parseGeophysicalReportType_Code(r.substring(41, 46)));
+		blackhole.consume(p.parseGeophysicalPointObservation_ElevationDimention(r.substring(46, 51)));
+		blackhole.consume(p.parseFixedWeatherStation_CallLetterId(r.substring(51, 56)));
+		blackhole.consume(p.parseMeteorogicalPointObservation_QualityControlProcessName(r.substring(56, 60)));
+	}
+	// ^^ controlDataString(Blackhole)
+
+
+	@Benchmark
+	public void controlDataBytes( Blackhole blackhole ) {
+
+		final byte[] r = records.bytes[next()];
+		final ControlDataSectionParsing_ParserSimple p = controlData;
+
+		blackhole.consume(p.parseTotalVariableChars(r, 0, 4));
+		blackhole.consume(p.parseFixedWeatherStation_USAFMasterStationCatId(r, 4, 6));
+		blackhole.consume(p.parseFixedWeatherStation_NCEIWbanId(r, 10, 5));
+		blackhole.consume(p.parseGeophysicalPointObservation_Date(r, 15, 8));
+		blackhole.consume(p.parseGeophysicalPointObservation_Time(r, 23, 4));
+		blackhole.consume(p.parseGeophysicalPointObservation_DataSourceFlag((char) (r[27] & 0xFF)));
+		blackhole.consume(p.parseGeophysicalPointObservation_LatitudeCoord(r, 28, 6));
+		blackhole.consume(p.parseGeophysicalPointObservation_LongitudeCoord(r, 34, 7));
+		blackhole.consume(p.parseGeophysicalReportType_Code(r, 41, 5));
+		blackhole.consume(p.parseGeophysicalPointObservation_ElevationDimention(r, 46, 5));
+		blackhole.consume(p.parseFixedWeatherStation_CallLetterId(r, 51, 5));
+		blackhole.consume(p.parseMeteorogicalPointObservation_QualityControlProcessName(r, 56, 4));
+	}
+	// ^^ controlDataBytes(Blackhole)
+
+
+	@Benchmark
+	public void mandatoryDataString( Blackhole blackhole ) {
+
+		final String r = records.strings[next()];
+		final MandatoryDataSectionParsing_ParserSimple p = mandatoryData;
+
+		blackhole.consume(p.parseWindObservation_DirectionAngle(r.substring(60, 63)));
+		blackhole.consume(p.parseWindObservation_DirectionQualityCode(r.charAt(63)));
+		blackhole.consume(p.parseWindObservation_TypeCode(r.charAt(64)));
+		blackhole.consume(p.parseWindObservation_SpeedRate(r.substring(65, 69)));
+		blackhole.consume(p.parseWindObservation_SpeedQualityCode(r.charAt(69)));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingHeightDimention(r.substring(70, 75)));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingQualityCode(r.charAt(75)));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingDeterminationCode(r.charAt(76)));
+		blackhole.consume(p.parseSkyConditionObservation_CavokCode(r.charAt(77)));
+		blackhole.consume(p.parseVisibilityObservation_DistanceDimension(r.substring(78, 84)));
+		blackhole.consume(p.parseVisibilityObservation_DistanceQualityCode(r.charAt(84)));
+		blackhole.consume(p.parseVisibilityObservation_VariabilityCode(r.charAt(85)));
+		blackhole.consume(p.parseVisibilityObservation_QualityVariablityCode(r.charAt(86)));
+		blackhole.consume(p.parseAirTemperatureObservation_AirTemperature(r.substring(87, 92)));
+		blackhole.consume(p.parseAirTemperatureObservation_AirTemperatureQualityCode(r.charAt(92)));
+		blackhole.consume(p.parseAirTemperatureObservation_DewPointTemperature(r.substring(93, 98)));
+		blackhole.consume(p.parseAirTemperatureObservation_DewPointQualityCode(r.charAt(98)));
+		blackhole.consume(p.parseAtmosphericPressueObservation_SeaLevelPressure(r.substring(99, 104)));
+		blackhole.consume(p.parseAtmosphericPressueObservation_SeaLevelPressureQualityCode(r.charAt(104)));
+	}
+	// ^^ mandatoryDataString(Blackhole)
+
+
+	@Benchmark
+	public void mandatoryDataBytes( Blackhole blackhole ) {
+
+		final byte[] r = records.bytes[next()];
+		final MandatoryDataSectionParsing_ParserSimple p = mandatoryData;
+
+		blackhole.consume(p.parseWindObservation_DirectionAngle(r, 60, 3));
+		blackhole.consume(p.parseWindObservation_DirectionQualityCode((char) (r[63] & 0xFF)));
+		blackhole.consume(p.parseWindObservation_TypeCode((char) (r[64] & 0xFF)));
+		blackhole.consume(p.parseWindObservation_SpeedRate(r, 65, 4));
+		blackhole.consume(p.parseWindObservation_SpeedQualityCode((char) (r[69] & 0xFF)));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingHeightDimention(r, 70, 5));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingQualityCode((char) (r[75] & 0xFF)));
+		blackhole.consume(p.parseSkyConditionObservation_CeilingDeterminationCode((char) (r[76] & 0xFF)));
+		blackhole.consume(p.parseSkyConditionObservation_CavokCode((char) (r[77] & 0xFF)));
+		blackhole.consume(p.parseVisibilityObservation_DistanceDimension(r, 78, 6));
+		blackhole.consume(p.parseVisibilityObservation_DistanceQualityCode((char) (r[84] & 0xFF)));
+		blackhole.consume(p.parseVisibilityObservation_VariabilityCode((char) (r[85] & 0xFF)));
+		blackhole.consume(p.parseVisibilityObservation_QualityVariablityCode((char) (r[86] & 0xFF)));
+		blackhole.consume(p.parseAirTemperatureObservation_AirTemperature(r, 87, 5));
+		blackhole.consume(p.parseAirTemperatureObservation_AirTemperatureQualityCode((char) (r[92] & 0xFF)));
+		blackhole.consume(p.parseAirTemperatureObservation_DewPointTemperature(r, 93, 5));
+		blackhole.consume(p.parseAirTemperatureObservation_DewPointQualityCode((char) (r[98] & 0xFF)));
+		blackhole.consume(p.parseAtmosphericPressueObservation_SeaLevelPressure(r, 99, 5));
+		blackhole.consume(p.parseAtmosphericPressueObservation_SeaLevelPressureQualityCode((char) (r[104] & 0xFF)));
+	}
+	// ^^ mandatoryDataBytes(Blackhole)
+
+
+	public static void main( String[] args ) throws RunnerException {
+
+		final Options options = new OptionsBuilder()
+				.include(SectionParsingBenchmark.class.getSimpleName() + "." + (args.length > 0 ? args[0] : ""))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+	// ^^ main(String[])
+
+}
+// ^^ class SectionParsingBenchmark
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
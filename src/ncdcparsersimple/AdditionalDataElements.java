@@ -0,0 +1,238 @@
+package ncdcparsersimple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import ncdcparsersimple.ElementDescriptor.Subfield;
+
+/**
+ *
+ *   The registry of the additional data elements that can be decoded
+ * into typed slots, after the Federal Climate Complex Data Documentation
+ * for ISD. Adding an element is one register() call here instead of
+ * a getter and a setter per subfield:
+ *
+ *     AdditionalDataIndex index = view.getAdditionalDataIndex();
+ *     int[] slots = new int[AdditionalDataElements.MAX_SUBFIELDS];
+ *     if( AdditionalDataElements.decode(record, index, "MA1", slots) ) {
+ *         int altimeter = slots[0]; // 10250, i.e. 1025.0 hPa
+ *     }
+ *
+ *   The descriptors are looked up by an array indexed by the identifier's
+ * characters, so decoding an element costs its decodeInt() calls and
+ * little else.
+ *
+ * @author BusyBee
+ *
+ */
+public final class AdditionalDataElements {
+
+	/**
+	 * The largest number of subfields of a registered element.
+	 */
+	public static final int MAX_SUBFIELDS = 13;
+
+	private static final ElementDescriptor[] DESCRIPTORS = new ElementDescriptor[26 * 26 * 10];
+	private static final List<ElementDescriptor> ALL = new ArrayList<>();
+
+	static {
+		register(1, 4, new ElementDescriptor("AA1", "LIQUID-PRECIPITATION occurrence identifier",
+				number("period quantity", 2, 1, 99),
+				number("depth dimension", 4, 10, 9999),
+				code("condition code", '9'),
+				code("quality code", '9')));
+
+		register(1, 4, new ElementDescriptor("AL1", "SNOW-ACCUMULATION occurrence identifier",
+				number("period quantity", 2, 1, 99),
+				number("depth dimension", 3, 1, 999),
+				code("condition code", '9'),
+				code("quality code", '9')));
+
+		register(1, 1, new ElementDescriptor("AJ1", "SNOW-DEPTH identifier",
+				number("dimension", 4, 1, 9999),
+				code("condition code", '9'),
+				code("quality code", '9'),
+				number("equivalent water depth dimension", 6, 10, 999999),
+				code("equivalent water condition code", '9'),
+				code("equivalent water condition quality code", '9')));
+
+		register(1, 2, new ElementDescriptor("AY1", "PAST-WEATHER-OBSERVATION manual occurrence identifier",
+				code("atmospheric condition code", '9'),
+				code("quality manual atmospheric condition code", '9'),
+				number("period quantity", 2, 1, 99),
+				code("period quality code", '9')));
+
+		register(1, 6, new ElementDescriptor("GA1", "SKY-COVER-LAYER identifier",
+				number("coverage code", 2, 1, 99),
+				code("coverage quality code", '9'),
+				number("base height dimension", 6, 1, 99999),
+				code("base height quality code", '9'),
+				number("cloud type code", 2, 1, 99),
+				code("cloud type quality code", '9')));
+
+		register(1, 6, new ElementDescriptor("GD1", "SKY-COVER-SUMMATION-STATE identifier",
+				code("coverage code", '9'),
+				number("coverage code 2", 2, 1, 99),
+				code("coverage quality code", '9'),
+				number("height dimension", 6, 1, 99999),
+				code("height dimension quality code", '9'),
+				code("characteristic code", '9')));
+
+		register(1, 1, new ElementDescriptor("GF1", "SKY-CONDITION-OBSERVATION identifier",
+				number("total coverage code", 2, 1, 99),
+				number("total opaque coverage code", 2, 1, 99),
+				code("quality total coverage code", '9'),
+				number("total lowest cloud cover code", 2, 1, 99),
+				code("quality total lowest cloud cover code", '9'),
+				number("low cloud genus code", 2, 1, 99),
+				code("quality low cloud genus code", '9'),
+				number("lowest cloud base height dimension", 5, 1, 99999),
+				code("lowest cloud base height quality code", '9'),
+				number("mid cloud genus code", 2, 1, 99),
+				code("quality mid cloud genus code", '9'),
+				number("high cloud genus code", 2, 1, 99),
+				code("quality high cloud genus code", '9')));
+
+		register(1, 4, new ElementDescriptor("KA1", "EXTREME-AIR-TEMPERATURE identifier",
+				number("period quantity", 3, 10, 999),
+				code("code", '9'),
+				number("air temperature", 5, 10, 9999),
+				code("temperature quality code", '9')));
+
+		register(1, 1, new ElementDescriptor("MA1", "ATMOSPHERIC-PRESSURE-OBSERVATION identifier",
+				number("altimeter setting rate", 5, 10, 99999),
+				code("altimeter quality code", '9'),
+				number("station pressure rate", 5, 10, 99999),
+				code("station pressure quality code", '9')));
+
+		register(1, 1, new ElementDescriptor("MD1", "ATMOSPHERIC-PRESSURE-CHANGE identifier",
+				code("tendency code", '9'),
+				code("tendency quality code", '9'),
+				number("three hour quantity", 3, 10, 999),
+				code("three hour quality code", '9'),
+				number("twenty four hour quantity", 4, 10, 999),
+				code("twenty four hour quality code", '9')));
+
+		register(1, 7, new ElementDescriptor("MW1", "PRESENT-WEATHER-OBSERVATION manual occurrence identifier",
+				number("atmospheric condition code", 2, 1, 99),
+				code("quality manual atmospheric condition code", '9')));
+
+		register(1, 1, new ElementDescriptor("OC1", "WIND-GUST-OBSERVATION identifier",
+				number("speed rate", 4, 10, 9999),
+				code("quality code", '9')));
+
+		register(1, 3, new ElementDescriptor("OD1", "SUPPLEMENTARY-WIND-OBSERVATION identifier",
+				code("type code", '9'),
+				number("period quantity", 2, 1, 99),
+				number("speed rate", 4, 10, 9999),
+				code("speed quality code", '9'),
+				number("direction", 3, 1, 999)));
+	}
+
+
+	private AdditionalDataElements() {
+	}
+
+
+	private static Subfield number( String name, int width, int scale, int missingValue ) {
+		return new Subfield(name, width, ElementDescriptor.NUMBER, scale, missingValue);
+	}
+
+	private static Subfield code( String name, char missingCode ) {
+		return new Subfield(name, 1, ElementDescriptor.CODE, 1, missingCode);
+	}
+
+
+	/*
+	 *   Registers the descriptor under the identifiers with the digits
+	 * [firstDigit, lastDigit] (e.g. AA1-AA4), which share their layout.
+	 */
+	private static void register( int firstDigit, int lastDigit, ElementDescriptor descriptor ) {
+
+		final String letters = descriptor.getId().substring(0, 2);
+		for( int digit = firstDigit; digit <= lastDigit; digit++ ) {
+
+			final String id = letters + digit;
+			final ElementDescriptor d = id.equals(descriptor.getId()) ? descriptor : descriptor.withId(id);
+			if( d.getWidth() != AdditionalDataIndex.widthOf(id) ) {
+				throw new IllegalStateException(id + " is " + d.getWidth() + " wide, the index says "
+						+ AdditionalDataIndex.widthOf(id));
+			}
+			DESCRIPTORS[slot(id.charAt(0), id.charAt(1), id.charAt(2))] = d;
+			ALL.add(d);
+		}
+	}
+	// ^^ register(int, int, ElementDescriptor)
+
+
+	private static int slot( int c1, int c2, int c3 ) {
+
+		if( c1 < 'A' || c1 > 'Z' || c2 < 'A' || c2 > 'Z' || c3 < '0' || c3 > '9' ) {
+			return -1;
+		}
+		return ((c1 - 'A') * 26 + (c2 - 'A')) * 10 + (c3 - '0');
+	}
+
+
+	/**
+	 * @param id e.g. "MA1"
+	 * @return the descriptor, or null if the element is not registered.
+	 */
+	public static ElementDescriptor get( String id ) {
+		return id.length() == 3 ? get(AdditionalDataIndex.packId(id)) : null;
+	}
+
+	/**
+	 * @param id an identifier packed by AdditionalDataIndex.packId().
+	 * @return the descriptor, or null if the element is not registered.
+	 */
+	public static ElementDescriptor get( int id ) {
+		final int iSlot = slot(id >>> 16, (id >>> 8) & 0xFF, id & 0xFF);
+		return iSlot < 0 ? null : DESCRIPTORS[iSlot];
+	}
+
+	/**
+	 * @return all the registered descriptors.
+	 */
+	public static Collection<ElementDescriptor> all() {
+		return Collections.unmodifiableList(ALL);
+	}
+
+
+	/**
+	 *   Decodes the first element with the identifier into the slots.
+	 *
+	 * @param record the bytes the index was built from.
+	 * @param index
+	 * @param id e.g. "MA1"
+	 * @param slots at least getSubfieldCount() (MAX_SUBFIELDS at most) long.
+	 * @return false if the record has no such element.
+	 * @throws IllegalArgumentException if the element is not registered.
+	 */
+	public static boolean decode( byte[] record, AdditionalDataIndex index, String id, int[] slots ) {
+
+		final int packedId = AdditionalDataIndex.packId(id);
+		final ElementDescriptor descriptor = get(packedId);
+		if( descriptor == null ) {
+			throw new IllegalArgumentException("Element " + id + " is not registered");
+		}
+		final int i = index.find(packedId);
+		if( i < 0 ) {
+			return false;
+		}
+		descriptor.decode(record, index.getStart(i), slots, 0);
+		return true;
+	}
+	// ^^ decode(byte[], AdditionalDataIndex, String, int[])
+
+}
+// ^^ class AdditionalDataElements
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,416 @@
+package ncdcparsersimple;
+
+import java.util.Arrays;
+
+/**
+ *
+ *   An index of the elements of the additional data of an ISD record
+ * (everything after the 105th character), built in one pass over the
+ * record's bytes without making a String of them.
+ *
+ *   The additional data consists of up to four sections, each starting
+ * with its marker:
+ *     - ADD, the additional data elements: a three character identifier
+ *       (e.g. AA1, MA1) followed by data of a fixed width per identifier,
+ *     - REM, the remarks: a three character identifier (e.g. MET), a
+ *       three digit length and that many characters of text,
+ *     - EQD, the element quality data: a three character identifier
+ *       (e.g. Q01) followed by 13 characters,
+ *     - QNN, the original observation data, indexed as one element that
+ *       reaches to the end of the record.
+ *   For every element the index keeps its identifier, its section, and
+ * the offset and length of its data (without the identifier and, for a
+ * remark, without its length) in the indexed byte array, so a caller
+ * jumps straight to the element:
+ *
+ *     int i = index.find("MA1");
+ *     if( i >= 0 ) {
+ *         int pressure = decode(record, index.getStart(i) + 6, 5); ...
+ *     }
+ *
+ *   An ADD element whose identifier is not in the table of widths (from
+ * the Federal Climate Complex Data Documentation for ISD), a remark whose
+ * length is malformed or any element running past the end of the record
+ * stops the indexing: isComplete() is false and getUnindexedStart() is
+ * where it stopped. The elements before it are indexed.
+ *
+ *   The index holds offsets only, so it is valid as long as the bytes
+ * are not changed. It grows to the largest record seen and is reused
+ * for the next one. It is not thread-safe.
+ *
+ * @author BusyBee
+ *
+ */
+public class AdditionalDataIndex {
+
+	public static final byte SECTION_ADD = 1;
+	public static final byte SECTION_REM = 2;
+	public static final byte SECTION_EQD = 3;
+	public static final byte SECTION_QNN = 4;
+
+	private static final int ID_ADD = packId("ADD");
+	private static final int ID_REM = packId("REM");
+	private static final int ID_EQD = packId("EQD");
+	private static final int ID_QNN = packId("QNN");
+
+	private static final int EQD_ELEMENT_WIDTH = 13;
+	private static final int REM_LENGTH_WIDTH = 3;
+
+	/*
+	 *   The width of the data of every ADD element, indexed by
+	 * (letter, letter, digit) of its identifier; 0 if unknown.
+	 */
+	private static final byte[] WIDTHS = new byte[26 * 26 * 10];
+
+	static {
+		width("AA", 1, 4, 8);   // liquid precipitation
+		width("AB", 1, 1, 7);   // liquid precipitation, monthly total
+		width("AC", 1, 1, 3);   // precipitation observation history
+		width("AD", 1, 1, 19);  // liquid precipitation, greatest amount in 24 hours
+		width("AE", 1, 1, 12);  // liquid precipitation, number of days
+		width("AG", 1, 1, 4);   // precipitation estimated
+		width("AH", 1, 6, 15);  // liquid precipitation, maximum short duration
+		width("AI", 1, 6, 15);  // liquid precipitation, maximum short duration
+		width("AJ", 1, 1, 14);  // snow depth
+		width("AK", 1, 1, 12);  // snow depth, greatest depth
+		width("AL", 1, 4, 7);   // snow accumulation
+		width("AM", 1, 1, 18);  // snow accumulation, greatest amount in 24 hours
+		width("AN", 1, 1, 9);   // snow accumulation, monthly total
+		width("AO", 1, 4, 8);   // liquid precipitation, minutes
+		width("AP", 1, 4, 6);   // 15 minute liquid precipitation
+		width("AT", 1, 8, 9);   // daily present weather
+		width("AU", 1, 9, 8);   // present weather (ASOS/AWOS)
+		width("AW", 1, 4, 3);   // present weather, automated
+		width("AX", 1, 6, 6);   // past weather, summary of day
+		width("AY", 1, 2, 5);   // past weather, manual
+		width("AZ", 1, 2, 5);   // past weather, automated
+		width("CB", 1, 2, 10);  // subhourly precipitation
+		width("CF", 1, 3, 6);   // hourly fan speed
+		width("CG", 1, 3, 8);   // subhourly precipitation sensor
+		width("CH", 1, 2, 15);  // hourly/subhourly relative humidity/temperature
+		width("CI", 1, 1, 28);  // hourly relative humidity/temperature
+		width("CN", 1, 2, 18);  // hourly battery voltage / datalogger diagnostics
+		width("CN", 3, 3, 16);
+		width("CN", 4, 4, 19);
+		width("CO", 1, 1, 5);   // network metadata
+		width("CO", 2, 9, 8);   // US cooperative network element time offset
+		width("CR", 1, 1, 7);   // CRN control section
+		width("CT", 1, 3, 7);   // subhourly temperature
+		width("CU", 1, 3, 13);  // hourly temperature
+		width("CV", 1, 3, 26);  // hourly temperature extreme
+		width("CW", 1, 1, 14);  // subhourly wetness
+		width("CX", 1, 3, 26);  // hourly geonor vibrating wire
+		width("ED", 1, 1, 8);   // runway visual range
+		width("GA", 1, 6, 13);  // sky cover layer
+		width("GD", 1, 6, 12);  // sky cover summation state
+		width("GE", 1, 1, 19);  // sky condition observation
+		width("GF", 1, 1, 23);  // sky condition observation
+		width("GG", 1, 6, 15);  // below station cloud layer
+		width("GH", 1, 1, 28);  // hourly solar radiation
+		width("GJ", 1, 1, 5);   // sunshine observation
+		width("GK", 1, 1, 4);   // sunshine observation
+		width("GL", 1, 1, 6);   // sunshine observation, monthly
+		width("GM", 1, 1, 30);  // solar irradiance
+		width("GN", 1, 1, 28);  // solar radiation
+		width("GO", 1, 1, 19);  // net solar radiation
+		width("GP", 1, 1, 31);  // modeled solar irradiance
+		width("GQ", 1, 1, 14);  // hourly solar angle
+		width("GR", 1, 1, 14);  // hourly extraterrestrial radiation
+		width("HL", 1, 1, 4);   // hail
+		width("IA", 1, 1, 6);   // ground surface
+		width("IA", 2, 2, 9);
+		width("IB", 1, 1, 27);  // hourly surface temperature
+		width("IB", 2, 2, 13);
+		width("IC", 1, 1, 25);  // ground surface observation, pan evaporation
+		width("KA", 1, 4, 10);  // extreme air temperature
+		width("KB", 1, 3, 10);  // average air temperature
+		width("KC", 1, 2, 14);  // extreme air temperature, monthly
+		width("KD", 1, 2, 9);   // heating/cooling degree days
+		width("KE", 1, 1, 12);  // extreme temperatures, number of days
+		width("KF", 1, 1, 6);   // hourly calculated temperature
+		width("KG", 1, 2, 11);  // average dew point and wet bulb temperature
+		width("MA", 1, 1, 12);  // atmospheric pressure observation
+		width("MD", 1, 1, 11);  // atmospheric pressure change
+		width("ME", 1, 1, 6);   // geopotential height isobaric level
+		width("MF", 1, 1, 12);  // atmospheric pressure observation (STP/SLP)
+		width("MG", 1, 1, 12);  // atmospheric pressure observation
+		width("MH", 1, 1, 12);  // atmospheric pressure observation, monthly average
+		width("MK", 1, 1, 24);  // atmospheric pressure observation, monthly extreme
+		width("MV", 1, 7, 3);   // present weather in vicinity
+		width("MW", 1, 7, 3);   // present weather, manual
+		width("OA", 1, 3, 8);   // supplementary wind observation
+		width("OB", 1, 2, 28);  // hourly/subhourly wind section
+		width("OC", 1, 1, 5);   // wind gust observation
+		width("OD", 1, 3, 11);  // supplementary wind observation
+		width("OE", 1, 3, 16);  // summary of day wind observation
+		width("RH", 1, 3, 9);   // relative humidity
+		width("SA", 1, 1, 5);   // sea surface temperature
+		width("ST", 1, 1, 17);  // soil temperature
+		width("UA", 1, 1, 10);  // wave measurement
+		width("UG", 1, 2, 9);   // wave measurement, primary/secondary swell
+		width("WA", 1, 1, 6);   // platform ice accretion
+		width("WD", 1, 1, 20);  // water surface ice observation
+		width("WG", 1, 1, 11);  // water surface ice historical observation
+		width("WJ", 1, 1, 19);  // water level observation
+	}
+
+
+	private static void width( String letters, int firstDigit, int lastDigit, int width ) {
+		for( int digit = firstDigit; digit <= lastDigit; digit++ ) {
+			WIDTHS[slot(letters.charAt(0), letters.charAt(1), '0' + digit)] = (byte) width;
+		}
+	}
+
+
+	private static int slot( int letter1, int letter2, int digit ) {
+		return ((letter1 - 'A') * 26 + (letter2 - 'A')) * 10 + (digit - '0');
+	}
+
+
+	/**
+	 * @param id e.g. "MA1"
+	 * @return the width of the data of the ADD element, or 0 if unknown.
+	 */
+	public static int widthOf( String id ) {
+
+		if( id.length() != 3 ) {
+			return 0;
+		}
+		return widthOf(id.charAt(0), id.charAt(1), id.charAt(2));
+	}
+
+
+	private static int widthOf( int c1, int c2, int c3 ) {
+
+		if( c1 < 'A' || c1 > 'Z' || c2 < 'A' || c2 > 'Z' || c3 < '0' || c3 > '9' ) {
+			return 0;
+		}
+		return WIDTHS[slot(c1, c2, c3)];
+	}
+
+
+	/**
+	 * @param id a three character identifier, e.g. "MA1".
+	 * @return the identifier packed into an int, as getId() returns it.
+	 */
+	public static int packId( String id ) {
+
+		if( id.length() != 3 ) {
+			throw new IllegalArgumentException("An element identifier has three characters: " + id);
+		}
+		return (id.charAt(0) & 0xFF) << 16 | (id.charAt(1) & 0xFF) << 8 | (id.charAt(2) & 0xFF);
+	}
+
+
+	private static int packId( byte[] data, int offset ) {
+		return (data[offset] & 0xFF) << 16 | (data[offset + 1] & 0xFF) << 8 | (data[offset + 2] & 0xFF);
+	}
+
+
+	private int[] ids = new int[16];
+	private byte[] sections = new byte[16];
+	private int[] starts = new int[16];
+	private int[] lengths = new int[16];
+	private int iSize;
+
+	private boolean bComplete;
+	private int iUnindexedStart;
+
+
+	/**
+	 *   Indexes the additional data of the record in [offset, offset + length),
+	 * i.e. the bytes from offset + 105 on. The previous index is discarded.
+	 *
+	 * @param record
+	 * @param offset
+	 * @param length the length of the whole record.
+	 * @return this index
+	 */
+	public AdditionalDataIndex index( byte[] record, int offset, int length ) {
+
+		iSize = 0;
+		bComplete = true;
+
+		final int iEnd = offset + length;
+		int i = offset + 105;
+		byte section = 0;
+
+		while( i + 3 <= iEnd ) {
+
+			final int id = packId(record, i);
+
+			// section markers
+			if( id == ID_ADD ) {
+				section = SECTION_ADD;
+				i += 3;
+				continue;
+			}
+			if( id == ID_REM ) {
+				section = SECTION_REM;
+				i += 3;
+				continue;
+			}
+			if( id == ID_EQD ) {
+				section = SECTION_EQD;
+				i += 3;
+				continue;
+			}
+			if( id == ID_QNN ) {
+				add(id, SECTION_QNN, i + 3, iEnd - i - 3);
+				i = iEnd;
+				break;
+			}
+
+			int iDataStart = i + 3;
+			int iDataLength;
+			if( section == SECTION_ADD ) {
+				iDataLength = widthOf(record[i] & 0xFF, record[i + 1] & 0xFF, record[i + 2] & 0xFF);
+			} else if( section == SECTION_REM ) {
+				iDataLength = iDataStart + REM_LENGTH_WIDTH <= iEnd
+						? AsciiFieldDecoding_ParserSimple.decodeInt(record, iDataStart, REM_LENGTH_WIDTH)
+						: 0;
+				iDataStart += REM_LENGTH_WIDTH;
+			} else if( section == SECTION_EQD ) {
+				iDataLength = EQD_ELEMENT_WIDTH;
+			} else {
+				// data before any section marker.
+				iDataLength = 0;
+			}
+
+			if( iDataLength <= 0 || iDataStart + iDataLength > iEnd ) {
+				break;
+			}
+			add(id, section, iDataStart, iDataLength);
+			i = iDataStart + iDataLength;
+		}
+
+		// trailing blanks are not data.
+		int iLast = i;
+		while( iLast < iEnd && record[iLast] == ' ' ) {
+			iLast++;
+		}
+		if( iLast < iEnd ) {
+			bComplete = false;
+		}
+		iUnindexedStart = i;
+		return this;
+	}
+	// ^^ index(byte[], int, int)
+
+
+	private void add( int id, byte section, int start, int length ) {
+
+		if( iSize == ids.length ) {
+			final int iCapacity = 2 * iSize;
+			ids = Arrays.copyOf(ids, iCapacity);
+			sections = Arrays.copyOf(sections, iCapacity);
+			starts = Arrays.copyOf(starts, iCapacity);
+			lengths = Arrays.copyOf(lengths, iCapacity);
+		}
+		ids[iSize] = id;
+		sections[iSize] = section;
+		starts[iSize] = start;
+		lengths[iSize] = length;
+		iSize++;
+	}
+
+
+	/**
+	 * @return the number of indexed elements.
+	 */
+	public int size() {
+		return iSize;
+	}
+
+	/**
+	 * @return false if the indexing stopped before the end of the record.
+	 */
+	public boolean isComplete() {
+		return bComplete;
+	}
+
+	/**
+	 * @return the offset where the indexing stopped.
+	 */
+	public int getUnindexedStart() {
+		return iUnindexedStart;
+	}
+
+	/**
+	 * @param i
+	 * @return the identifier of the i-th element, packed as by packId().
+	 */
+	public int getId( int i ) {
+		return ids[checkElement(i)];
+	}
+
+	public String getIdString( int i ) {
+		final int id = getId(i);
+		return new String(new char[] { (char) (id >>> 16), (char) ((id >>> 8) & 0xFF), (char) (id & 0xFF) });
+	}
+
+	/**
+	 * @param i
+	 * @return SECTION_ADD, SECTION_REM, SECTION_EQD or SECTION_QNN.
+	 */
+	public byte getSection( int i ) {
+		return sections[checkElement(i)];
+	}
+
+	/**
+	 * @param i
+	 * @return the offset of the data of the i-th element in the indexed bytes.
+	 */
+	public int getStart( int i ) {
+		return starts[checkElement(i)];
+	}
+
+	/**
+	 * @param i
+	 * @return the length of the data of the i-th element.
+	 */
+	public int getLength( int i ) {
+		return lengths[checkElement(i)];
+	}
+
+
+	/**
+	 * @param id e.g. "MA1"
+	 * @return the first element with the identifier, or -1.
+	 */
+	public int find( String id ) {
+		return find(packId(id));
+	}
+
+	/**
+	 * @param id an identifier packed by packId().
+	 * @return the first element with the identifier, or -1.
+	 */
+	public int find( int id ) {
+
+		for( int i = 0; i < iSize; i++ ) {
+			if( ids[i] == id ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	// ^^ find(int)
+
+
+	private int checkElement( int i ) {
+		if( i < 0 || i >= iSize ) {
+			throw new IndexOutOfBoundsException("Element " + i + " of " + iSize);
+		}
+		return i;
+	}
+
+}
+// ^^ class AdditionalDataIndex
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -33,6 +33,17 @@ class AdditionalDataSectionParsing_ParserSimple {
 		//      105th character as is (if any). 
 		return data;
 	}
+	// ^^ parseAdditionalData(string)
+	
+	
+	
+	String parseAdditionalData(byte[] data, int offset, int length) {
+		//      Same as parseAdditionalData(String), but 
+		//      takes the additional data straight from 
+		//      the record's bytes.
+		return parseAdditionalData(AsciiFieldDecoding_ParserSimple.toString(data, offset, length));
+	}
+	// ^^ parseAdditionalData(byte[], int, int)
 
 }
 // ^^ class AdditionalDataSectionParsing_ParserSimple
@@ -0,0 +1,165 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ *
+ *   This class' methods decode the fixed-width fields of an ISD record
+ * straight from its raw bytes (e.g. the backing array of a Hadoop Text),
+ * so no String of the whole record has to be built before parsing.
+ *
+ *   ISD records are pure ASCII, therefore one byte is one character.
+ * 
+ *   The numeric fields of both the control and the mandatory data 
+ * section are decoded here, and malformed numbers are reported by 
+ * a sentinel value rather than by an exception. 
+ *
+ * @author BusyBee
+ *
+ */
+final class AsciiFieldDecoding_ParserSimple {
+
+	private AsciiFieldDecoding_ParserSimple() {
+	}
+
+
+	/**
+	 *   The value returned by decodeInt() if a field does not contain 
+	 * a parsable integer. No fixed-width ISD field can hold this value.
+	 */
+	static final int MALFORMED = Integer.MIN_VALUE;
+
+	/*
+	 *   Accumulated magnitudes are clamped to this value, so a long 
+	 * run of digits can neither overflow nor be mistaken for an int.
+	 */
+	private static final long MAGNITUDE_CLAMP = (long) Integer.MAX_VALUE + 2;
+
+
+
+	/**
+	 *   Decodes the bytes [offset, offset + length) as a signed decimal 
+	 * integer, e.g. "+0240", "-0932" or "0005": an optional leading '+' 
+	 * or '-' followed by at least one digit.
+	 * 
+	 *   The digits are read in a single pass which only accumulates 
+	 * a 'bad' flag instead of branching on every byte, and nothing is 
+	 * thrown: malformed data is reported by returning MALFORMED.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return the value, or MALFORMED
+	 */
+	static int decodeInt(byte[] data, int offset, int length) {
+
+		if( length <= 0 ) {
+			return MALFORMED;
+		}
+
+		final int iEnd = offset + length;
+		final int first = data[offset];
+		final int negative = first == '-' ? 1 : 0;
+		int i = offset + (negative | (first == '+' ? 1 : 0));
+
+		// a sign without digits is malformed.
+		int bad = iEnd - i - 1;
+		long value = 0;
+		for( ; i < iEnd; i++ ) {
+			final int digit = data[i] - '0';
+			// negative if the byte is not a digit.
+			bad |= digit | (9 - digit);
+			value = Math.min(value * 10 + digit, MAGNITUDE_CLAMP);
+		}
+
+		return toInt(bad, value, negative);
+	}
+	// ^^ decodeInt(byte[], int, int)
+
+
+
+	/**
+	 *   Same as decodeInt(byte[], int, int), but decodes a whole String. 
+	 * A null string is reported as MALFORMED as well.
+	 *
+	 * @param data
+	 * @return the value, or MALFORMED
+	 */
+	static int decodeInt(String data) {
+
+		if( data == null || data.isEmpty() ) {
+			return MALFORMED;
+		}
+
+		final int iEnd = data.length();
+		final int first = data.charAt(0);
+		final int negative = first == '-' ? 1 : 0;
+		int i = negative | (first == '+' ? 1 : 0);
+
+		// a sign without digits is malformed.
+		int bad = iEnd - i - 1;
+		long value = 0;
+		for( ; i < iEnd; i++ ) {
+			final int digit = data.charAt(i) - '0';
+			// negative if the char is not a digit.
+			bad |= digit | (9 - digit);
+			value = Math.min(value * 10 + digit, MAGNITUDE_CLAMP);
+		}
+
+		return toInt(bad, value, negative);
+	}
+	// ^^ decodeInt(string)
+
+
+
+	private static int toInt(int bad, long magnitude, int negative) {
+
+		// Integer.MIN_VALUE itself is MALFORMED, so the magnitude
+		// may not exceed Integer.MAX_VALUE for either sign.
+		if( (bad | (Integer.MAX_VALUE - magnitude)) < 0 ) {
+			return MALFORMED;
+		}
+
+		// negate without a branch if the sign was '-'.
+		return (int) ((magnitude ^ -negative) + negative);
+	}
+	// ^^ toInt(int, long, int)
+
+
+
+	/**
+	 *   Returns the bytes [offset, offset + length) as a String.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return
+	 */
+	static String toString(byte[] data, int offset, int length) {
+		return new String(data, offset, length, StandardCharsets.US_ASCII);
+	}
+	// ^^ toString(byte[], int, int)
+
+
+
+	/**
+	 *   Returns the byte at the offset as a char.
+	 *
+	 * @param data
+	 * @param offset
+	 * @return
+	 */
+	static char toChar(byte[] data, int offset) {
+		return (char) (data[offset] & 0xFF);
+	}
+	// ^^ toChar(byte[], int)
+
+}
+// ^^ class AsciiFieldDecoding_ParserSimple
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,92 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReader;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileRecordReaderWrapper;
+import org.apache.hadoop.mapreduce.lib.input.CombineFileSplit;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+
+/**
+ *
+ *   An InputFormat that packs many small ISD files (e.g. the thousands of
+ * USAF-WBAN-YEAR station files of one year, plain or gzipped) into few
+ * splits, so a job is not one map task per file.
+ *
+ *   The splits are built by CombineFileInputFormat, which groups the
+ * blocks of the files by node, then by rack, so a split is read where
+ * its data are. A split grows up to the target split size, set with
+ * FileInputFormat.setMaxInputSplitSize() (mapreduce.input.fileinputformat
+ * .split.maxsize), DEFAULT_TARGET_SPLIT_SIZE if not set. Gzipped files
+ * are never cut; plain files larger than the target are.
+ *
+ *   Every file of a split is read in turn by an NCDCRecordReader, so the
+ * mapper gets the same reused NCDCParserSimple as with NCDCInputFormat.
+ *
+ * @author BusyBee
+ *
+ */
+public class CombineNCDCInputFormat extends CombineFileInputFormat<LongWritable, NCDCParserSimple> {
+
+	public static final long DEFAULT_TARGET_SPLIT_SIZE = 256L << 20;
+
+	private final NCDCInputFormat fileFormat = new NCDCInputFormat();
+
+
+	@Override
+	public List<InputSplit> getSplits( JobContext job ) throws IOException {
+
+		if( job.getConfiguration().get(FileInputFormat.SPLIT_MAXSIZE) == null ) {
+			// without a maximum, every node would get one huge split.
+			setMaxSplitSize(DEFAULT_TARGET_SPLIT_SIZE);
+		}
+		return super.getSplits(job);
+	}
+	// ^^ getSplits(JobContext)
+
+
+	@Override
+	public RecordReader<LongWritable, NCDCParserSimple> createRecordReader( InputSplit split, TaskAttemptContext context )
+			throws IOException {
+
+		return new CombineFileRecordReader<>((CombineFileSplit) split, context, FileRecordReader.class);
+	}
+	// ^^ createRecordReader(InputSplit, TaskAttemptContext)
+
+
+	@Override
+	protected boolean isSplitable( JobContext context, Path file ) {
+		return fileFormat.isSplitable(context, file);
+	}
+
+
+	/**
+	 *   Reads the idx-th file of a CombineFileSplit with an NCDCRecordReader.
+	 * CombineFileRecordReader creates it by reflection.
+	 */
+	public static class FileRecordReader extends CombineFileRecordReaderWrapper<LongWritable, NCDCParserSimple> {
+
+		public FileRecordReader( CombineFileSplit split, TaskAttemptContext context, Integer idx )
+				throws IOException, InterruptedException {
+			super(new NCDCInputFormat(), split, context, idx);
+		}
+	}
+	// ^^ class FileRecordReader
+
+}
+// ^^ class CombineNCDCInputFormat
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,243 @@
+package ncdcparsersimple;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ *
+ *   A parser that any number of threads can share, without a lock.
+ *
+ *   NCDCParserSimple keeps the fields of the record it parsed (and its
+ * section parsers keep the malformed flags of it), so one parser must
+ * not be used by two threads at once, and creating one per record is
+ * wasteful. ConcurrentNCDCParser owns one parsing context per thread
+ * instead: the first time a thread parses, it gets its own
+ * NCDCParserSimple and ObservationBatch, and reuses them for every
+ * record after. Threads never share a context, so no context needs a
+ * lock, and the engine itself holds nothing else that changes.
+ *
+ *   Thread-safety contract:
+ *     - every method can be called from any number of threads at once;
+ *     - parse() returns an immutable Observation, which the caller owns
+ *       and can hand to other threads;
+ *     - parse(..., extractor) calls the extractor on the calling thread
+ *       with the thread's parser. The extractor must copy what it needs
+ *       and must not keep the parser;
+ *     - parseLines() hands the thread's batch to the sink on the calling
+ *       thread and clears it when the sink returns. The sink owns the
+ *       batch only while it runs, and must copy what it keeps;
+ *     - an extractor or sink that parses with the same engine is given a
+ *       context of its own, so it does not clobber the one in use.
+ *
+ *   A context lives as long as its thread (it is held in a ThreadLocal),
+ * so the engine suits long-lived ingest threads and thread pools.
+ *
+ * @author BusyBee
+ *
+ */
+public class ConcurrentNCDCParser {
+
+	public static final int DEFAULT_BATCH_SIZE = 4096;
+
+	private final Set<NCDCField> projection;
+	private final int iBatchSize;
+
+	private final AtomicInteger contexts = new AtomicInteger();
+	private final ThreadLocal<Context> context = ThreadLocal.withInitial(this::newContext);
+
+
+	/*
+	 * The parsing state of one thread. The batch is created by the first
+	 * parseLines(), so threads that only parse() do not allocate it.
+	 */
+	private static final class Context {
+
+		final NCDCParserSimple parser;
+		ObservationBatch batch;
+		boolean bBusy;
+
+		Context( NCDCParserSimple parser ) {
+			this.parser = parser;
+		}
+	}
+
+
+	/**
+	 *   An engine that parses every field, in batches of DEFAULT_BATCH_SIZE.
+	 */
+	public ConcurrentNCDCParser() {
+		this(EnumSet.allOf(NCDCField.class), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param projection the fields parse() decodes (see NCDCParserSimple(Set));
+	 *        parseLines() decodes all the control and mandatory data.
+	 * @param batchSize the number of records of a batch of parseLines().
+	 */
+	public ConcurrentNCDCParser( Set<NCDCField> projection, int batchSize ) {
+
+		if( batchSize <= 0 ) {
+			throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+		}
+		this.projection = EnumSet.copyOf(projection);
+		this.iBatchSize = batchSize;
+	}
+	// ^^ ConcurrentNCDCParser(Set<NCDCField>, int)
+
+
+	private Context newContext() {
+		contexts.incrementAndGet();
+		return new Context(new NCDCParserSimple(projection));
+	}
+
+
+	/*
+	 *   The context of the calling thread, or a new one if it is in use
+	 * (an extractor or sink that parses again).
+	 */
+	private Context acquire() {
+
+		Context c = context.get();
+		if( c.bBusy ) {
+			c = newContext();
+		}
+		c.bBusy = true;
+		return c;
+	}
+
+
+	/**
+	 * @return the number of contexts created so far, i.e. about the number
+	 *         of threads that have parsed.
+	 */
+	public int getContextCount() {
+		return contexts.get();
+	}
+
+
+	/*
+	 * -----------------------
+	 *   Records
+	 * -----------------------
+	 */
+
+	/**
+	 * @param record a record of at least 105 characters.
+	 * @return the parsed record.
+	 */
+	public Observation parse( String record ) {
+
+		final Context c = acquire();
+		try {
+			c.parser.parse(record);
+			return new Observation(c.parser);
+		} finally {
+			c.bBusy = false;
+		}
+	}
+
+
+	/**
+	 * @param record a record of at least 105 characters.
+	 * @return the parsed record.
+	 */
+	public Observation parse( Text record ) {
+		return parse(record.getBytes(), 0, record.getLength());
+	}
+
+
+	/**
+	 * @param record
+	 * @param offset
+	 * @param length at least 105.
+	 * @return the parsed record.
+	 */
+	public Observation parse( byte[] record, int offset, int length ) {
+		return parse(record, offset, length, Observation::new);
+	}
+
+
+	/**
+	 *   Parses the record with the calling thread's parser and returns what
+	 * the extractor takes from it, e.g. a few fields, or an
+	 * ObservationWritable set from it, without building an Observation.
+	 *
+	 * @param record
+	 * @param offset
+	 * @param length at least 105.
+	 * @param extractor must not keep the parser.
+	 * @return the result of the extractor.
+	 */
+	public <R> R parse( byte[] record, int offset, int length, Function<? super NCDCParserSimple, R> extractor ) {
+
+		final Context c = acquire();
+		try {
+			c.parser.parse(record, offset, length);
+			return extractor.apply(c.parser);
+		} finally {
+			c.bBusy = false;
+		}
+	}
+	// ^^ parse(byte[], int, int, Function<? super NCDCParserSimple, R>)
+
+
+	/*
+	 * -----------------------
+	 *   Batches
+	 * -----------------------
+	 */
+
+	/**
+	 *   Parses the newline separated records of the bytes into the calling
+	 * thread's batch, and hands the batch to the sink whenever it is full
+	 * and once more at the end if it holds any record. Lines shorter than
+	 * 105 characters are skipped; a last line without '\n' is parsed.
+	 *
+	 * @param data whole lines.
+	 * @param offset
+	 * @param length
+	 * @param sink owns the batch only until it returns.
+	 * @return the number of records parsed.
+	 */
+	public long parseLines( byte[] data, int offset, int length, Consumer<? super ObservationBatch> sink ) {
+
+		final Context c = acquire();
+		if( c.batch == null ) {
+			c.batch = new ObservationBatch(iBatchSize);
+		}
+		final ObservationBatch batch = c.batch;
+		try {
+			long records = 0;
+			int iStart = offset;
+			final int iEnd = offset + length;
+			batch.clear();
+			while( iStart < iEnd ) {
+				iStart += batch.parseLines(data, iStart, iEnd - iStart, true);
+				if( batch.isFull() || (iStart >= iEnd && batch.size() > 0) ) {
+					records += batch.size();
+					sink.accept(batch);
+					batch.clear();
+				}
+			}
+			return records;
+		} finally {
+			batch.clear();
+			c.bBusy = false;
+		}
+	}
+	// ^^ parseLines(byte[], int, int, Consumer<? super ObservationBatch>)
+
+}
+// ^^ class ConcurrentNCDCParser
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
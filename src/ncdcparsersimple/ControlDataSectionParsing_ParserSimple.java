@@ -14,11 +14,49 @@ package ncdcparsersimple;
  * (ISD) for that particular part of the record. Otherwise an int will be 
  * returned as is. 
  * 
+ *   The strings and bytes are decoded by AsciiFieldDecoding_ParserSimple, 
+ * which reports malformed data by a sentinel value, so no exception is 
+ * thrown (and no stack trace is built) for a malformed record. 
+ * Every replaced malformed value is flagged in iMalformedFields and, 
+ * unless the delegate was created not to count, counted by 
+ * MalformedDataCounters. 
+ * 
  * @author BusyBee
  *
  */
 class ControlDataSectionParsing_ParserSimple {
 
+	/*
+	 *   The mask (see NCDCField) of the fields replaced because they 
+	 * were malformed, since the owner of this delegate last set it to 0. 
+	 */
+	int iMalformedFields;
+	
+	private final boolean bCounting;
+	
+	
+	ControlDataSectionParsing_ParserSimple() {
+		this(true);
+	}
+	
+	/*
+	 *   counting: false for a delegate that may decode the same field 
+	 * of a record more than once, e.g. the one of NCDCRecordView. 
+	 */
+	ControlDataSectionParsing_ParserSimple(boolean counting) {
+		this.bCounting = counting;
+	}
+	
+	
+	private void malformed(NCDCField field) {
+		if( bCounting ) {
+			MalformedDataCounters.increment(field);
+		}
+		iMalformedFields |= field.mask();
+	}
+	// ^^ malformed(NCDCField)
+	
+
 
 	/**
 	 *	1 
@@ -34,33 +72,48 @@ class ControlDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseTotalVariableChars(String data) {
-		
 
-		final String MIN_VALUE_STR = "0000";
-		final int MIN_VALUE_INT = Integer.parseInt(MIN_VALUE_STR);
-		
-		int dataValue_int = 0;
-		try {
-			
-			dataValue_int = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// The string does not contain a parsable integer.
-			// Return min value.		
-			// TODO counter up ?
+		final int MIN_VALUE_INT = 0;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.TOTAL_VARIABLE_CHARS);
 			return MIN_VALUE_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
-			return 0;
 		}
-		
-		return dataValue_int;
+
+		return dataValue;
+
 	}
 	// ^^ parseTotalVariableChars(string)
 
+
+
+	/**
+	 *   Same as parseTotalVariableChars(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseTotalVariableChars(byte[] data, int offset, int length) {
+
+		final int MIN_VALUE_INT = 0;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.TOTAL_VARIABLE_CHARS);
+			return MIN_VALUE_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseTotalVariableChars(byte[], int, int)
+
 	
 
 	/**
@@ -81,6 +134,24 @@ class ControlDataSectionParsing_ParserSimple {
 		
 	}
 	// ^^ parseFixedWeatherStation_USAFMasterStationCatId(string)
+
+
+
+	/**
+	 *   Same as parseFixedWeatherStation_USAFMasterStationCatId(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseFixedWeatherStation_USAFMasterStationCatId(byte[] data, int offset, int length) {
+
+		return parseFixedWeatherStation_USAFMasterStationCatId(FieldStringCache.STATION_IDS.get(data, offset, length));
+
+	}
+	// ^^ parseFixedWeatherStation_USAFMasterStationCatId(byte[], int, int)
 	
 	
 	
@@ -111,6 +182,24 @@ class ControlDataSectionParsing_ParserSimple {
 		
 	}
 	// ^^ parseFixedWeatherStation_NCEIWbanId(string)
+
+
+
+	/**
+	 *   Same as parseFixedWeatherStation_NCEIWbanId(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseFixedWeatherStation_NCEIWbanId(byte[] data, int offset, int length) {
+
+		return parseFixedWeatherStation_NCEIWbanId(FieldStringCache.STATION_IDS.get(data, offset, length));
+
+	}
+	// ^^ parseFixedWeatherStation_NCEIWbanId(byte[], int, int)
 	
 	
 	
@@ -134,6 +223,24 @@ class ControlDataSectionParsing_ParserSimple {
 		return data;
 	}
 	// ^^ parseGeophysicalPointObservation_Date(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalPointObservation_Date(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseGeophysicalPointObservation_Date(byte[] data, int offset, int length) {
+
+		return parseGeophysicalPointObservation_Date(AsciiFieldDecoding_ParserSimple.toString(data, offset, length));
+
+	}
+	// ^^ parseGeophysicalPointObservation_Date(byte[], int, int)
 	
 	
 	
@@ -159,6 +266,24 @@ class ControlDataSectionParsing_ParserSimple {
 		
 	}
 	// ^^ parseGeophysicalPointObservation_Time(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalPointObservation_Time(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseGeophysicalPointObservation_Time(byte[] data, int offset, int length) {
+
+		return parseGeophysicalPointObservation_Time(AsciiFieldDecoding_ParserSimple.toString(data, offset, length));
+
+	}
+	// ^^ parseGeophysicalPointObservation_Time(byte[], int, int)
 	
 	
 	
@@ -233,34 +358,47 @@ class ControlDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseGeophysicalPointObservation_LatitudeCoord(String data){
-		
-		final int DATA_IS_MISSING_INT = 99999;		
-		
-		int dataValue = 0;
-		try {
-			
-			if( data.substring(0,1).equals("+") ) {
-				dataValue = Integer.parseInt(data.substring(1) );
-			} else {
-				dataValue = Integer.parseInt(data);
-			}
-
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int DATA_IS_MISSING_INT = 99999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.LATITUDE);
 			return DATA_IS_MISSING_INT;
 		}
-		
+
 		return dataValue;
-		
+
 	}
 	// ^^ parseGeophysicalPointObservation_LatitudeCoord(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalPointObservation_LatitudeCoord(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseGeophysicalPointObservation_LatitudeCoord(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 99999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.LATITUDE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseGeophysicalPointObservation_LatitudeCoord(byte[], int, int)
 	
 	
 	
@@ -284,33 +422,46 @@ class ControlDataSectionParsing_ParserSimple {
 	 */
 	int parseGeophysicalPointObservation_LongitudeCoord(String data) {
 
-		final int DATA_IS_MISSING_INT = 999999;		
-		
-		int dataValue = 0;
-		try {
-			
-			if( data.substring(0,1).equals("+") ) {
-				dataValue = Integer.parseInt(data.substring(1) );
-			} else {
-				dataValue = Integer.parseInt(data);
-			}
-
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+		final int DATA_IS_MISSING_INT = 999999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.LONGITUDE);
 			return DATA_IS_MISSING_INT;
 		}
-		
+
 		return dataValue;
-		
+
 	}
 	// ^^ parseGeophysicalPointObservation_LongitudeCoord(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalPointObservation_LongitudeCoord(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseGeophysicalPointObservation_LongitudeCoord(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 999999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.LONGITUDE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseGeophysicalPointObservation_LongitudeCoord(byte[], int, int)
 	
 	
 
@@ -372,6 +523,24 @@ class ControlDataSectionParsing_ParserSimple {
 
 	}
 	// ^^ parseGeophysicalReportType_Code(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalReportType_Code(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseGeophysicalReportType_Code(byte[] data, int offset, int length) {
+
+		return parseGeophysicalReportType_Code(FieldStringCache.CODES.get(data, offset, length));
+
+	}
+	// ^^ parseGeophysicalReportType_Code(byte[], int, int)
 	
 	
 	
@@ -392,34 +561,47 @@ class ControlDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseGeophysicalPointObservation_ElevationDimention(String data) {
-		
-		final int DATA_IS_MISSING_INT = 9999;		
-		
-		int dataValue = 0;
-		try {
-			
-			if( data.substring(0,1).equals("+") ) {
-				dataValue = Integer.parseInt(data.substring(1) );
-			} else {
-				dataValue = Integer.parseInt(data);
-			}
-
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The data substring is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int DATA_IS_MISSING_INT = 9999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.ELEVATION);
 			return DATA_IS_MISSING_INT;
 		}
-		
+
 		return dataValue;
-		
+
 	}
 	// ^^ parseGeophysicalPointObservation_ElevationDimention(string)
+
+
+
+	/**
+	 *   Same as parseGeophysicalPointObservation_ElevationDimention(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseGeophysicalPointObservation_ElevationDimention(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 9999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.ELEVATION);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseGeophysicalPointObservation_ElevationDimention(byte[], int, int)
 	
 	
 	
@@ -441,6 +623,24 @@ class ControlDataSectionParsing_ParserSimple {
 		return data;
 	}
 	// ^^ parseFixedWeatherStation_CallLetterId(string)
+
+
+
+	/**
+	 *   Same as parseFixedWeatherStation_CallLetterId(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseFixedWeatherStation_CallLetterId(byte[] data, int offset, int length) {
+
+		return parseFixedWeatherStation_CallLetterId(FieldStringCache.STATION_IDS.get(data, offset, length));
+
+	}
+	// ^^ parseFixedWeatherStation_CallLetterId(byte[], int, int)
 	
 
 	
@@ -465,6 +665,24 @@ class ControlDataSectionParsing_ParserSimple {
 		
 	}
 	// ^^ parseMeteorogicalPointObservation_QualityControlProcessName(string)
+
+
+
+	/**
+	 *   Same as parseMeteorogicalPointObservation_QualityControlProcessName(String), but takes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	String parseMeteorogicalPointObservation_QualityControlProcessName(byte[] data, int offset, int length) {
+
+		return parseMeteorogicalPointObservation_QualityControlProcessName(FieldStringCache.CODES.get(data, offset, length));
+
+	}
+	// ^^ parseMeteorogicalPointObservation_QualityControlProcessName(byte[], int, int)
 	
 
 }
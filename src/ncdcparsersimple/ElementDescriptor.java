@@ -0,0 +1,233 @@
+package ncdcparsersimple;
+
+/**
+ *
+ *   Describes one additional data element of an ISD record (e.g. MA1,
+ * atmospheric pressure): its identifier, and the name, width, kind,
+ * scaling factor and missing value of each of its subfields, in record
+ * order.
+ *
+ *   decode() reads the element into int slots, one per subfield, the
+ * same way the mandatory data is read:
+ *     - a NUMBER subfield is decoded as a signed int, e.g. "+0240" is
+ *       240; a malformed value becomes the subfield's missing value
+ *       and is counted by MalformedDataCounters as ADDITIONAL_DATA,
+ *     - a CODE subfield (a flag or a quality code) is its character,
+ *       e.g. '1'.
+ *   The numbers stay scaled as in the record: a depth of "0125" with
+ * the scaling factor 10 is the slot value 125, i.e. 12.5 mm.
+ * toDouble() divides by the scaling factor.
+ *
+ *   The descriptors are registered in AdditionalDataElements.
+ *
+ * @author BusyBee
+ *
+ */
+public final class ElementDescriptor {
+
+	public static final byte NUMBER = 0;
+	public static final byte CODE = 1;
+
+	private final String sId;
+	private final String sName;
+	private final int iWidth;
+
+	private final String[] names;
+	private final int[] widths;
+	private final byte[] kinds;
+	private final int[] scales;
+	private final int[] missingValues;
+
+
+	ElementDescriptor( String id, String name, Subfield... subfields ) {
+
+		this.sId = id;
+		this.sName = name;
+		this.names = new String[subfields.length];
+		this.widths = new int[subfields.length];
+		this.kinds = new byte[subfields.length];
+		this.scales = new int[subfields.length];
+		this.missingValues = new int[subfields.length];
+
+		int width = 0;
+		for( int i = 0; i < subfields.length; i++ ) {
+			names[i] = subfields[i].name;
+			widths[i] = subfields[i].width;
+			kinds[i] = subfields[i].kind;
+			scales[i] = subfields[i].scale;
+			missingValues[i] = subfields[i].missingValue;
+			width += subfields[i].width;
+		}
+		this.iWidth = width;
+	}
+	// ^^ ElementDescriptor(String, String, Subfield...)
+
+
+	/**
+	 * @return the same descriptor for another identifier of the same
+	 *         element, e.g. AA2 for AA1.
+	 */
+	ElementDescriptor withId( String id ) {
+
+		final Subfield[] subfields = new Subfield[names.length];
+		for( int i = 0; i < names.length; i++ ) {
+			subfields[i] = new Subfield(names[i], widths[i], kinds[i], scales[i], missingValues[i]);
+		}
+		return new ElementDescriptor(id, sName, subfields);
+	}
+
+
+	/**
+	 *   Decodes the element whose data (without the identifier) starts at
+	 * offset into slots [slotOffset, slotOffset + getSubfieldCount()).
+	 *
+	 * @param data
+	 * @param offset
+	 * @param slots
+	 * @param slotOffset
+	 * @return the number of slots written.
+	 */
+	public int decode( byte[] data, int offset, int[] slots, int slotOffset ) {
+
+		int iPosition = offset;
+		for( int i = 0; i < names.length; i++ ) {
+
+			if( kinds[i] == CODE ) {
+				slots[slotOffset + i] = data[iPosition] & 0xFF;
+			} else {
+				final int value = AsciiFieldDecoding_ParserSimple.decodeInt(data, iPosition, widths[i]);
+				if( value == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+					MalformedDataCounters.increment(NCDCField.ADDITIONAL_DATA);
+					slots[slotOffset + i] = missingValues[i];
+				} else {
+					slots[slotOffset + i] = value;
+				}
+			}
+			iPosition += widths[i];
+		}
+		return names.length;
+	}
+	// ^^ decode(byte[], int, int[], int)
+
+
+	/**
+	 * @param i a subfield
+	 * @param value its slot value
+	 * @return the value divided by the scaling factor, or NaN if it is missing.
+	 */
+	public double toDouble( int i, int value ) {
+
+		if( value == missingValues[i] ) {
+			return Double.NaN;
+		}
+		return (double) value / scales[i];
+	}
+
+
+	/**
+	 * @param i a subfield
+	 * @param value its slot value
+	 * @return true if the value is the subfield's missing value.
+	 */
+	public boolean isMissing( int i, int value ) {
+		return value == missingValues[i];
+	}
+
+
+	/**
+	 * @param name
+	 * @return the index of the subfield with the name, or -1.
+	 */
+	public int indexOf( String name ) {
+		for( int i = 0; i < names.length; i++ ) {
+			if( names[i].equals(name) ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+
+	public String getId() {
+		return sId;
+	}
+
+	public String getName() {
+		return sName;
+	}
+
+	/**
+	 * @return the width of the element's data, without the identifier.
+	 */
+	public int getWidth() {
+		return iWidth;
+	}
+
+	public int getSubfieldCount() {
+		return names.length;
+	}
+
+	public String getSubfieldName( int i ) {
+		return names[i];
+	}
+
+	public int getSubfieldWidth( int i ) {
+		return widths[i];
+	}
+
+	/**
+	 * @param i
+	 * @return NUMBER or CODE.
+	 */
+	public byte getSubfieldKind( int i ) {
+		return kinds[i];
+	}
+
+	public int getScale( int i ) {
+		return scales[i];
+	}
+
+	/**
+	 * @param i
+	 * @return the missing value; for a CODE, the character of the missing code.
+	 */
+	public int getMissingValue( int i ) {
+		return missingValues[i];
+	}
+
+
+	@Override
+	public String toString() {
+		return sId + " " + sName;
+	}
+
+
+	/*
+	 *   One subfield, as given to the constructor.
+	 */
+	static final class Subfield {
+
+		final String name;
+		final int width;
+		final byte kind;
+		final int scale;
+		final int missingValue;
+
+		Subfield( String name, int width, byte kind, int scale, int missingValue ) {
+			this.name = name;
+			this.width = width;
+			this.kind = kind;
+			this.scale = scale;
+			this.missingValue = missingValue;
+		}
+	}
+
+}
+// ^^ class ElementDescriptor
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
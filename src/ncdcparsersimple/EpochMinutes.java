@@ -0,0 +1,180 @@
+package ncdcparsersimple;
+
+/**
+ *
+ *   The date (YYYYMMDD, positions 16-23) and time (HHMM, positions 24-27)
+ * of an ISD record as one int: the minutes since 1970-01-01 00:00 UTC.
+ * Time-range scans, sorts and time-ordered merges then compare ints
+ * instead of Strings.
+ *
+ *   The 12 digits are decoded straight from the record, and the day is
+ * computed arithmetically (proleptic Gregorian calendar, days from
+ * civil), so decoding allocates nothing. A date or time that is not all
+ * digits or is out of range (month 01-12, day within the month, hour
+ * 00-23, minute 00-59, year 0000-6000) decodes to MISSING, which is less
+ * than every valid value.
+ *
+ * @author BusyBee
+ *
+ */
+public final class EpochMinutes {
+
+	public static final int MISSING = Integer.MIN_VALUE;
+
+	public static final int MAX_YEAR = 6000;
+
+	private static final int MINUTES_PER_DAY = 24 * 60;
+
+	private static final int[] DAYS_IN_MONTH = { 0, 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+
+	private EpochMinutes() {
+	}
+
+
+	/**
+	 * @param year
+	 * @param month 1-12
+	 * @param day
+	 * @param hour
+	 * @param minute
+	 * @return the minutes since the epoch, or MISSING if the date or
+	 *         time is out of range.
+	 */
+	public static int of( int year, int month, int day, int hour, int minute ) {
+
+		if( year < 0 || year > MAX_YEAR || month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month]
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 ) {
+			return MISSING;
+		}
+		if( month == 2 && day == 29 && !isLeapYear(year) ) {
+			return MISSING;
+		}
+		return daysFromCivil(year, month, day) * MINUTES_PER_DAY + hour * 60 + minute;
+	}
+	// ^^ of(int, int, int, int, int)
+
+
+	/**
+	 * @param data
+	 * @param offset the date, followed by the time, as in a record
+	 *        (offset + 15 for a record at offset).
+	 * @return the minutes since the epoch, or MISSING.
+	 */
+	public static int decode( byte[] data, int offset ) {
+
+		final int o = offset;
+		int bad = 0;
+		for( int i = o; i < o + 12; i++ ) {
+			// negative for any byte that is not a digit.
+			bad |= (data[i] - '0') | ('9' - data[i]);
+		}
+		if( bad < 0 ) {
+			return MISSING;
+		}
+		return of((data[o] - '0') * 1000 + (data[o + 1] - '0') * 100 + (data[o + 2] - '0') * 10 + (data[o + 3] - '0'),
+				(data[o + 4] - '0') * 10 + (data[o + 5] - '0'),
+				(data[o + 6] - '0') * 10 + (data[o + 7] - '0'),
+				(data[o + 8] - '0') * 10 + (data[o + 9] - '0'),
+				(data[o + 10] - '0') * 10 + (data[o + 11] - '0'));
+	}
+	// ^^ decode(byte[], int)
+
+
+	/**
+	 * @param record
+	 * @param begin the date, followed by the time (15 for a record).
+	 * @return the minutes since the epoch, or MISSING.
+	 */
+	public static int decode( String record, int begin ) {
+
+		final int b = begin;
+		int bad = 0;
+		for( int i = b; i < b + 12; i++ ) {
+			final char c = record.charAt(i);
+			bad |= (c - '0') | ('9' - c);
+		}
+		if( bad < 0 ) {
+			return MISSING;
+		}
+		return of((record.charAt(b) - '0') * 1000 + (record.charAt(b + 1) - '0') * 100
+				+ (record.charAt(b + 2) - '0') * 10 + (record.charAt(b + 3) - '0'),
+				(record.charAt(b + 4) - '0') * 10 + (record.charAt(b + 5) - '0'),
+				(record.charAt(b + 6) - '0') * 10 + (record.charAt(b + 7) - '0'),
+				(record.charAt(b + 8) - '0') * 10 + (record.charAt(b + 9) - '0'),
+				(record.charAt(b + 10) - '0') * 10 + (record.charAt(b + 11) - '0'));
+	}
+	// ^^ decode(String, int)
+
+
+	/**
+	 * @param date YYYYMMDD
+	 * @param time HHMM
+	 * @return the minutes since the epoch, or MISSING, also if a field is
+	 *         null or does not have its width.
+	 */
+	public static int of( String date, String time ) {
+
+		if( date == null || time == null || date.length() != 8 || time.length() != 4 ) {
+			return MISSING;
+		}
+		return decode(date + time, 0);
+	}
+
+
+	/**
+	 * @param minutes
+	 * @return "YYYYMMDDHHMM", or "MISSING".
+	 */
+	public static String toString( int minutes ) {
+
+		if( minutes == MISSING ) {
+			return "MISSING";
+		}
+		final int days = Math.floorDiv(minutes, MINUTES_PER_DAY);
+		final int minuteOfDay = minutes - days * MINUTES_PER_DAY;
+
+		// civil from days
+		final int z = days + 719468;
+		final int era = (z >= 0 ? z : z - 146096) / 146097;
+		final int doe = z - era * 146097;
+		final int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		final int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		final int mp = (5 * doy + 2) / 153;
+		final int day = doy - (153 * mp + 2) / 5 + 1;
+		final int month = mp < 10 ? mp + 3 : mp - 9;
+		final int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+		return String.format("%04d%02d%02d%02d%02d", year, month, day, minuteOfDay / 60, minuteOfDay % 60);
+	}
+	// ^^ toString(int)
+
+
+	/*
+	 *   The days from 1970-01-01 to the date.
+	 */
+	private static int daysFromCivil( int year, int month, int day ) {
+
+		final int y = month <= 2 ? year - 1 : year;
+		final int era = (y >= 0 ? y : y - 399) / 400;
+		final int yoe = y - era * 400;
+		final int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		final int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		return era * 146097 + doe - 719468;
+	}
+	// ^^ daysFromCivil(int, int, int)
+
+
+	private static boolean isLeapYear( int year ) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+	}
+
+}
+// ^^ class EpochMinutes
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,196 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ *   Canonicalizes the String fields of ISD records whose values repeat
+ * over millions of records (the report type code, the quality control
+ * process name, the call letters and the USAF and WBAN identifiers),
+ * so all the records of a value share one String instead of holding a
+ * copy each.
+ *
+ *   The cache is looked up with the raw characters of the field, in the
+ * record's bytes or in the record String, so a hit creates no String at
+ * all. It is a direct-mapped table of a power of two slots: the hash of
+ * the characters picks one slot, and a miss replaces whatever value the
+ * slot held. So the cache never holds more than its capacity, a rarely
+ * seen value is evicted by the next value that maps to its slot, and a
+ * high-cardinality field costs misses but never memory.
+ *
+ *   The cache is lock-free and shared by all the parsers of a JVM. A
+ * lookup is one plain read of a slot; a miss is one plain write. Two
+ * threads that miss on the same slot at the same time just write it
+ * twice, and a String is immutable, so a reader never sees one half
+ * built.
+ *
+ *   Counting the lookups (see setCounting()) is off by default: the
+ * parsers look up five fields of every record, and two shared counter
+ * updates per lookup would cost more than a hit saves. Turn it on to
+ * measure the hit ratio of a run.
+ *
+ *   The parsers use CODES for the report type and the quality control
+ * process name, and STATION_IDS for the identifiers and call letters.
+ *
+ * @author BusyBee
+ *
+ */
+public final class FieldStringCache {
+
+	public static final FieldStringCache CODES = new FieldStringCache(256);
+	public static final FieldStringCache STATION_IDS = new FieldStringCache(1 << 14);
+
+	private final String[] table;
+	private final int iMask;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	// a plain field: a change reaches the other threads eventually.
+	private boolean bCounting;
+
+
+	/**
+	 * @param capacity the number of slots, a power of two.
+	 */
+	public FieldStringCache( int capacity ) {
+
+		if( capacity <= 0 || Integer.bitCount(capacity) != 1 ) {
+			throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+		}
+		this.table = new String[capacity];
+		this.iMask = capacity - 1;
+	}
+
+
+	/**
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return a String of the ASCII bytes [offset, offset + length).
+	 */
+	public String get( byte[] data, int offset, int length ) {
+
+		int h = 0;
+		for( int i = offset; i < offset + length; i++ ) {
+			h = 31 * h + (data[i] & 0xFF);
+		}
+		final int slot = spread(h) & iMask;
+
+		final String cached = table[slot];
+		if( cached != null && cached.length() == length ) {
+			int i = 0;
+			while( i < length && cached.charAt(i) == (data[offset + i] & 0xFF) ) {
+				i++;
+			}
+			if( i == length ) {
+				if( bCounting ) {
+					hits.increment();
+				}
+				return cached;
+			}
+		}
+
+		if( bCounting ) {
+			misses.increment();
+		}
+		final String value = new String(data, offset, length, StandardCharsets.US_ASCII);
+		table[slot] = value;
+		return value;
+	}
+	// ^^ get(byte[], int, int)
+
+
+	/**
+	 * @param record
+	 * @param begin
+	 * @param end
+	 * @return record.substring(begin, end), or an equal String.
+	 */
+	public String get( String record, int begin, int end ) {
+
+		int h = 0;
+		for( int i = begin; i < end; i++ ) {
+			h = 31 * h + record.charAt(i);
+		}
+		final int slot = spread(h) & iMask;
+		final int length = end - begin;
+
+		final String cached = table[slot];
+		if( cached != null && cached.length() == length && cached.regionMatches(0, record, begin, length) ) {
+			if( bCounting ) {
+				hits.increment();
+			}
+			return cached;
+		}
+
+		if( bCounting ) {
+			misses.increment();
+		}
+		final String value = record.substring(begin, end);
+		table[slot] = value;
+		return value;
+	}
+	// ^^ get(String, int, int)
+
+
+	private static int spread( int h ) {
+		return h ^ (h >>> 16);
+	}
+
+
+	public int capacity() {
+		return table.length;
+	}
+
+	/**
+	 * @param counting true to count the hits and misses from now on.
+	 */
+	public void setCounting( boolean counting ) {
+		this.bCounting = counting;
+	}
+
+	public boolean isCounting() {
+		return bCounting;
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return hits / (hits + misses), 0 before the first lookup.
+	 */
+	public double hitRatio() {
+		final long h = hits.sum();
+		final long lookups = h + misses.sum();
+		return lookups == 0 ? 0 : (double) h / lookups;
+	}
+
+	/**
+	 *   Resets the counts; the cached values are kept.
+	 */
+	public void resetStats() {
+		hits.reset();
+		misses.reset();
+	}
+
+
+	@Override
+	public String toString() {
+		return "FieldStringCache[capacity=" + table.length + ", hits=" + hits() + ", misses=" + misses() + "]";
+	}
+
+}
+// ^^ class FieldStringCache
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
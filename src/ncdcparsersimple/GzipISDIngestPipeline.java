@@ -0,0 +1,337 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ *
+ *   Ingests gzipped ISD files (e.g. the USAF-WBAN-YEAR.gz station-year
+ * files NOAA ships) with decompression and parsing on separate threads.
+ *
+ *   The inflate threads take the files one by one, inflate them into
+ * byte blocks and cut every block at its last record boundary; the
+ * partial record at the end of a block is moved to the start of the
+ * next block. The parse threads take the filled blocks and parse their
+ * records with their own NCDCParserSimple. The threads are connected
+ * by two bounded queues over a fixed set of reusable blocks (one queue
+ * of free blocks, one of filled blocks), so inflating and parsing
+ * overlap on different cores, the memory used is bounded, and no block
+ * is allocated after start.
+ *
+ *   Every parsed record is handed to the sink together with the parser
+ * that parsed it. The sink is called from all the parse threads at
+ * once, so it must be thread-safe, and it must not keep the parser,
+ * which is reused for the next record.
+ *
+ *   Lines shorter than the control and mandatory data (105 characters)
+ * are skipped.
+ *
+ * @author BusyBee
+ *
+ */
+public class GzipISDIngestPipeline {
+
+	public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+
+	private final int iMaxRecordLength = 105;
+
+	private final int iInflateThreads;
+	private final int iParseThreads;
+	private final int iBlockSize;
+	private final int iBlocks;
+
+
+	public GzipISDIngestPipeline() {
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+			 Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+			 DEFAULT_BLOCK_SIZE,
+			 4 * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param inflateThreads
+	 * @param parseThreads
+	 * @param blockSize the size of a block; must be larger than any record.
+	 * @param blocks the number of blocks shared by all threads.
+	 */
+	public GzipISDIngestPipeline( int inflateThreads, int parseThreads, int blockSize, int blocks ) {
+
+		if( inflateThreads <= 0 || parseThreads <= 0 || blockSize <= 0 ) {
+			throw new IllegalArgumentException("Thread counts and block size must be positive");
+		}
+		if( blocks < inflateThreads + 1 ) {
+			// every inflate thread may hold two blocks while cutting one.
+			throw new IllegalArgumentException("At least " + (inflateThreads + 1) + " blocks are needed");
+		}
+		this.iInflateThreads = inflateThreads;
+		this.iParseThreads = parseThreads;
+		this.iBlockSize = blockSize;
+		this.iBlocks = blocks;
+	}
+	// ^^ GzipISDIngestPipeline(int, int, int, int)
+
+
+	/**
+	 *   Ingests the files and returns when all their records are parsed.
+	 *
+	 * @param files gzipped ISD files.
+	 * @param sink
+	 * @return the number of records parsed.
+	 * @throws IOException if a file cannot be read; the pipeline is stopped.
+	 * @throws InterruptedException
+	 */
+	public long run( Collection<Path> files, Consumer<NCDCParserSimple> sink )
+			throws IOException, InterruptedException {
+
+		final Run run = new Run(files, sink);
+		return run.execute();
+	}
+	// ^^ run(Collection<Path>, Consumer<NCDCParserSimple>)
+
+
+	private static final class Block {
+
+		final byte[] data;
+		int length;
+
+		Block( int size ) {
+			data = new byte[size];
+		}
+	}
+
+	// tells a parse thread there are no more blocks.
+	private static final Block END = new Block(0);
+
+
+	/*
+	 * The state of one run() of the pipeline.
+	 */
+	private final class Run {
+
+		private final ConcurrentLinkedQueue<Path> pending;
+		private final Consumer<NCDCParserSimple> sink;
+
+		private final BlockingQueue<Block> free = new ArrayBlockingQueue<>(iBlocks);
+		private final BlockingQueue<Block> filled = new ArrayBlockingQueue<>(iBlocks + iParseThreads);
+
+		private final AtomicLong records = new AtomicLong();
+		private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		private final List<Thread> inflaters = new ArrayList<>();
+		private final List<Thread> parsers = new ArrayList<>();
+
+
+		Run( Collection<Path> files, Consumer<NCDCParserSimple> sink ) {
+			this.pending = new ConcurrentLinkedQueue<>(files);
+			this.sink = sink;
+			for( int i = 0; i < iBlocks; i++ ) {
+				free.add(new Block(iBlockSize));
+			}
+		}
+
+
+		long execute() throws IOException, InterruptedException {
+
+			// all the threads exist before any starts, so a failing
+			// thread can always stop every other one.
+			for( int i = 0; i < iInflateThreads; i++ ) {
+				inflaters.add(newThread("isd-inflate-" + i, this::inflateFiles));
+			}
+			for( int i = 0; i < iParseThreads; i++ ) {
+				parsers.add(newThread("isd-parse-" + i, this::parseBlocks));
+			}
+			for( Thread t : inflaters ) {
+				t.start();
+			}
+			for( Thread t : parsers ) {
+				t.start();
+			}
+
+			try {
+				for( Thread t : inflaters ) {
+					t.join();
+				}
+				if( failure.get() == null ) {
+					for( int i = 0; i < iParseThreads; i++ ) {
+						filled.put(END);
+					}
+				}
+				for( Thread t : parsers ) {
+					t.join();
+				}
+			} catch (InterruptedException e) {
+				stop();
+				throw e;
+			}
+
+			final Throwable t = failure.get();
+			if( t instanceof IOException ) {
+				throw (IOException) t;
+			} else if( t instanceof RuntimeException ) {
+				throw (RuntimeException) t;
+			} else if( t instanceof Error ) {
+				throw (Error) t;
+			} else if( t != null ) {
+				throw new IOException(t);
+			}
+			return records.get();
+		}
+		// ^^ execute()
+
+
+		private Thread newThread( String name, Task task ) {
+
+			final Thread thread = new Thread(() -> {
+				try {
+					task.run();
+				} catch (InterruptedException e) {
+					// stopped because another thread failed.
+				} catch (Throwable t) {
+					if( failure.compareAndSet(null, t) ) {
+						stop();
+					}
+				}
+			}, name);
+			thread.setDaemon(true);
+			return thread;
+		}
+		// ^^ newThread(String, Task)
+
+
+		private void stop() {
+			for( Thread t : inflaters ) {
+				t.interrupt();
+			}
+			for( Thread t : parsers ) {
+				t.interrupt();
+			}
+		}
+
+
+		/*
+		 * ------------------
+		 *  Inflate threads
+		 * ------------------
+		 */
+		private void inflateFiles() throws IOException, InterruptedException {
+
+			Path file;
+			while( (file = pending.poll()) != null ) {
+				inflate(file);
+			}
+		}
+
+
+		private void inflate( Path file ) throws IOException, InterruptedException {
+
+			try( InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 << 10) ) {
+
+				Block block = free.take();
+				int length = 0;
+				int n;
+				while( (n = in.read(block.data, length, block.data.length - length)) >= 0 ) {
+
+					length += n;
+					if( length < block.data.length ) {
+						continue;
+					}
+
+					// the block is full: cut it after its last record.
+					int cut = length;
+					while( cut > 0 && block.data[cut - 1] != '\n' ) {
+						cut--;
+					}
+					if( cut == 0 ) {
+						throw new IOException("A record of " + file + " is longer than the block size " + iBlockSize);
+					}
+
+					final Block next = free.take();
+					length -= cut;
+					System.arraycopy(block.data, cut, next.data, 0, length);
+					block.length = cut;
+					filled.put(block);
+					block = next;
+				}
+
+				if( length > 0 ) {
+					block.length = length;
+					filled.put(block);
+				} else {
+					free.put(block);
+				}
+			}
+		}
+		// ^^ inflate(Path)
+
+
+		/*
+		 * ------------------
+		 *  Parse threads
+		 * ------------------
+		 */
+		private void parseBlocks() throws InterruptedException {
+
+			final NCDCParserSimple parser = new NCDCParserSimple();
+
+			Block block;
+			while( (block = filled.take()) != END ) {
+
+				long parsed = 0;
+				final byte[] data = block.data;
+				final int iEnd = block.length;
+				int iLineStart = 0;
+
+				while( iLineStart < iEnd ) {
+
+					int iLineEnd = iLineStart;
+					while( iLineEnd < iEnd && data[iLineEnd] != '\n' ) {
+						iLineEnd++;
+					}
+					final int iNext = iLineEnd + 1;
+					if( iLineEnd > iLineStart && data[iLineEnd - 1] == '\r' ) {
+						iLineEnd--;
+					}
+					if( iLineEnd - iLineStart >= iMaxRecordLength ) {
+						parser.parse(data, iLineStart, iLineEnd - iLineStart);
+						sink.accept(parser);
+						parsed++;
+					}
+					iLineStart = iNext;
+				}
+
+				records.addAndGet(parsed);
+				free.put(block);
+			}
+		}
+		// ^^ parseBlocks()
+
+	}
+	// ^^ class Run
+
+
+	@FunctionalInterface
+	private interface Task {
+		void run() throws Exception;
+	}
+
+}
+// ^^ class GzipISDIngestPipeline
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
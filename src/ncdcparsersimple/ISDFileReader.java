@@ -0,0 +1,336 @@
+package ncdcparsersimple;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ *   Reads the records of an ISD file (one record per line, e.g. a
+ * station-year file) from a memory-mapped view of the file.
+ *
+ *   The file is mapped window by window, the record boundaries ('\n',
+ * an optional '\r' before it is dropped) are found in the mapped bytes,
+ * and each record is copied into one reused byte array, from where it
+ * goes straight to the byte parse path of NCDCParserSimple or
+ * ObservationBatch. No String is built for a record.
+ *
+ *   A reader can be restricted to a byte range [start, end) of the file,
+ * e.g. to read one file by several threads. The range is aligned to the
+ * records the same way Hadoop aligns the splits of a text file: a record
+ * belongs to the range its first byte is in, so the partial record at
+ * the start of a range is skipped, and the record that crosses the end
+ * of the range is read as a whole.
+ *
+ *   Lines shorter than the control and mandatory data (105 characters)
+ * are skipped and counted. So are the records a RecordFilter rejects,
+ * which are never parsed. A reader is not thread-safe.
+ *
+ * @author BusyBee
+ *
+ */
+public class ISDFileReader implements Closeable {
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+	private final int iMaxRecordLength = 105;
+
+	private final FileChannel channel;
+	private final long lFileSize;
+	private final long lRangeEnd;
+	private final int iWindowSize;
+
+	private MappedByteBuffer window;
+	private long lWindowStart;
+	private int iWindowLength;
+
+	// file position of the next line
+	private long lPosition;
+
+	private byte[] record = new byte[4096];
+	private int iRecordLength;
+	private long lRecordOffset = -1;
+
+	private long lRecords;
+	private long lSkippedLines;
+	private long lRejectedRecords;
+
+	private RecordFilter filter = RecordFilter.ALL;
+
+
+	/**
+	 * Reads the whole file.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public ISDFileReader( Path file ) throws IOException {
+		this(file, 0, Long.MAX_VALUE, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Reads the records that start in the byte range [start, end) of the file.
+	 *
+	 * @param file
+	 * @param start
+	 * @param end
+	 * @param windowSize the number of bytes mapped at once.
+	 * @throws IOException
+	 */
+	public ISDFileReader( Path file, long start, long end, int windowSize ) throws IOException {
+
+		if( start < 0 || end < start ) {
+			throw new IllegalArgumentException("Bad range [" + start + ", " + end + ")");
+		}
+		if( windowSize <= 0 ) {
+			throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+		}
+
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.lFileSize = channel.size();
+		this.lRangeEnd = Math.min(end, lFileSize);
+		this.iWindowSize = windowSize;
+
+		if( start == 0 ) {
+			lPosition = 0;
+		} else if( start >= lFileSize ) {
+			lPosition = lFileSize;
+		} else {
+			// skip the record that started in the previous range,
+			// unless the range starts right after a '\n'.
+			lPosition = findLineEnd(start - 1) + 1;
+		}
+	}
+	// ^^ ISDFileReader(Path, long, long, int)
+
+
+	/**
+	 *   Makes next() skip the records the filter rejects.
+	 *
+	 * @param filter
+	 */
+	public void setFilter( RecordFilter filter ) {
+		this.filter = filter;
+	}
+
+
+	/**
+	 *   Moves to the next record of the range.
+	 *
+	 * @return false if there are no more records.
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+
+		while( lPosition < lRangeEnd ) {
+
+			final long lLineStart = lPosition;
+			final long lLineEnd = findLineEnd(lLineStart);
+			lPosition = lLineEnd + 1;
+
+			long lContentEnd = lLineEnd;
+			if( lContentEnd > lLineStart && byteAt(lContentEnd - 1) == '\r' ) {
+				lContentEnd--;
+			}
+
+			final long lLength = lContentEnd - lLineStart;
+			if( lLength < iMaxRecordLength ) {
+				if( lLength > 0 ) {
+					lSkippedLines++;
+				}
+				continue;
+			}
+
+			copy(lLineStart, (int) lLength);
+			if( !filter.accept(record, 0, iRecordLength) ) {
+				lRejectedRecords++;
+				continue;
+			}
+			lRecordOffset = lLineStart;
+			lRecords++;
+			return true;
+		}
+
+		return false;
+	}
+	// ^^ next()
+
+
+	/**
+	 *   Moves to the next record and parses it.
+	 *
+	 * @param parser
+	 * @return false if there are no more records.
+	 * @throws IOException
+	 */
+	public boolean next( NCDCParserSimple parser ) throws IOException {
+
+		if( !next() ) {
+			return false;
+		}
+		parser.parse(record, 0, iRecordLength);
+		return true;
+	}
+	// ^^ next(NCDCParserSimple)
+
+
+	/**
+	 *   Parses the next records into the batch until either the batch
+	 * is full or there are no more records.
+	 *
+	 * @param batch
+	 * @return the number of records added to the batch.
+	 * @throws IOException
+	 */
+	public int next( ObservationBatch batch ) throws IOException {
+
+		int added = 0;
+		while( !batch.isFull() && next() ) {
+			batch.parse(record, 0, iRecordLength);
+			added++;
+		}
+		return added;
+	}
+	// ^^ next(ObservationBatch)
+
+
+	/**
+	 * @return the current record's bytes; the array is reused by next().
+	 */
+	public byte[] getRecord() {
+		return record;
+	}
+
+	public int getRecordLength() {
+		return iRecordLength;
+	}
+
+	/**
+	 * @return the position of the current record in the file.
+	 */
+	public long getRecordOffset() {
+		return lRecordOffset;
+	}
+
+	public long getRecordCount() {
+		return lRecords;
+	}
+
+	public long getSkippedLineCount() {
+		return lSkippedLines;
+	}
+
+	/**
+	 * @return the number of records the filter rejected.
+	 */
+	public long getRejectedRecordCount() {
+		return lRejectedRecords;
+	}
+
+	public long getFileSize() {
+		return lFileSize;
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		window = null;
+		channel.close();
+	}
+	// ^^ close()
+
+
+	/*
+	 * ===========
+	 *  Internals
+	 * -----------
+	 */
+
+	/*
+	 * Returns the position of the first '\n' at or after the position,
+	 * or the file size if there is none.
+	 */
+	private long findLineEnd( long from ) throws IOException {
+
+		long p = from;
+		while( p < lFileSize ) {
+
+			map(p);
+			final MappedByteBuffer w = window;
+			final int n = iWindowLength;
+			int i = (int) (p - lWindowStart);
+			while( i < n && w.get(i) != '\n' ) {
+				i++;
+			}
+			p = lWindowStart + i;
+			if( i < n ) {
+				return p;
+			}
+		}
+		return lFileSize;
+	}
+	// ^^ findLineEnd(long)
+
+
+	private byte byteAt( long position ) throws IOException {
+		map(position);
+		return window.get((int) (position - lWindowStart));
+	}
+
+
+	/*
+	 * Copies the bytes [from, from + length) of the file into the record
+	 * array; the bytes may span several windows.
+	 */
+	private void copy( long from, int length ) throws IOException {
+
+		if( record.length < length ) {
+			record = new byte[Math.max(length, record.length * 2)];
+		}
+
+		int done = 0;
+		while( done < length ) {
+			final long p = from + done;
+			map(p);
+			final int inWindow = (int) (p - lWindowStart);
+			final int count = Math.min(length - done, iWindowLength - inWindow);
+			final MappedByteBuffer w = window;
+			w.position(inWindow);
+			w.get(record, done, count);
+			done += count;
+		}
+		iRecordLength = length;
+	}
+	// ^^ copy(long, int)
+
+
+	/*
+	 * Maps the window that holds the position, unless it is mapped already.
+	 */
+	private void map( long position ) throws IOException {
+
+		if( window != null
+				&& position >= lWindowStart
+				&& position < lWindowStart + iWindowLength ) {
+			return;
+		}
+
+		final long length = Math.min(iWindowSize, lFileSize - position);
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		lWindowStart = position;
+		iWindowLength = (int) length;
+	}
+	// ^^ map(long)
+
+}
+// ^^ class ISDFileReader
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
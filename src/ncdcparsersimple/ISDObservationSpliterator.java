@@ -0,0 +1,310 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ *
+ *   A Spliterator of the Observations of one ISD file or of every file of
+ * a directory, so that ISD data can be processed with java.util.stream:
+ *
+ *     try( Stream<Observation> s = ISDObservationSpliterator.stream(dir) ) {
+ *         s.parallel().filter(...).collect(...);
+ *     }
+ *
+ *   The spliterator covers a list of byte ranges, one per file at first.
+ * trySplit() hands off the first half of the ranges (by bytes) while
+ * more than one is left, then halves the last range itself. The split
+ * offset does not need to be a record boundary: every range is read by
+ * its own ISDFileReader, which realigns it to the next record, so every
+ * record is still read exactly once. A range is not split any further
+ * once it is smaller than the minimum split size or once reading it has
+ * started.
+ *
+ *   ISD records have variable lengths, so the number of records in a range
+ * is not known before it is read, and the spliterator is neither SIZED
+ * nor SUBSIZED; estimateSize() is the remaining bytes divided by a
+ * typical record length. It is ORDERED (files by name, records in file
+ * order), NONNULL and IMMUTABLE.
+ *
+ *   The files must be plain (not gzipped) ISD files. A reader is closed
+ * when its range is read to the end. Every spliterator split off a
+ * spliterator created by a constructor, directly or not, is registered
+ * with it, and closing it closes their readers too, so closing the
+ * stream releases every file even after a short-circuiting parallel
+ * operation (findFirst(), limit(), anyMatch(), ...) left ranges unread.
+ *
+ * @author BusyBee
+ *
+ */
+public class ISDObservationSpliterator implements Spliterator<Observation> {
+
+	public static final long DEFAULT_MIN_SPLIT_SIZE = 8L << 20;
+
+	// a typical record, i.e. mandatory data with a few additional elements.
+	private static final int ESTIMATED_RECORD_LENGTH = 250;
+
+	private final List<Range> ranges;
+	private final long lMinSplitSize;
+
+	// the spliterators split off the root one, shared by all of them.
+	private final Queue<ISDObservationSpliterator> splits;
+	private final boolean bSplit;
+
+	private int iNext;
+	private ISDFileReader reader;
+	private final NCDCParserSimple parser = new NCDCParserSimple();
+
+
+	/**
+	 * @param fileOrDirectory an ISD file, or a directory whose regular files
+	 *        (not its subdirectories) are all ISD files.
+	 * @throws IOException
+	 */
+	public ISDObservationSpliterator( Path fileOrDirectory ) throws IOException {
+		this(fileOrDirectory, DEFAULT_MIN_SPLIT_SIZE);
+	}
+
+	/**
+	 * @param fileOrDirectory
+	 * @param minSplitSize ranges smaller than this are not split.
+	 * @throws IOException
+	 */
+	public ISDObservationSpliterator( Path fileOrDirectory, long minSplitSize ) throws IOException {
+
+		if( minSplitSize <= 0 ) {
+			throw new IllegalArgumentException("minSplitSize must be positive");
+		}
+		this.ranges = new ArrayList<>();
+		this.lMinSplitSize = minSplitSize;
+		this.splits = new ConcurrentLinkedQueue<>();
+		this.bSplit = false;
+
+		for( Path file : listFiles(fileOrDirectory) ) {
+			final long size = Files.size(file);
+			if( size > 0 ) {
+				ranges.add(new Range(file, 0, size));
+			}
+		}
+	}
+	// ^^ ISDObservationSpliterator(Path, long)
+
+	private ISDObservationSpliterator( List<Range> ranges, ISDObservationSpliterator parent ) {
+		this.ranges = ranges;
+		this.lMinSplitSize = parent.lMinSplitSize;
+		this.splits = parent.splits;
+		this.bSplit = true;
+		splits.add(this);
+	}
+
+
+	/**
+	 *   A sequential stream of the Observations of the file or directory;
+	 * call parallel() on it to parse on several threads. Closing the
+	 * stream closes every reader it opened.
+	 *
+	 * @param fileOrDirectory
+	 * @return
+	 * @throws IOException
+	 */
+	public static Stream<Observation> stream( Path fileOrDirectory ) throws IOException {
+
+		final ISDObservationSpliterator spliterator = new ISDObservationSpliterator(fileOrDirectory);
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+	}
+	// ^^ stream(Path)
+
+
+	private static List<Path> listFiles( Path fileOrDirectory ) throws IOException {
+
+		if( !Files.isDirectory(fileOrDirectory) ) {
+			final List<Path> files = new ArrayList<>();
+			files.add(fileOrDirectory);
+			return files;
+		}
+		try( Stream<Path> entries = Files.list(fileOrDirectory) ) {
+			return entries
+					.filter(Files::isRegularFile)
+					.sorted()
+					.collect(Collectors.toList());
+		}
+	}
+	// ^^ listFiles(Path)
+
+
+	@Override
+	public boolean tryAdvance( Consumer<? super Observation> action ) {
+
+		try {
+			while( iNext < ranges.size() ) {
+
+				if( reader == null ) {
+					final Range range = ranges.get(iNext);
+					reader = new ISDFileReader(range.file, range.lStart, range.lEnd, ISDFileReader.DEFAULT_WINDOW_SIZE);
+				}
+				if( reader.next(parser) ) {
+					action.accept(new Observation(parser));
+					return true;
+				}
+				reader.close();
+				reader = null;
+				iNext++;
+			}
+			if( bSplit ) {
+				// nothing left to close.
+				splits.remove(this);
+			}
+			return false;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	// ^^ tryAdvance(Consumer<? super Observation>)
+
+
+	@Override
+	public Spliterator<Observation> trySplit() {
+
+		if( reader != null || iNext >= ranges.size() ) {
+			return null;
+		}
+
+		if( ranges.size() - iNext > 1 ) {
+
+			// hand off the ranges up to about half of the remaining bytes.
+			final long half = remainingBytes() / 2;
+			long bytes = 0;
+			int iSplit = iNext;
+			do {
+				bytes += ranges.get(iSplit).size();
+				iSplit++;
+			} while( bytes < half && iSplit < ranges.size() - 1 );
+
+			final List<Range> prefix = new ArrayList<>(ranges.subList(iNext, iSplit));
+			iNext = iSplit;
+			return new ISDObservationSpliterator(prefix, this);
+		}
+
+		final Range range = ranges.get(iNext);
+		if( range.size() < 2 * lMinSplitSize ) {
+			return null;
+		}
+		final long middle = range.lStart + range.size() / 2;
+		final List<Range> prefix = new ArrayList<>();
+		prefix.add(new Range(range.file, range.lStart, middle));
+		ranges.set(iNext, new Range(range.file, middle, range.lEnd));
+		return new ISDObservationSpliterator(prefix, this);
+	}
+	// ^^ trySplit()
+
+
+	@Override
+	public long estimateSize() {
+		return (remainingBytes() + ESTIMATED_RECORD_LENGTH - 1) / ESTIMATED_RECORD_LENGTH;
+	}
+
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+
+
+	/**
+	 *   Closes the reader of the range being read, if any, and, if the
+	 * spliterator was created by a constructor, the readers of every
+	 * spliterator split off it. They are all exhausted afterwards. The
+	 * spliterators must not be in use meanwhile.
+	 */
+	public void close() {
+
+		IOException failure = closeReader(null);
+		if( !bSplit ) {
+			ISDObservationSpliterator split;
+			while( (split = splits.poll()) != null ) {
+				failure = split.closeReader(failure);
+			}
+		}
+		if( failure != null ) {
+			throw new UncheckedIOException(failure);
+		}
+	}
+	// ^^ close()
+
+
+	/*
+	 *   Closes the reader, and returns the first failure of the readers
+	 * closed so far.
+	 */
+	private IOException closeReader( IOException failure ) {
+
+		iNext = ranges.size();
+		if( reader == null ) {
+			return failure;
+		}
+		try {
+			reader.close();
+			return failure;
+		} catch (IOException e) {
+			if( failure == null ) {
+				return e;
+			}
+			failure.addSuppressed(e);
+			return failure;
+		} finally {
+			reader = null;
+		}
+	}
+	// ^^ closeReader(IOException)
+
+
+	private long remainingBytes() {
+
+		long bytes = 0;
+		for( int i = iNext; i < ranges.size(); i++ ) {
+			bytes += ranges.get(i).size();
+		}
+		return bytes;
+	}
+
+
+	/*
+	 *   The records of a file that start in [start, end).
+	 */
+	private static final class Range {
+
+		final Path file;
+		final long lStart;
+		final long lEnd;
+
+		Range( Path file, long start, long end ) {
+			this.file = file;
+			this.lStart = start;
+			this.lEnd = end;
+		}
+
+		long size() {
+			return lEnd - lStart;
+		}
+	}
+
+}
+// ^^ class ISDObservationSpliterator
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,594 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ *
+ *   Generates synthetic ISD records, so load tests and benchmarks can run
+ * on representative volumes without real archives or network access.
+ *
+ *   The generator produces getStations() stations with
+ * getRecordsPerStation() hourly records each, station after station,
+ * starting on January 1st of the start year. Every record has the
+ * 105 character control and mandatory data the parser expects, with
+ * plausible values (a temperature that drifts around the station's
+ * climate, a dew point below it, and so on), followed by an additional
+ * data section whose length is drawn from an exponential distribution
+ * of the given mean, capped at the maximum record size. The additional
+ * data is made of real fixed-width elements (AA1, GA1-3, KA1, MA1, MD1,
+ * MW1, OC1) and, for the rest of the length, MET remarks, so
+ * AdditionalDataIndex indexes it completely.
+ *
+ *   Every control and mandatory field can be malformed with its own
+ * probability (see setMalformedRatio()), e.g. to measure the cost of
+ * the substitution path of the section parsers.
+ *
+ *   The same seed and settings always give the same records. The records
+ * are written straight into byte arrays, so write() streams gigabytes
+ * without allocating per record. A generator is not thread-safe; use one
+ * generator per thread, with different seeds.
+ *
+ * @author BusyBee
+ *
+ */
+public class ISDRecordGenerator {
+
+	public static final int MAX_RECORD_LENGTH = 2844;
+	public static final int MAX_ADDITIONAL_DATA_LENGTH = MAX_RECORD_LENGTH - 105;
+
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	private static final byte[] GARBAGE = "X#/&%".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] REMARK = ("METAR 131159Z AUTO 11001KT 10SM CLR 24/23 A3027 RMK AO2 SLP251 "
+			+ "T02440233 10250 20211 55003 ").getBytes(StandardCharsets.US_ASCII);
+
+	private static final String[] REPORT_TYPES = { "FM-12", "FM-15", "FM-15", "FM-15", "FM-16", "SAO  " };
+
+	private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+	// the additional data elements, in the order they are written.
+	private static final String[] ELEMENTS = { "AA1", "GA1", "GA2", "GA3", "KA1", "MA1", "MD1", "MW1", "OC1" };
+	private static final int[] ELEMENT_WIDTHS = { 8, 13, 13, 13, 10, 12, 11, 3, 5 };
+
+	static {
+		for( int e = 0; e < ELEMENTS.length; e++ ) {
+			if( ELEMENT_WIDTHS[e] != AdditionalDataIndex.widthOf(ELEMENTS[e]) ) {
+				throw new IllegalStateException(ELEMENTS[e] + " is " + ELEMENT_WIDTHS[e] + " wide, the index says "
+						+ AdditionalDataIndex.widthOf(ELEMENTS[e]));
+			}
+		}
+	}
+
+	private final SplittableRandom random;
+
+	private int iStations = 100;
+	private int iRecordsPerStation = 24 * 365;
+	private int iStartYear = 2012;
+	private double dAdditionalDataMean = 100;
+	private int iAdditionalDataMax = MAX_ADDITIONAL_DATA_LENGTH;
+	private final double[] malformedRatios = new double[NCDCField.values().length];
+
+	// the fields with a malformed ratio above 0, to skip the others cheaply.
+	private NCDCField[] malformedFields = new NCDCField[0];
+
+	// the state of the generation.
+	private int iStation;
+	private int iRecord;
+	private final byte[] station = new byte[105];
+	private int iBaseTemperature;
+	private int iTemperature;
+	private int iYear;
+	private int iMonth;
+	private int iDay;
+	private int iHour;
+
+
+	/**
+	 * @param seed
+	 */
+	public ISDRecordGenerator( long seed ) {
+		this.random = new SplittableRandom(seed);
+	}
+
+
+	/*
+	 * -----------------------
+	 *   Settings
+	 * -----------------------
+	 */
+
+	/**
+	 * @param stations the number of stations, 100 by default.
+	 */
+	public void setStations( int stations ) {
+		if( stations <= 0 ) {
+			throw new IllegalArgumentException("stations must be positive: " + stations);
+		}
+		this.iStations = stations;
+	}
+
+	public int getStations() {
+		return iStations;
+	}
+
+
+	/**
+	 * @param records the number of hourly records of every station, a
+	 *        year's worth (8,760) by default. The last one must be in
+	 *        EpochMinutes.MAX_YEAR at the latest.
+	 */
+	public void setRecordsPerStation( int records ) {
+		if( records <= 0 ) {
+			throw new IllegalArgumentException("records must be positive: " + records);
+		}
+		checkLastYear(iStartYear, records);
+		this.iRecordsPerStation = records;
+	}
+
+	public int getRecordsPerStation() {
+		return iRecordsPerStation;
+	}
+
+
+	/**
+	 * @param year the year of the first record of every station, 2012 by
+	 *        default. The last record of a station must be in
+	 *        EpochMinutes.MAX_YEAR at the latest.
+	 */
+	public void setStartYear( int year ) {
+		if( year < 1901 || year > EpochMinutes.MAX_YEAR ) {
+			throw new IllegalArgumentException("year must be in 1901-" + EpochMinutes.MAX_YEAR + ": " + year);
+		}
+		checkLastYear(year, iRecordsPerStation);
+		this.iStartYear = year;
+	}
+
+
+	/*
+	 *   The clock of a station must not run past EpochMinutes.MAX_YEAR:
+	 * the dates of later records decode to MISSING epoch minutes.
+	 */
+	private static void checkLastYear( int startYear, int records ) {
+
+		long hours = records - 1L;
+		int year = startYear;
+		while( year <= EpochMinutes.MAX_YEAR ) {
+			final long hoursOfYear = isLeapYear(year) ? 366 * 24 : 365 * 24;
+			if( hours < hoursOfYear ) {
+				return;
+			}
+			hours -= hoursOfYear;
+			year++;
+		}
+		throw new IllegalArgumentException(records + " hourly records from " + startYear + " run past year " + EpochMinutes.MAX_YEAR);
+	}
+	// ^^ checkLastYear(int, int)
+
+
+	/**
+	 *   Sets the distribution of the length of the additional data section
+	 * (everything after the first 105 characters): exponential with the
+	 * given mean, capped at max. A mean of 0 gives records without
+	 * additional data. The default is a mean of 100 characters, capped at
+	 * MAX_ADDITIONAL_DATA_LENGTH.
+	 *
+	 * @param mean
+	 * @param max at most MAX_ADDITIONAL_DATA_LENGTH.
+	 */
+	public void setAdditionalDataLength( double mean, int max ) {
+		if( mean < 0 || max < 0 || max > MAX_ADDITIONAL_DATA_LENGTH ) {
+			throw new IllegalArgumentException("mean and max must be in 0-" + MAX_ADDITIONAL_DATA_LENGTH);
+		}
+		this.dAdditionalDataMean = mean;
+		this.iAdditionalDataMax = max;
+	}
+
+
+	/**
+	 * @param field a control or mandatory data field.
+	 * @param ratio the probability that the field of a record is malformed.
+	 */
+	public void setMalformedRatio( NCDCField field, double ratio ) {
+
+		if( field == NCDCField.ADDITIONAL_DATA ) {
+			throw new IllegalArgumentException("Only control and mandatory data fields can be malformed");
+		}
+		if( !(ratio >= 0 && ratio <= 1) ) {
+			throw new IllegalArgumentException("ratio must be in 0-1: " + ratio);
+		}
+		malformedRatios[field.ordinal()] = ratio;
+
+		int count = 0;
+		for( double r : malformedRatios ) {
+			if( r > 0 ) {
+				count++;
+			}
+		}
+		malformedFields = new NCDCField[count];
+		count = 0;
+		for( NCDCField f : NCDCField.values() ) {
+			if( malformedRatios[f.ordinal()] > 0 ) {
+				malformedFields[count++] = f;
+			}
+		}
+	}
+	// ^^ setMalformedRatio(NCDCField, double)
+
+
+	/**
+	 *   Sets the same malformed ratio for every control and mandatory
+	 * data field.
+	 *
+	 * @param ratio
+	 */
+	public void setMalformedRatio( double ratio ) {
+		for( NCDCField field : NCDCField.values() ) {
+			if( field != NCDCField.ADDITIONAL_DATA ) {
+				setMalformedRatio(field, ratio);
+			}
+		}
+	}
+
+
+	/*
+	 * -----------------------
+	 *   Generation
+	 * -----------------------
+	 */
+
+	/**
+	 * @return false if all the records of all the stations were generated.
+	 */
+	public boolean hasNext() {
+		return iStation < iStations;
+	}
+
+
+	/**
+	 *   Writes the next record into the buffer, without a line separator.
+	 *
+	 * @param buffer
+	 * @param offset there must be MAX_RECORD_LENGTH bytes from here on.
+	 * @return the length of the record.
+	 * @throws IllegalStateException if there are no more records.
+	 */
+	public int next( byte[] buffer, int offset ) {
+
+		if( !hasNext() ) {
+			throw new IllegalStateException("All the records were generated");
+		}
+		if( iRecord == 0 ) {
+			startStation();
+		}
+
+		final byte[] b = buffer;
+		final int o = offset;
+		System.arraycopy(station, 0, b, o, 105);
+
+		// 4-5 pos: 16-27
+		putDigits(b, o + 15, 4, iYear);
+		putDigits(b, o + 19, 2, iMonth);
+		putDigits(b, o + 21, 2, iDay);
+		putDigits(b, o + 23, 2, iHour);
+		putDigits(b, o + 25, 2, 0);
+
+		// 13-17 pos: 61-70
+		final int speed = random.nextInt(120);
+		if( speed == 0 ) {
+			putDigits(b, o + 60, 3, 999);
+			b[o + 64] = 'C';
+		} else {
+			putDigits(b, o + 60, 3, 10 * (1 + random.nextInt(36)));
+		}
+		putDigits(b, o + 65, 4, speed);
+
+		// 18 pos: 71-75
+		if( random.nextInt(3) == 0 ) {
+			putDigits(b, o + 70, 5, 22000);
+		} else {
+			putDigits(b, o + 70, 5, 30 * random.nextInt(200));
+		}
+
+		// 22 pos: 79-84
+		putDigits(b, o + 78, 6, random.nextInt(4) == 0 ? random.nextInt(16093) : 16093);
+
+		// 26-29 pos: 88-99
+		iTemperature += random.nextInt(21) - 10;
+		iTemperature += (iBaseTemperature - iTemperature) / 16;
+		putSigned(b, o + 87, 5, iTemperature);
+		putSigned(b, o + 93, 5, iTemperature - random.nextInt(120));
+
+		// 30 pos: 100-104
+		putDigits(b, o + 99, 5, 9900 + random.nextInt(500));
+
+		// 32 pos: 106+
+		final int length = 105 + putAdditionalData(b, o + 105);
+
+		// 1 pos: 1-4
+		putDigits(b, o, 4, length - 105);
+
+		for( NCDCField field : malformedFields ) {
+			if( random.nextDouble() < malformedRatios[field.ordinal()] ) {
+				for( int p = field.offset(); p < field.offset() + field.width(); p++ ) {
+					b[o + p] = GARBAGE[random.nextInt(GARBAGE.length)];
+				}
+			}
+		}
+
+		nextHour();
+		if( ++iRecord == iRecordsPerStation ) {
+			iRecord = 0;
+			iStation++;
+		}
+		return length;
+	}
+	// ^^ next(byte[], int)
+
+
+	/**
+	 * @return the next record.
+	 */
+	public String next() {
+		final byte[] buffer = new byte[MAX_RECORD_LENGTH];
+		return new String(buffer, 0, next(buffer, 0), StandardCharsets.US_ASCII);
+	}
+
+
+	/**
+	 *   Writes all the remaining records to the stream, every one followed
+	 * by '\n'. The stream is not closed.
+	 *
+	 * @param out
+	 * @return the number of bytes written.
+	 * @throws IOException
+	 */
+	public long write( OutputStream out ) throws IOException {
+
+		final byte[] block = new byte[BLOCK_SIZE];
+		long written = 0;
+		int length = 0;
+		while( hasNext() ) {
+			if( length + MAX_RECORD_LENGTH + 1 > block.length ) {
+				out.write(block, 0, length);
+				written += length;
+				length = 0;
+			}
+			length += next(block, length);
+			block[length++] = '\n';
+		}
+		out.write(block, 0, length);
+		return written + length;
+	}
+	// ^^ write(OutputStream)
+
+
+	/**
+	 *   Writes all the remaining records to a new file, or overwrites it.
+	 *
+	 * @param file
+	 * @return the size of the file.
+	 * @throws IOException
+	 */
+	public long writeFile( Path file ) throws IOException {
+		try( OutputStream out = Files.newOutputStream(file) ) {
+			return write(out);
+		}
+	}
+
+
+	/*
+	 *   Draws the station's constant fields and resets the clock.
+	 */
+	private void startStation() {
+
+		final byte[] b = station;
+		for( int i = 0; i < b.length; i++ ) {
+			b[i] = ' ';
+		}
+
+		// 2-3 pos: 5-15
+		putDigits(b, 4, 6, 10000 + random.nextInt(990000));
+		putDigits(b, 10, 5, random.nextInt(4) == 0 ? 10000 + random.nextInt(90000) : 99999);
+
+		// 6-12 pos: 28-60
+		b[27] = '4';
+		final int latitude = random.nextInt(180001) - 90000;
+		putSigned(b, 28, 6, latitude);
+		putSigned(b, 34, 7, random.nextInt(360001) - 180000);
+		putAscii(b, 41, REPORT_TYPES[random.nextInt(REPORT_TYPES.length)]);
+		putSigned(b, 46, 5, random.nextInt(3000) - 50);
+		putAscii(b, 51, "99999");
+		putAscii(b, 56, "V020");
+
+		// 13-31 pos: 61-105, the codes; the values are set per record.
+		b[63] = '1';
+		b[64] = 'N';
+		b[69] = '1';
+		b[75] = '1';
+		b[76] = '9';
+		b[77] = 'N';
+		b[84] = '1';
+		b[85] = 'N';
+		b[86] = '1';
+		b[92] = '1';
+		b[98] = '1';
+		b[104] = '1';
+
+		// warm at the equator, cold at the poles.
+		iBaseTemperature = 300 - Math.abs(latitude) * 350 / 90000;
+		iTemperature = iBaseTemperature;
+
+		iYear = iStartYear;
+		iMonth = 1;
+		iDay = 1;
+		iHour = 0;
+	}
+	// ^^ startStation()
+
+
+	private void nextHour() {
+
+		if( ++iHour < 24 ) {
+			return;
+		}
+		iHour = 0;
+		final int days = iMonth == 2 && isLeapYear(iYear) ? 29 : DAYS_IN_MONTH[iMonth - 1];
+		if( ++iDay <= days ) {
+			return;
+		}
+		iDay = 1;
+		if( ++iMonth <= 12 ) {
+			return;
+		}
+		iMonth = 1;
+		iYear++;
+	}
+	// ^^ nextHour()
+
+
+	private static boolean isLeapYear( int year ) {
+		return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+	}
+
+
+	/*
+	 *   Writes an additional data section of a random length and returns
+	 * its length.
+	 */
+	private int putAdditionalData( byte[] b, int offset ) {
+
+		int length = dAdditionalDataMean == 0 ? 0
+				: (int) (-dAdditionalDataMean * Math.log(1 - random.nextDouble()));
+		if( length > iAdditionalDataMax ) {
+			length = iAdditionalDataMax;
+		}
+		if( length < 3 ) {
+			return 0;
+		}
+
+		final int iEnd = offset + length;
+		int p = offset;
+		p = putAscii(b, p, "ADD");
+
+		for( int e = 0; e < ELEMENTS.length; e++ ) {
+			if( p + 3 + ELEMENT_WIDTHS[e] <= iEnd && random.nextInt(3) != 0 ) {
+				p = putElement(b, putAscii(b, p, ELEMENTS[e]), e);
+			} else if( ELEMENTS[e].startsWith("GA") ) {
+				// no higher cloud layer without the lower one.
+				e = 3;
+			}
+		}
+
+		// remarks: REM, then MET + three digit length + text
+		if( iEnd - p >= 10 ) {
+			p = putAscii(b, p, "REM");
+			while( iEnd - p >= 7 ) {
+				final int text = Math.min(999, iEnd - p - 6);
+				p = putAscii(b, p, "MET");
+				putDigits(b, p, 3, text);
+				p += 3;
+				int from = random.nextInt(REMARK.length);
+				for( int copied = 0; copied < text; ) {
+					final int n = Math.min(text - copied, REMARK.length - from);
+					System.arraycopy(REMARK, from, b, p + copied, n);
+					copied += n;
+					from = 0;
+				}
+				p += text;
+			}
+		}
+		while( p < iEnd ) {
+			b[p++] = ' ';
+		}
+		return length;
+	}
+	// ^^ putAdditionalData(byte[], int)
+
+
+	private int putElement( byte[] b, int p, int element ) {
+
+		switch( ELEMENTS[element] ) {
+		case "AA1":
+			putDigits(b, p, 2, random.nextInt(2) == 0 ? 1 : 6);
+			putDigits(b, p + 2, 4, random.nextInt(4) == 0 ? random.nextInt(100) : 0);
+			b[p + 6] = '9';
+			b[p + 7] = '1';
+			break;
+		case "GA1":
+		case "GA2":
+		case "GA3":
+			putDigits(b, p, 2, random.nextInt(9));
+			b[p + 2] = '1';
+			putSigned(b, p + 3, 6, 30 * random.nextInt(700));
+			b[p + 9] = '1';
+			putDigits(b, p + 10, 2, 99);
+			b[p + 12] = '9';
+			break;
+		case "KA1":
+			putDigits(b, p, 3, random.nextInt(2) == 0 ? 12 : 24);
+			b[p + 3] = random.nextInt(2) == 0 ? (byte) 'M' : (byte) 'N';
+			putSigned(b, p + 4, 5, iTemperature + random.nextInt(50));
+			b[p + 9] = '1';
+			break;
+		case "MA1":
+			putDigits(b, p, 5, 9900 + random.nextInt(500));
+			b[p + 5] = '1';
+			putDigits(b, p + 6, 5, 9000 + random.nextInt(1400));
+			b[p + 11] = '1';
+			break;
+		case "MD1":
+			putDigits(b, p, 1, random.nextInt(9));
+			b[p + 1] = '1';
+			putDigits(b, p + 2, 3, random.nextInt(60));
+			b[p + 5] = '1';
+			putSigned(b, p + 6, 4, random.nextInt(121) - 60);
+			b[p + 10] = '1';
+			break;
+		case "MW1":
+			putDigits(b, p, 2, random.nextInt(100));
+			b[p + 2] = '1';
+			break;
+		default: // OC1
+			putDigits(b, p, 4, 50 + random.nextInt(250));
+			b[p + 4] = '1';
+			break;
+		}
+		return p + ELEMENT_WIDTHS[element];
+	}
+	// ^^ putElement(byte[], int, int)
+
+
+	private static void putDigits( byte[] b, int offset, int width, int value ) {
+		for( int p = offset + width - 1; p >= offset; p-- ) {
+			b[p] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+	}
+
+	private static void putSigned( byte[] b, int offset, int width, int value ) {
+		b[offset] = value < 0 ? (byte) '-' : (byte) '+';
+		putDigits(b, offset + 1, width - 1, Math.abs(value));
+	}
+
+	private static int putAscii( byte[] b, int offset, String s ) {
+		for( int i = 0; i < s.length(); i++ ) {
+			b[offset + i] = (byte) s.charAt(i);
+		}
+		return offset + s.length();
+	}
+
+}
+// ^^ class ISDRecordGenerator
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,208 @@
+package ncdcparsersimple;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+
+/**
+ *
+ *   Counts, per field, how often malformed data of an ISD record was
+ * replaced by the field's minimum or 'missing value' (see the section
+ * parsing classes), so a data-quality regression shows up in numbers
+ * instead of in silently substituted 9999s.
+ *
+ *   The counters are shared by all the parsers of a JVM. Every counter
+ * is a LongAdder, so parsers on many threads count without contending
+ * for one cache line, and a counter is only touched when a field is
+ * malformed: parsing clean data costs nothing more.
+ *
+ *   snapshot() reads the counters, e.g. for metrics. They count the
+ * parsing of every thread of the JVM, so they are not what one task
+ * parsed. A task counts the malformed-field masks of its own records
+ * instead (see NCDCParserSimple.getMalformedFields()) and publishes them
+ * as job counters in the COUNTER_GROUP group:
+ *
+ *     long[] counts = new long[NCDCField.values().length];
+ *     MalformedDataCounters.count(parser.getMalformedFields(), counts); // map()
+ *     ...
+ *     MalformedDataCounters.of(counts).publish(context);                 // cleanup()
+ *
+ * (NCDCRecordReader does this itself, see NCDCInputFormat.setPublishCounters()).
+ *
+ * @author BusyBee
+ *
+ */
+public final class MalformedDataCounters {
+
+	public static final String COUNTER_GROUP = "NCDC malformed data";
+
+	private static final NCDCField[] FIELDS = NCDCField.values();
+	private static final LongAdder[] COUNTERS = new LongAdder[FIELDS.length];
+
+	static {
+		for( int i = 0; i < COUNTERS.length; i++ ) {
+			COUNTERS[i] = new LongAdder();
+		}
+	}
+
+
+	private MalformedDataCounters() {
+	}
+
+
+	/*
+	 *   Called by the section parsers whenever they replace malformed data.
+	 */
+	static void increment( NCDCField field ) {
+		COUNTERS[field.ordinal()].increment();
+	}
+
+
+	/**
+	 * @param field
+	 * @return how often the field was malformed so far.
+	 */
+	public static long get( NCDCField field ) {
+		return COUNTERS[field.ordinal()].sum();
+	}
+
+
+	/**
+	 * @return the counters now.
+	 */
+	public static Snapshot snapshot() {
+
+		final long[] counts = new long[COUNTERS.length];
+		for( int i = 0; i < counts.length; i++ ) {
+			counts[i] = COUNTERS[i].sum();
+		}
+		return new Snapshot(counts);
+	}
+
+
+	/**
+	 *   Adds 1 to the count of every field of the mask.
+	 *
+	 * @param malformedFields a malformed-field mask (see NCDCField.mask()).
+	 * @param counts one count per field, indexed by NCDCField.ordinal().
+	 */
+	public static void count( int malformedFields, long[] counts ) {
+
+		if( malformedFields == 0 ) {
+			return;
+		}
+		for( int i = 0; i < FIELDS.length; i++ ) {
+			if( (malformedFields & FIELDS[i].mask()) != 0 ) {
+				counts[i]++;
+			}
+		}
+	}
+	// ^^ count(int, long[])
+
+
+	/**
+	 * @param counts one count per field, indexed by NCDCField.ordinal().
+	 * @return a snapshot of a copy of the counts, e.g. to publish() them.
+	 */
+	public static Snapshot of( long[] counts ) {
+
+		if( counts.length != FIELDS.length ) {
+			throw new IllegalArgumentException("There must be one count per field: " + counts.length);
+		}
+		return new Snapshot(counts.clone());
+	}
+
+
+	/**
+	 *   Sets all the counters to zero; counts made at the same time may be lost.
+	 */
+	public static void reset() {
+		for( LongAdder counter : COUNTERS ) {
+			counter.reset();
+		}
+	}
+
+
+	/**
+	 *   The counters at one moment.
+	 */
+	public static final class Snapshot {
+
+		private final long[] counts;
+
+		private Snapshot( long[] counts ) {
+			this.counts = counts;
+		}
+
+		public long get( NCDCField field ) {
+			return counts[field.ordinal()];
+		}
+
+		/**
+		 * @return the count of all the fields.
+		 */
+		public long total() {
+			long total = 0;
+			for( long count : counts ) {
+				total += count;
+			}
+			return total;
+		}
+
+		/**
+		 * @param earlier
+		 * @return what was counted since the earlier snapshot.
+		 */
+		public Snapshot minus( Snapshot earlier ) {
+			final long[] diff = new long[counts.length];
+			for( int i = 0; i < diff.length; i++ ) {
+				diff[i] = counts[i] - earlier.counts[i];
+			}
+			return new Snapshot(diff);
+		}
+
+		/**
+		 * @return the counts that are not zero.
+		 */
+		public Map<NCDCField, Long> toMap() {
+			final Map<NCDCField, Long> map = new EnumMap<>(NCDCField.class);
+			for( int i = 0; i < counts.length; i++ ) {
+				if( counts[i] != 0 ) {
+					map.put(FIELDS[i], counts[i]);
+				}
+			}
+			return map;
+		}
+
+		/**
+		 *   Adds the counts that are not zero to the task's counters of
+		 * COUNTER_GROUP, one counter per field.
+		 *
+		 * @param context
+		 */
+		public void publish( TaskAttemptContext context ) {
+			for( int i = 0; i < counts.length; i++ ) {
+				if( counts[i] != 0 ) {
+					context.getCounter(COUNTER_GROUP, FIELDS[i].name()).increment(counts[i]);
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return toMap().toString();
+		}
+	}
+	// ^^ class Snapshot
+
+}
+// ^^ class MalformedDataCounters
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -14,10 +14,48 @@ package ncdcparsersimple;
  * (ISD) for that particular part of the record. Otherwise an int will be 
  * returned as is. 
  * 
+ *   The strings and bytes are decoded by AsciiFieldDecoding_ParserSimple, 
+ * which reports malformed data by a sentinel value, so no exception is 
+ * thrown (and no stack trace is built) for a malformed record. 
+ * Every replaced malformed value is flagged in iMalformedFields and, 
+ * unless the delegate was created not to count, counted by 
+ * MalformedDataCounters. 
+ * 
  * @author BusyBee
  *
  */
 public class MandatoryDataSectionParsing_ParserSimple {
+
+	/*
+	 *   The mask (see NCDCField) of the fields replaced because they 
+	 * were malformed, since the owner of this delegate last set it to 0. 
+	 */
+	int iMalformedFields;
+	
+	private final boolean bCounting;
+	
+	
+	public MandatoryDataSectionParsing_ParserSimple() {
+		this(true);
+	}
+	
+	/*
+	 *   counting: false for a delegate that may decode the same field 
+	 * of a record more than once, e.g. the one of NCDCRecordView. 
+	 */
+	MandatoryDataSectionParsing_ParserSimple(boolean counting) {
+		this.bCounting = counting;
+	}
+	
+	
+	private void malformed(NCDCField field) {
+		if( bCounting ) {
+			MalformedDataCounters.increment(field);
+		}
+		iMalformedFields |= field.mask();
+	}
+	// ^^ malformed(NCDCField)
+	
 	
 	/*
 	 * Note: For the quality code fields with each data element, the following may appear in data 
@@ -50,30 +88,47 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseWindObservation_DirectionAngle(String data) {
-		
-		final int DATA_IS_MISSING_INT = 999;		
-		
-		int angle = 0;
-		try {
-			
-			angle = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int DATA_IS_MISSING_INT = 999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.WIND_DIRECTION_ANGLE);
 			return DATA_IS_MISSING_INT;
-		}	
-		
-		return angle;		
-		
+		}
+
+		return dataValue;
+
 	}
 	// ^^ parseWindObservation_DirectionAngle(string)
+
+
+
+	/**
+	 *   Same as parseWindObservation_DirectionAngle(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseWindObservation_DirectionAngle(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.WIND_DIRECTION_ANGLE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseWindObservation_DirectionAngle(byte[], int, int)
 	
 	
 	
@@ -156,28 +211,45 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	int parseWindObservation_SpeedRate(String data) {
 
 		final int DATA_IS_MISSING_INT = 9999;
-		
-		int speedRate = 0;
-		try {
-			
-			speedRate = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.WIND_SPEED_RATE);
 			return DATA_IS_MISSING_INT;
-		}	
-		
-		return speedRate;
-		
+		}
+
+		return dataValue;
+
 	}
 	// ^^ parseWindObservation_SpeedRate(string)
+
+
+
+	/**
+	 *   Same as parseWindObservation_SpeedRate(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseWindObservation_SpeedRate(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 9999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.WIND_SPEED_RATE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseWindObservation_SpeedRate(byte[], int, int)
 	
 	
 	
@@ -228,32 +300,50 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseSkyConditionObservation_CeilingHeightDimention(String data) {
-		
+
 		final int DATA_IS_MISSING_INT = 99999;
-		
-		int ceilingHeightDimention = 0;
-		try {
-			
-			ceilingHeightDimention = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.CEILING_HEIGHT);
 			return DATA_IS_MISSING_INT;
 		}
-		
-		return ceilingHeightDimention;
+
+		return dataValue;
+
 	}
 	// ^^ parseSkyConditionObservation_CeilingHeightDimention(string)
 
 
 
+	/**
+	 *   Same as parseSkyConditionObservation_CeilingHeightDimention(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseSkyConditionObservation_CeilingHeightDimention(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 99999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.CEILING_HEIGHT);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseSkyConditionObservation_CeilingHeightDimention(byte[], int, int)
+
+
+
 	
 	/**
 	 *  19
@@ -358,33 +448,50 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	 * @return 
 	 */
 	int parseVisibilityObservation_DistanceDimension(String data) {
-		
+
 		final int DATA_IS_MISSING_INT = 999999;
-		
-		int distanceDimention = 0;
-		try {
-			
-			distanceDimention = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.VISIBILITY_DISTANCE);
 			return DATA_IS_MISSING_INT;
 		}
-		
-		return distanceDimention;
-		
+
+		return dataValue;
+
 	}
 	// ^^ parseVisibilityObservation_DistanceDimension(string)
 
 
 
+	/**
+	 *   Same as parseVisibilityObservation_DistanceDimension(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseVisibilityObservation_DistanceDimension(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 999999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.VISIBILITY_DISTANCE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseVisibilityObservation_DistanceDimension(byte[], int, int)
+
+
+
 	
 	/**
 	 *  23
@@ -486,36 +593,51 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	 * @param data
 	 * @return
 	 */
-	int parseAirTemperatureObservation_AirTemperature(String data) {		
-		
+	int parseAirTemperatureObservation_AirTemperature(String data) {
+
 		final int DATA_IS_MISSING_INT = 9999;
-		
-		int dataValue_int = 0;
-		try {
-			if( data.substring(0,1).equals("+") ) {
-				dataValue_int = Integer.parseInt(data.substring(1) );
-			} else {
-				dataValue_int = Integer.parseInt(data);
-			}
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.AIR_TEMPERATURE);
 			return DATA_IS_MISSING_INT;
 		}
-		
-		return dataValue_int;
+
+		return dataValue;
 
 	}
 	// ^^ parseAirTemperatureObservation_AirTemperature(string)
 
 
 
+	/**
+	 *   Same as parseAirTemperatureObservation_AirTemperature(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseAirTemperatureObservation_AirTemperature(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 9999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.AIR_TEMPERATURE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseAirTemperatureObservation_AirTemperature(byte[], int, int)
+
+
+
 	
 	
 	/**
@@ -576,33 +698,48 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	int parseAirTemperatureObservation_DewPointTemperature(String data) {
 
 		final int DATA_IS_MISSING_INT = 9999;
-		
-		int dataValue_int = 0;
-		try {
-			if( data.substring(0,1).equals("+") ) {
-				dataValue_int = Integer.parseInt(data.substring(1) );
-			} else {
-				dataValue_int = Integer.parseInt(data);
-			}
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.DEW_POINT_TEMPERATURE);
 			return DATA_IS_MISSING_INT;
 		}
-		
-		return dataValue_int;
+
+		return dataValue;
 
 	}
 	// ^^ parseAirTemperatureObservation_DewPointTemperature(string)
 
 
 
+	/**
+	 *   Same as parseAirTemperatureObservation_DewPointTemperature(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseAirTemperatureObservation_DewPointTemperature(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 9999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.DEW_POINT_TEMPERATURE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseAirTemperatureObservation_DewPointTemperature(byte[], int, int)
+
+
+
 	
 	/**
 	 *  29
@@ -658,33 +795,50 @@ public class MandatoryDataSectionParsing_ParserSimple {
 	 * @return
 	 */
 	int parseAtmosphericPressueObservation_SeaLevelPressure(String data) {
-		
+
 		final int DATA_IS_MISSING_INT = 99999;
-		
-		int seaLevelPressure = 0;
-		try {
-			
-			seaLevelPressure = Integer.parseInt(data);
-			
-		} catch (NumberFormatException e) {
-			// the string does not contain a parsable integer.
-			// TODO counter up ?
-			return DATA_IS_MISSING_INT;
-			
-		} catch (NullPointerException e) {
-			// The string is null.
-			// Return ??.		
-			// TODO counter up ?
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The string is null or does not contain a parsable integer.
+			malformed(NCDCField.SEA_LEVEL_PRESSURE);
 			return DATA_IS_MISSING_INT;
 		}
-		
-		return seaLevelPressure;
+
+		return dataValue;
 
 	}
 	// ^^ parseAtmosphericPressueObservation_SeaLevelPressure(string)
 
 
 
+	/**
+	 *   Same as parseAtmosphericPressueObservation_SeaLevelPressure(String), but decodes the field straight 
+	 * from the record's bytes.
+	 * 
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @return 
+	 */
+	int parseAtmosphericPressueObservation_SeaLevelPressure(byte[] data, int offset, int length) {
+
+		final int DATA_IS_MISSING_INT = 99999;
+
+		final int dataValue = AsciiFieldDecoding_ParserSimple.decodeInt(data, offset, length);
+		if( dataValue == AsciiFieldDecoding_ParserSimple.MALFORMED ) {
+			// The bytes do not contain a parsable integer.
+			malformed(NCDCField.SEA_LEVEL_PRESSURE);
+			return DATA_IS_MISSING_INT;
+		}
+
+		return dataValue;
+
+	}
+	// ^^ parseAtmosphericPressueObservation_SeaLevelPressure(byte[], int, int)
+
+
+
 	
 	/**
 	 * 
@@ -0,0 +1,132 @@
+package ncdcparsersimple;
+
+import java.util.Set;
+
+/**
+ *
+ *   The fields of an ISD record, numbered 1-32 as in NCDCParserSimple,
+ * with their position in the record. Used to tell a parser which fields
+ * to decode (see NCDCParserSimple(Set)).
+ *
+ *   A set of fields can be packed into an int mask, the bit of a field
+ * being 1 << (number - 1).
+ *
+ * @author BusyBee
+ *
+ */
+public enum NCDCField {
+
+	/*
+	 * CONTROL DATA SECTION
+	 */
+	TOTAL_VARIABLE_CHARS                (1,    0, 4), // POS: 1-4
+	USAF_MASTER_STATION_CATALOG_ID      (2,    4, 6), // POS: 5-10
+	NCEI_WBAN_ID                        (3,   10, 5), // POS: 11-15
+	OBSERVATION_DATE                    (4,   15, 8), // POS: 16-23
+	OBSERVATION_TIME                    (5,   23, 4), // POS: 24-27
+	DATA_SOURCE_FLAG                    (6,   27, 1), // POS: 28-28
+	LATITUDE                            (7,   28, 6), // POS: 29-34
+	LONGITUDE                           (8,   34, 7), // POS: 35-41
+	REPORT_TYPE_CODE                    (9,   41, 5), // POS: 42-46
+	ELEVATION                           (10,  46, 5), // POS: 47-51
+	CALL_LETTER_ID                      (11,  51, 5), // POS: 52-56
+	QUALITY_CONTROL_PROCESS_NAME        (12,  56, 4), // POS: 57-60
+
+	/*
+	 * MANDATORY DATA SECTION
+	 */
+	WIND_DIRECTION_ANGLE                (13,  60, 3), // POS: 61-63
+	WIND_DIRECTION_QUALITY_CODE         (14,  63, 1), // POS: 64-64
+	WIND_TYPE_CODE                      (15,  64, 1), // POS: 65-65
+	WIND_SPEED_RATE                     (16,  65, 4), // POS: 66-69
+	WIND_SPEED_QUALITY_CODE             (17,  69, 1), // POS: 70-70
+	CEILING_HEIGHT                      (18,  70, 5), // POS: 71-75
+	CEILING_QUALITY_CODE                (19,  75, 1), // POS: 76-76
+	CEILING_DETERMINATION_CODE          (20,  76, 1), // POS: 77-77
+	CAVOK_CODE                          (21,  77, 1), // POS: 78-78
+	VISIBILITY_DISTANCE                 (22,  78, 6), // POS: 79-84
+	VISIBILITY_DISTANCE_QUALITY_CODE    (23,  84, 1), // POS: 85-85
+	VISIBILITY_VARIABILITY_CODE         (24,  85, 1), // POS: 86-86
+	VISIBILITY_VARIABILITY_QUALITY_CODE (25,  86, 1), // POS: 87-87
+	AIR_TEMPERATURE                     (26,  87, 5), // POS: 88-92
+	AIR_TEMPERATURE_QUALITY_CODE        (27,  92, 1), // POS: 93-93
+	DEW_POINT_TEMPERATURE               (28,  93, 5), // POS: 94-98
+	DEW_POINT_QUALITY_CODE              (29,  98, 1), // POS: 99-99
+	SEA_LEVEL_PRESSURE                  (30,  99, 5), // POS: 100-104
+	SEA_LEVEL_PRESSURE_QUALITY_CODE     (31, 104, 1), // POS: 105-105
+
+	/*
+	 * ADDITIONAL DATA SECTION
+	 */
+	ADDITIONAL_DATA                     (32, 105, 0); // POS: 106+ (variable)
+
+
+	/**
+	 * The mask of all the fields.
+	 */
+	public static final int ALL = -1;
+
+	private final int iNumber;
+	private final int iOffset;
+	private final int iWidth;
+
+
+	NCDCField( int number, int offset, int width ) {
+		this.iNumber = number;
+		this.iOffset = offset;
+		this.iWidth = width;
+	}
+
+
+	/**
+	 * @return the number of the field, 1-32.
+	 */
+	public int number() {
+		return iNumber;
+	}
+
+	/**
+	 * @return the 0-based offset of the field in the record.
+	 */
+	public int offset() {
+		return iOffset;
+	}
+
+	/**
+	 * @return the width of the field; 0 for the additional data, whose width varies.
+	 */
+	public int width() {
+		return iWidth;
+	}
+
+	/**
+	 * @return the bit of the field in a mask.
+	 */
+	public int mask() {
+		return 1 << (iNumber - 1);
+	}
+
+
+	/**
+	 * @param fields
+	 * @return the mask of the fields.
+	 */
+	public static int maskOf( Set<NCDCField> fields ) {
+
+		int mask = 0;
+		for( NCDCField field : fields ) {
+			mask |= field.mask();
+		}
+		return mask;
+	}
+	// ^^ maskOf(Set<NCDCField>)
+
+}
+// ^^ enum NCDCField
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,148 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.io.compress.SplittableCompressionCodec;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+import org.apache.hadoop.util.ReflectionUtils;
+
+/**
+ *
+ *   An InputFormat for ISD files whose values are parsed records:
+ *
+ *     job.setInputFormatClass(NCDCInputFormat.class);
+ *
+ *     public void map( LongWritable offset, NCDCParserSimple record, Context context ) ...
+ *
+ *   The files are split like TextInputFormat splits them (gzipped files
+ * are not split), and every split is read by an NCDCRecordReader. The
+ * value handed to the mapper is reused for every record. A job that
+ * reads a few fields only should say so with setProjection(); the other
+ * fields are then not decoded. Records can be dropped before they are
+ * parsed with setFilterClass().
+ *
+ * @author BusyBee
+ *
+ */
+public class NCDCInputFormat extends FileInputFormat<LongWritable, NCDCParserSimple> {
+
+	public static final String PROJECTION = "ncdcparsersimple.input.projection";
+	public static final String FILTER_CLASS = "ncdcparsersimple.input.filter.class";
+	public static final String PUBLISH_COUNTERS = "ncdcparsersimple.input.publish.counters";
+
+
+	/**
+	 *   Makes the record readers of the job publish how often every field
+	 * of their splits was malformed as job counters (in the
+	 * MalformedDataCounters.COUNTER_GROUP group).
+	 *
+	 * @param job
+	 * @param publish
+	 */
+	public static void setPublishCounters( Job job, boolean publish ) {
+		job.getConfiguration().setBoolean(PUBLISH_COUNTERS, publish);
+	}
+
+
+	/**
+	 *   Makes the record readers of the job skip the records a filter of
+	 * the class rejects. The class needs a constructor without arguments
+	 * and may implement Configurable to read its bounds from the job.
+	 *
+	 * @param job
+	 * @param filterClass
+	 */
+	public static void setFilterClass( Job job, Class<? extends RecordFilter> filterClass ) {
+		job.getConfiguration().setClass(FILTER_CLASS, filterClass, RecordFilter.class);
+	}
+
+
+	/**
+	 *   Makes the parsers of the job decode the given fields only.
+	 *
+	 * @param job
+	 * @param fields
+	 */
+	public static void setProjection( Job job, Set<NCDCField> fields ) {
+
+		final StringBuilder sb = new StringBuilder();
+		for( NCDCField field : fields ) {
+			if( sb.length() > 0 ) {
+				sb.append(',');
+			}
+			sb.append(field.name());
+		}
+		job.getConfiguration().set(PROJECTION, sb.toString());
+	}
+	// ^^ setProjection(Job, Set<NCDCField>)
+
+
+	/*
+	 *   A parser of the fields set by setProjection(), of all the fields if
+	 * none are set.
+	 */
+	static NCDCParserSimple newParser( Configuration conf ) {
+
+		final String projection = conf.get(PROJECTION);
+		if( projection == null ) {
+			return new NCDCParserSimple();
+		}
+		final Set<NCDCField> fields = EnumSet.noneOf(NCDCField.class);
+		for( String name : conf.getTrimmedStringCollection(PROJECTION) ) {
+			fields.add(NCDCField.valueOf(name));
+		}
+		return new NCDCParserSimple(fields);
+	}
+	// ^^ newParser(Configuration)
+
+
+	@Override
+	public RecordReader<LongWritable, NCDCParserSimple> createRecordReader( InputSplit split, TaskAttemptContext context ) {
+
+		final String delimiter = context.getConfiguration().get("textinputformat.record.delimiter");
+		final byte[] recordDelimiter = delimiter == null ? null : delimiter.getBytes(StandardCharsets.UTF_8);
+		final NCDCRecordReader reader =
+				new NCDCRecordReader(new LineRecordReader(recordDelimiter), newParser(context.getConfiguration()));
+
+		reader.setPublishCounters(context.getConfiguration().getBoolean(PUBLISH_COUNTERS, false));
+
+		final Class<? extends RecordFilter> filterClass =
+				context.getConfiguration().getClass(FILTER_CLASS, null, RecordFilter.class);
+		if( filterClass != null ) {
+			reader.setFilter(ReflectionUtils.newInstance(filterClass, context.getConfiguration()));
+		}
+		return reader;
+	}
+	// ^^ createRecordReader(InputSplit, TaskAttemptContext)
+
+
+	@Override
+	protected boolean isSplitable( JobContext context, Path file ) {
+
+		final CompressionCodec codec = new CompressionCodecFactory(context.getConfiguration()).getCodec(file);
+		return codec == null || codec instanceof SplittableCompressionCodec;
+	}
+	// ^^ isSplitable(JobContext, Path)
+
+}
+// ^^ class NCDCInputFormat
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
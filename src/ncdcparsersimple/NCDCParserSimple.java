@@ -1,5 +1,7 @@
 package ncdcparsersimple;
 
+import java.util.Set;
+
 import org.apache.hadoop.io.Text;
 
 /**
@@ -17,17 +19,24 @@ import org.apache.hadoop.io.Text;
  *   Parsed data are stored as a String, or as  a char, or as 
  * an int (where it seemed appropriate). 
  *
+ *   A parser can be given the set of fields it has to decode 
+ * (see NCDCField); parse() then skips all other fields. 
+ * 
  *   If a setter cannot parse a substring of the ISD record to 
  * an int (e.g. the data is malformed), it will return either 
  * a minimum value or a 'missing value' defined in Federal Climate 
  * Complex Data Documentation for Integrated Surface Data (ISD) 
  * for that particular part of the ISD record. 
  * 
- * TODO It might be useful to signal if an ISD record contains 
- *      a malformed data that this parser 'transformed' either to 
- *      a minimum value or to a 'missing value'.
- *      It might be also useful to indicate which part of 
- *      the ISD record was malformed. 
+ *   The fields of a record that were malformed and 'transformed' 
+ * either to a minimum value or to a 'missing value' are flagged in 
+ * getMalformedFields(), and how often each field was malformed is 
+ * counted by MalformedDataCounters. 
+ * 
+ *   The station identifiers, call letters, report type code and 
+ * quality control process name repeat from record to record, so 
+ * they are taken from FieldStringCache: equal values of all the 
+ * records share one String. 
  *
  * @author BusyBee
  *
@@ -35,6 +44,9 @@ import org.apache.hadoop.io.Text;
 public class NCDCParserSimple {	
 	
 	private final int iMaxRecordLength = 105;
+	
+	// the mask of the fields parse() decodes, see NCDCField.
+	private final int iProjection;
 /* 
  * ==========================
  * 
@@ -326,8 +338,62 @@ public class NCDCParserSimple {
 	/*
 	 * Additional data
 	 */
+	
+	
+	// the mask (see NCDCField) of the fields replaced by parse() 
+	// because they were malformed.
+	private int iMalformedFields;
+	
+	private int iEpochMinutes = EpochMinutes.MISSING;
 
 
+	/*
+	 * ================
+	 *   CONSTRUCTORS
+	 * ----------------
+	 */
+	
+	/**
+	 * A parser that decodes all the fields of a record.
+	 */
+	public NCDCParserSimple() {
+		this.iProjection = NCDCField.ALL;
+	}
+	
+	/**
+	 *   A parser that decodes only the given fields of a record, 
+	 * e.g. for the maximum temperature per year:
+	 * 
+	 *   new NCDCParserSimple(EnumSet.of(NCDCField.OBSERVATION_DATE, 
+	 *                                   NCDCField.AIR_TEMPERATURE, 
+	 *                                   NCDCField.AIR_TEMPERATURE_QUALITY_CODE))
+	 * 
+	 *   parse() skips the decoders of all other fields, and their 
+	 * getters keep returning what they returned before the first 
+	 * parse() (0, '\u0000' or null). The setters are not affected.
+	 * 
+	 * @param fields
+	 */
+	public NCDCParserSimple( Set<NCDCField> fields ) {
+		this.iProjection = NCDCField.maskOf(fields);
+	}
+	// ^^ NCDCParserSimple(Set<NCDCField>)
+	
+	
+	/**
+	 * @param field
+	 * @return true if parse() decodes the field.
+	 */
+	public boolean isProjected( NCDCField field ) {
+		return projects(field);
+	}
+	
+	
+	private boolean projects( NCDCField field ) {
+		return (iProjection & field.mask()) != 0;
+	}
+	
+	
 	/*
 	 * =======================
 	 * ///////////////////////
@@ -864,6 +930,50 @@ public class NCDCParserSimple {
 	public String getAdditionalData() {
 		return sAdditionalData;
 	}
+	
+	
+	/*
+	 *  Malformed data
+	 */
+	
+	/**
+	 * @return the mask of the fields of the last parsed record that were 
+	 *         malformed and replaced by a minimum or 'missing value'; 
+	 *         the bit of a field is NCDCField.mask(), 0 if none was.
+	 */
+	public int getMalformedFields() {
+		return iMalformedFields;
+	}
+	
+	
+	/**
+	 * @param field
+	 * @return true if the field of the last parsed record was malformed.
+	 */
+	public boolean isMalformed(NCDCField field) {
+		return (iMalformedFields & field.mask()) != 0;
+	}
+	
+	
+	/**
+	 * @return the StationKey of the USAF and WBAN identifiers of the 
+	 *         last parsed record (both must be projected), or 
+	 *         StationKey.INVALID.
+	 */
+	public long getStationKey() {
+		return StationKey.pack(sUSAFMasterStationCatId, sNCEIWbanId);
+	}
+	
+	
+	/**
+	 * @return the date and time of the last parsed record as minutes 
+	 *         since the epoch (see EpochMinutes), decoded when both 
+	 *         OBSERVATION_DATE and OBSERVATION_TIME are projected; 
+	 *         EpochMinutes.MISSING otherwise or if they are malformed.
+	 */
+	public int getEpochMinutes() {
+		return iEpochMinutes;
+	}
 
 
 	/*
@@ -889,10 +999,14 @@ public class NCDCParserSimple {
 	 *                  
 	 *              Maximum record size: 2,844 characters
 	 *            
+	 *              The record is parsed straight from 
+	 *            the Text's bytes, no String of the whole 
+	 *            record is built.
+	 *            
 	 * @param record
 	 */
 	public void parse( Text record ) {
-		parse(record.toString());
+		parse(record.getBytes(), 0, record.getLength());
 	}
 	// ^^ parse(Text)
 	
@@ -918,122 +1032,413 @@ public class NCDCParserSimple {
 		
 		final int iRecordLength = record.length();
 		
+		parseControlData.iMalformedFields = 0;
+		parseMandatoryData.iMalformedFields = 0;
+		
 		// --------------
 		//  CONTROL DATA
 		// --------------
 		
 		// 1 pos: 1-4
-		setTotalVariableChars(record.substring(0, 4));
+		if( projects(NCDCField.TOTAL_VARIABLE_CHARS) ) {
+			setTotalVariableChars(record.substring(0, 4));
+		}
 		
 		// 2 pos: 5-10
-		setFixedWeatherStation_USAFMasterStationCatId(record.substring(4, 10));
+		if( projects(NCDCField.USAF_MASTER_STATION_CATALOG_ID) ) {
+			setFixedWeatherStation_USAFMasterStationCatId(FieldStringCache.STATION_IDS.get(record, 4, 10));
+		}
 		
 		// 3 pos: 11-15
-		setFixedWeatherStation_NCEIWbanId(record.substring(10, 15));
+		if( projects(NCDCField.NCEI_WBAN_ID) ) {
+			setFixedWeatherStation_NCEIWbanId(FieldStringCache.STATION_IDS.get(record, 10, 15));
+		}
 		
 		// 4 pos: 16-23
-		setGeophysicalPointObservation_Date(record.substring(15, 23));
+		if( projects(NCDCField.OBSERVATION_DATE) ) {
+			setGeophysicalPointObservation_Date(record.substring(15, 23));
+		}
 		
 		// 5 pos: 24-27
-		setGeophysicalPointObservation_Time(record.substring(23, 27));
+		if( projects(NCDCField.OBSERVATION_TIME) ) {
+			setGeophysicalPointObservation_Time(record.substring(23, 27));
+		}
+		
+		// 4-5 as one int
+		this.iEpochMinutes = projects(NCDCField.OBSERVATION_DATE) && projects(NCDCField.OBSERVATION_TIME)
+				? EpochMinutes.decode(record, 15) : EpochMinutes.MISSING;
 		
 		// 6 pos: 28-28
-		setGeophysicalPointObservation_DataSourceFlag(record.charAt(27));
+		if( projects(NCDCField.DATA_SOURCE_FLAG) ) {
+			setGeophysicalPointObservation_DataSourceFlag(record.charAt(27));
+		}
 		
 		// 7 pos: 29-34
-		setGeophysicalPointObservation_LatitudeCoord(record.substring(28, 34));
+		if( projects(NCDCField.LATITUDE) ) {
+			setGeophysicalPointObservation_LatitudeCoord(record.substring(28, 34));
+		}
 		
 		// 8 pos: 35-41
-		setGeophysicalPointObservation_LongitudeCoord(record.substring(34, 41));
+		if( projects(NCDCField.LONGITUDE) ) {
+			setGeophysicalPointObservation_LongitudeCoord(record.substring(34, 41));
+		}
 		
 		// 9 pos: 42-46
-		setGeophysicalReportType_Code(record.substring(41, 46));
+		if( projects(NCDCField.REPORT_TYPE_CODE) ) {
+			setGeophysicalReportType_Code(FieldStringCache.CODES.get(record, 41, 46));
+		}
 		
 		// 10 pos: 47-51
-		setGeophysicalPointObservation_ElevationDimention(record.substring(46, 51));		
+		if( projects(NCDCField.ELEVATION) ) {
+			setGeophysicalPointObservation_ElevationDimention(record.substring(46, 51));
+		}
 		
 		// 11 pos: 52-56
-		setFixedWeatherStation_CallLetterId(record.substring(51, 56));		
+		if( projects(NCDCField.CALL_LETTER_ID) ) {
+			setFixedWeatherStation_CallLetterId(FieldStringCache.STATION_IDS.get(record, 51, 56));
+		}
 		
 		// 12 pos: 57-60
-		setMeteorogicalPointObservation_QualityControlProcessName(record.substring(56, 60));
+		if( projects(NCDCField.QUALITY_CONTROL_PROCESS_NAME) ) {
+			setMeteorogicalPointObservation_QualityControlProcessName(FieldStringCache.CODES.get(record, 56, 60));
+		}
 		
 		// ----------------
 		//  MANDATORY DATA
 		// ----------------
 		
 		// 13 pos: 61-63
-		setWindObservation_DirectionAngle(record.substring(60, 63));
+		if( projects(NCDCField.WIND_DIRECTION_ANGLE) ) {
+			setWindObservation_DirectionAngle(record.substring(60, 63));
+		}
 		
 		// 14 pos: 64-64
-		setWindObservation_DirectionQualityCode(record.charAt(63));
+		if( projects(NCDCField.WIND_DIRECTION_QUALITY_CODE) ) {
+			setWindObservation_DirectionQualityCode(record.charAt(63));
+		}
 				
 		// 15 pos: 65-65
-		setWindObservation_TypeCode(record.charAt(64));
+		if( projects(NCDCField.WIND_TYPE_CODE) ) {
+			setWindObservation_TypeCode(record.charAt(64));
+		}
 		
 		// 16 pos: 66-69
-		setWindObservation_SpeedRate(record.substring(65, 69));
+		if( projects(NCDCField.WIND_SPEED_RATE) ) {
+			setWindObservation_SpeedRate(record.substring(65, 69));
+		}
 		
 		// 17 pos: 70-70
-		setWindObservation_SpeedQualityCode(record.charAt(69));
+		if( projects(NCDCField.WIND_SPEED_QUALITY_CODE) ) {
+			setWindObservation_SpeedQualityCode(record.charAt(69));
+		}
 		
 		// 18 pos: 71-75
-		setSkyConditionObservation_CeilingHeightDimention(record.substring(70, 75));
+		if( projects(NCDCField.CEILING_HEIGHT) ) {
+			setSkyConditionObservation_CeilingHeightDimention(record.substring(70, 75));
+		}
 		
 		// 19 pos: 76-76
-		setSkyConditionObservation_CeilingQualityCode(record.charAt(75));
+		if( projects(NCDCField.CEILING_QUALITY_CODE) ) {
+			setSkyConditionObservation_CeilingQualityCode(record.charAt(75));
+		}
 		
 		// 20 pos: 77-77
-		setSkyConditionObservation_CeilingDeterminationCode(record.charAt(76));
+		if( projects(NCDCField.CEILING_DETERMINATION_CODE) ) {
+			setSkyConditionObservation_CeilingDeterminationCode(record.charAt(76));
+		}
 		
 		// 21 pos: 78-78
-		setSkyConditionObservation_CavokCode(record.charAt(77));
+		if( projects(NCDCField.CAVOK_CODE) ) {
+			setSkyConditionObservation_CavokCode(record.charAt(77));
+		}
 		
 		// 22 pos: 79-84
-		setVisibilityObservation_DistanceDimension(record.substring(78, 84));
+		if( projects(NCDCField.VISIBILITY_DISTANCE) ) {
+			setVisibilityObservation_DistanceDimension(record.substring(78, 84));
+		}
 		
 		// 23 pos: 85-85
-		setVisibilityObservation_DistanceQualityCode(record.charAt(84));
+		if( projects(NCDCField.VISIBILITY_DISTANCE_QUALITY_CODE) ) {
+			setVisibilityObservation_DistanceQualityCode(record.charAt(84));
+		}
 		
 		// 24 pos: 86-86
-		setVisibilityObservation_VariabilityCode(record.charAt(85));
+		if( projects(NCDCField.VISIBILITY_VARIABILITY_CODE) ) {
+			setVisibilityObservation_VariabilityCode(record.charAt(85));
+		}
 		
 		// 25 pos: 87-87
-		setVisibilityObservation_QualityVariablityCode(record.charAt(86));
+		if( projects(NCDCField.VISIBILITY_VARIABILITY_QUALITY_CODE) ) {
+			setVisibilityObservation_QualityVariablityCode(record.charAt(86));
+		}
 		
 		// 26 pos: 88-92
-		setAirTemperatureObservation_AirTemperature(record.substring(87, 92));
+		if( projects(NCDCField.AIR_TEMPERATURE) ) {
+			setAirTemperatureObservation_AirTemperature(record.substring(87, 92));
+		}
 		
 		// 27 pos: 93-93
-		setAirTemperatureObservation_AirTemperatureQualityCode(record.charAt(92));
+		if( projects(NCDCField.AIR_TEMPERATURE_QUALITY_CODE) ) {
+			setAirTemperatureObservation_AirTemperatureQualityCode(record.charAt(92));
+		}
 		
 		// 28 pos: 94-98
-		setAirTemperatureObservation_DewPointTemperature(record.substring(93, 98));
+		if( projects(NCDCField.DEW_POINT_TEMPERATURE) ) {
+			setAirTemperatureObservation_DewPointTemperature(record.substring(93, 98));
+		}
 		
 		// 29 pos: 99-99
-		setAirTemperatureObservation_DewPointQualityCode(record.charAt(98));
+		if( projects(NCDCField.DEW_POINT_QUALITY_CODE) ) {
+			setAirTemperatureObservation_DewPointQualityCode(record.charAt(98));
+		}
 		
 		// 30 pos: 100-104
-		setAtmosphericPressueObservation_SeaLevelPressure(record.substring(99, 104));
+		if( projects(NCDCField.SEA_LEVEL_PRESSURE) ) {
+			setAtmosphericPressueObservation_SeaLevelPressure(record.substring(99, 104));
+		}
 		
 		// 31 pos: 105-105
-		setAtmosphericPressueObservation_SeaLevelPressureQualityCode(record.charAt(104));			
+		if( projects(NCDCField.SEA_LEVEL_PRESSURE_QUALITY_CODE) ) {
+			setAtmosphericPressueObservation_SeaLevelPressureQualityCode(record.charAt(104));
+		}
+		
+		this.iMalformedFields = parseControlData.iMalformedFields | parseMandatoryData.iMalformedFields;
 		
 		// -----------------
 		//  ADDITIONAL DATA
 		// -----------------
 		
 		// 32 pos: 106+
-		if( iRecordLength > iMaxRecordLength ) {			
-			setAdditionalData(record.substring(105));			
-		} else {
-			// there is no additional data in the record. 
-			setAdditionalData("");
+		if( projects(NCDCField.ADDITIONAL_DATA) ) {
+			if( iRecordLength > iMaxRecordLength ) {
+				setAdditionalData(record.substring(105));
+			} else {
+				// there is no additional data in the record.
+				setAdditionalData("");
+			}
 		}
 		
 	}
 	// ^^ parse(string)
 	
+
+	/**
+	 * 
+	 * IMPORTANT: Checking out if the record's length is
+	 *            less than the length of the control and 
+	 *            mandatory data must be done before 
+	 *            calling this parser.            
+	 *            
+	 *            Notes: 
+	 *              According to Federal Climate Complex 
+	 *            Data Documentation for ISD, both 
+	 *            the control and mandatory data consist 
+	 *            of 105 characters.
+	 *                  
+	 *              Maximum record size: 2,844 characters
+	 *            
+	 *              ISD records are pure ASCII, so every 
+	 *            field is decoded straight from the bytes 
+	 *            [offset, offset + length) and no 
+	 *            intermediate String is built.
+	 *                   
+	 * @param record
+	 * @param offset
+	 * @param length
+	 */
+	public void parse( byte[] record, int offset, int length ) {
+		
+		final int o = offset;
+		
+		parseControlData.iMalformedFields = 0;
+		parseMandatoryData.iMalformedFields = 0;
+		
+		// --------------
+		//  CONTROL DATA
+		// --------------
+		
+		// 1 pos: 1-4
+		if( projects(NCDCField.TOTAL_VARIABLE_CHARS) ) {
+			this.iTotalVariableChars = parseControlData.parseTotalVariableChars(record, o, 4);
+		}
+		
+		// 2 pos: 5-10
+		if( projects(NCDCField.USAF_MASTER_STATION_CATALOG_ID) ) {
+			this.sUSAFMasterStationCatId = parseControlData.parseFixedWeatherStation_USAFMasterStationCatId(record, o + 4, 6);
+		}
+		
+		// 3 pos: 11-15
+		if( projects(NCDCField.NCEI_WBAN_ID) ) {
+			this.sNCEIWbanId = parseControlData.parseFixedWeatherStation_NCEIWbanId(record, o + 10, 5);
+		}
+		
+		// 4 pos: 16-23
+		if( projects(NCDCField.OBSERVATION_DATE) ) {
+			this.sObservationDate = parseControlData.parseGeophysicalPointObservation_Date(record, o + 15, 8);
+		}
+		
+		// 5 pos: 24-27
+		if( projects(NCDCField.OBSERVATION_TIME) ) {
+			this.sObservationTime = parseControlData.parseGeophysicalPointObservation_Time(record, o + 23, 4);
+		}
+		
+		// 4-5 as one int
+		this.iEpochMinutes = projects(NCDCField.OBSERVATION_DATE) && projects(NCDCField.OBSERVATION_TIME)
+				? EpochMinutes.decode(record, o + 15) : EpochMinutes.MISSING;
+		
+		// 6 pos: 28-28
+		if( projects(NCDCField.DATA_SOURCE_FLAG) ) {
+			setGeophysicalPointObservation_DataSourceFlag(AsciiFieldDecoding_ParserSimple.toChar(record, o + 27));
+		}
+		
+		// 7 pos: 29-34
+		if( projects(NCDCField.LATITUDE) ) {
+			this.iLlatitudeCoord = parseControlData.parseGeophysicalPointObservation_LatitudeCoord(record, o + 28, 6);
+		}
+		
+		// 8 pos: 35-41
+		if( projects(NCDCField.LONGITUDE) ) {
+			this.iLongitudeCoord = parseControlData.parseGeophysicalPointObservation_LongitudeCoord(record, o + 34, 7);
+		}
+		
+		// 9 pos: 42-46
+		if( projects(NCDCField.REPORT_TYPE_CODE) ) {
+			this.sReportTypeCode = parseControlData.parseGeophysicalReportType_Code(record, o + 41, 5);
+		}
+		
+		// 10 pos: 47-51
+		if( projects(NCDCField.ELEVATION) ) {
+			this.iElevationDimention = parseControlData.parseGeophysicalPointObservation_ElevationDimention(record, o + 46, 5);
+		}
+		
+		// 11 pos: 52-56
+		if( projects(NCDCField.CALL_LETTER_ID) ) {
+			this.sCallLetterId = parseControlData.parseFixedWeatherStation_CallLetterId(record, o + 51, 5);
+		}
+		
+		// 12 pos: 57-60
+		if( projects(NCDCField.QUALITY_CONTROL_PROCESS_NAME) ) {
+			this.sQualityControlProcessName = parseControlData.parseMeteorogicalPointObservation_QualityControlProcessName(record, o + 56, 4);
+		}
+		
+		// ----------------
+		//  MANDATORY DATA
+		// ----------------
+		
+		// 13 pos: 61-63
+		if( projects(NCDCField.WIND_DIRECTION_ANGLE) ) {
+			this.iDirectionAngle = parseMandatoryData.parseWindObservation_DirectionAngle(record, o + 60, 3);
+		}
+		
+		// 14 pos: 64-64
+		if( projects(NCDCField.WIND_DIRECTION_QUALITY_CODE) ) {
+			setWindObservation_DirectionQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 63));
+		}
+				
+		// 15 pos: 65-65
+		if( projects(NCDCField.WIND_TYPE_CODE) ) {
+			setWindObservation_TypeCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 64));
+		}
+		
+		// 16 pos: 66-69
+		if( projects(NCDCField.WIND_SPEED_RATE) ) {
+			this.iWindSpeedRate = parseMandatoryData.parseWindObservation_SpeedRate(record, o + 65, 4);
+		}
+		
+		// 17 pos: 70-70
+		if( projects(NCDCField.WIND_SPEED_QUALITY_CODE) ) {
+			setWindObservation_SpeedQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 69));
+		}
+		
+		// 18 pos: 71-75
+		if( projects(NCDCField.CEILING_HEIGHT) ) {
+			this.iSkyCeilingHeightDimention = parseMandatoryData.parseSkyConditionObservation_CeilingHeightDimention(record, o + 70, 5);
+		}
+		
+		// 19 pos: 76-76
+		if( projects(NCDCField.CEILING_QUALITY_CODE) ) {
+			setSkyConditionObservation_CeilingQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 75));
+		}
+		
+		// 20 pos: 77-77
+		if( projects(NCDCField.CEILING_DETERMINATION_CODE) ) {
+			setSkyConditionObservation_CeilingDeterminationCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 76));
+		}
+		
+		// 21 pos: 78-78
+		if( projects(NCDCField.CAVOK_CODE) ) {
+			setSkyConditionObservation_CavokCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 77));
+		}
+		
+		// 22 pos: 79-84
+		if( projects(NCDCField.VISIBILITY_DISTANCE) ) {
+			this.iVisibilityDistanceDimension = parseMandatoryData.parseVisibilityObservation_DistanceDimension(record, o + 78, 6);
+		}
+		
+		// 23 pos: 85-85
+		if( projects(NCDCField.VISIBILITY_DISTANCE_QUALITY_CODE) ) {
+			setVisibilityObservation_DistanceQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 84));
+		}
+		
+		// 24 pos: 86-86
+		if( projects(NCDCField.VISIBILITY_VARIABILITY_CODE) ) {
+			setVisibilityObservation_VariabilityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 85));
+		}
+		
+		// 25 pos: 87-87
+		if( projects(NCDCField.VISIBILITY_VARIABILITY_QUALITY_CODE) ) {
+			setVisibilityObservation_QualityVariablityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 86));
+		}
+		
+		// 26 pos: 88-92
+		if( projects(NCDCField.AIR_TEMPERATURE) ) {
+			this.iAirTemperature = parseMandatoryData.parseAirTemperatureObservation_AirTemperature(record, o + 87, 5);
+		}
+		
+		// 27 pos: 93-93
+		if( projects(NCDCField.AIR_TEMPERATURE_QUALITY_CODE) ) {
+			setAirTemperatureObservation_AirTemperatureQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 92));
+		}
+		
+		// 28 pos: 94-98
+		if( projects(NCDCField.DEW_POINT_TEMPERATURE) ) {
+			this.iDewPointTemperature = parseMandatoryData.parseAirTemperatureObservation_DewPointTemperature(record, o + 93, 5);
+		}
+		
+		// 29 pos: 99-99
+		if( projects(NCDCField.DEW_POINT_QUALITY_CODE) ) {
+			setAirTemperatureObservation_DewPointQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 98));
+		}
+		
+		// 30 pos: 100-104
+		if( projects(NCDCField.SEA_LEVEL_PRESSURE) ) {
+			this.iSeaLevelPressure = parseMandatoryData.parseAtmosphericPressueObservation_SeaLevelPressure(record, o + 99, 5);
+		}
+		
+		// 31 pos: 105-105
+		if( projects(NCDCField.SEA_LEVEL_PRESSURE_QUALITY_CODE) ) {
+			setAtmosphericPressueObservation_SeaLevelPressureQualityCode(AsciiFieldDecoding_ParserSimple.toChar(record, o + 104));
+		}
+		
+		this.iMalformedFields = parseControlData.iMalformedFields | parseMandatoryData.iMalformedFields;
+		
+		// -----------------
+		//  ADDITIONAL DATA
+		// -----------------
+		
+		// 32 pos: 106+
+		if( projects(NCDCField.ADDITIONAL_DATA) ) {
+			if( length > iMaxRecordLength ) {
+				this.sAdditionalData = parseAdditionalData.parseAdditionalData(record, o + 105, length - 105);
+			} else {
+				// there is no additional data in the record.
+				setAdditionalData("");
+			}
+		}
+		
+	}
+	// ^^ parse(byte[], int, int)
+	
 	
 	/*
 	 * ===========
@@ -0,0 +1,185 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.LineRecordReader;
+
+/**
+ *
+ *   Reads the ISD records of a split and hands them to the mapper already
+ * parsed.
+ *
+ *   The lines are read by a LineRecordReader (so splits, compressed input
+ * and custom record delimiters work exactly as with TextInputFormat) and
+ * parsed straight from its Text buffer with NCDCParserSimple.parse(byte[],
+ * int, int); no String of the whole line is built. The key is the byte
+ * offset of the line in the file. The value is one NCDCParserSimple,
+ * reused for every record: a mapper must copy what it wants to keep
+ * (e.g. with new Observation(parser)).
+ *
+ *   Lines shorter than the control and mandatory data (105 characters)
+ * are skipped and counted, and so are the records a RecordFilter
+ * rejects; those are never parsed. The malformed fields of the parsed
+ * records are counted too, from their malformed-field masks, so the
+ * counts are this reader's alone.
+ *
+ * @author BusyBee
+ *
+ */
+public class NCDCRecordReader extends RecordReader<LongWritable, NCDCParserSimple> {
+
+	private final int iMaxRecordLength = 105;
+
+	private final LineRecordReader lineReader;
+	private final NCDCParserSimple parser;
+
+	private RecordFilter filter = RecordFilter.ALL;
+
+	private long lSkippedLines;
+	private long lRejectedRecords;
+
+	private final long[] malformedCounts = new long[NCDCField.values().length];
+
+	private boolean bPublishCounters;
+	private TaskAttemptContext context;
+
+
+	public NCDCRecordReader() {
+		this(new LineRecordReader());
+	}
+
+	/**
+	 * @param lineReader reads the lines of the split.
+	 */
+	public NCDCRecordReader( LineRecordReader lineReader ) {
+		this(lineReader, new NCDCParserSimple());
+	}
+
+	/**
+	 * @param lineReader reads the lines of the split.
+	 * @param parser parses them, e.g. a parser of a few fields only.
+	 */
+	public NCDCRecordReader( LineRecordReader lineReader, NCDCParserSimple parser ) {
+		this.lineReader = lineReader;
+		this.parser = parser;
+	}
+	// ^^ NCDCRecordReader(LineRecordReader, NCDCParserSimple)
+
+
+	/**
+	 *   Makes the reader skip the records the filter rejects.
+	 *
+	 * @param filter
+	 */
+	public void setFilter( RecordFilter filter ) {
+		this.filter = filter;
+	}
+
+
+	/**
+	 *   Makes close() publish the malformed fields of the records of the
+	 * split (see getMalformedCounts()) as job counters.
+	 *
+	 * @param publish
+	 */
+	public void setPublishCounters( boolean publish ) {
+		this.bPublishCounters = publish;
+	}
+
+
+	@Override
+	public void initialize( InputSplit split, TaskAttemptContext context ) throws IOException {
+		lineReader.initialize(split, context);
+		this.context = context;
+	}
+
+
+	@Override
+	public boolean nextKeyValue() throws IOException {
+
+		while( lineReader.nextKeyValue() ) {
+
+			final Text line = lineReader.getCurrentValue();
+			if( line.getLength() < iMaxRecordLength ) {
+				lSkippedLines++;
+				continue;
+			}
+			if( !filter.accept(line.getBytes(), 0, line.getLength()) ) {
+				lRejectedRecords++;
+				continue;
+			}
+			parser.parse(line.getBytes(), 0, line.getLength());
+			MalformedDataCounters.count(parser.getMalformedFields(), malformedCounts);
+			return true;
+		}
+		return false;
+	}
+	// ^^ nextKeyValue()
+
+
+	@Override
+	public LongWritable getCurrentKey() {
+		return lineReader.getCurrentKey();
+	}
+
+
+	@Override
+	public NCDCParserSimple getCurrentValue() {
+		return parser;
+	}
+
+
+	@Override
+	public float getProgress() throws IOException {
+		return lineReader.getProgress();
+	}
+
+
+	/**
+	 * @return the number of lines skipped because they were too short.
+	 */
+	public long getSkippedLineCount() {
+		return lSkippedLines;
+	}
+
+
+	/**
+	 * @return the number of records the filter rejected.
+	 */
+	public long getRejectedRecordCount() {
+		return lRejectedRecords;
+	}
+
+
+	/**
+	 * @return how often every field of the records read so far was
+	 *         malformed.
+	 */
+	public MalformedDataCounters.Snapshot getMalformedCounts() {
+		return MalformedDataCounters.of(malformedCounts);
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		lineReader.close();
+		if( bPublishCounters && context != null ) {
+			getMalformedCounts().publish(context);
+			context = null;
+		}
+	}
+
+}
+// ^^ class NCDCRecordReader
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,303 @@
+package ncdcparsersimple;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ *
+ *   A flyweight view over the raw bytes of an ISD record.
+ *
+ *   Unlike NCDCParserSimple, which decodes all the control and
+ * mandatory data in parse(), this view only remembers where
+ * the record is, and every getter decodes its own field at
+ * the fixed position documented in NCDCParserSimple.parse()
+ * when it is called. A job that reads a few fields of a record
+ * pays only for those fields.
+ *
+ *   The getters return the same values as the getters of
+ * NCDCParserSimple with the same name, including the minimum
+ * or 'missing value' for malformed data. A getter may be called
+ * any number of times, so the view does not count malformed data
+ * in MalformedDataCounters.
+ *
+ *   Binding the view to the next record allocates nothing, so
+ * one view can be reused for every record of a split. The view
+ * does not copy the bytes: they must not be changed while the
+ * view is bound to them. The view is not thread-safe.
+ *
+ * IMPORTANT: Checking out if the record's length is less than
+ *            the length of the control and mandatory data
+ *            (105 characters) must be done before binding.
+ *
+ * @author BusyBee
+ *
+ */
+public class NCDCRecordView {
+
+	private final int iMaxRecordLength = 105;
+
+	private byte[] record;
+	private int iOffset;
+	private int iLength;
+
+	private final AdditionalDataIndex additionalDataIndex = new AdditionalDataIndex();
+	private boolean bIndexed;
+
+
+	/**
+	 * Binds the view to the record in the bytes [offset, offset + length).
+	 *
+	 * @param record
+	 * @param offset
+	 * @param length
+	 * @return this view
+	 */
+	public NCDCRecordView bind( byte[] record, int offset, int length ) {
+		this.record = record;
+		this.iOffset = offset;
+		this.iLength = length;
+		this.bIndexed = false;
+		return this;
+	}
+	// ^^ bind(byte[], int, int)
+
+
+	/**
+	 * Binds the view to the record held by the Text.
+	 *
+	 * @param record
+	 * @return this view
+	 */
+	public NCDCRecordView bind( Text record ) {
+		return bind(record.getBytes(), 0, record.getLength());
+	}
+	// ^^ bind(Text)
+
+
+	/*
+	 * ==========================
+	 *  Control data getters
+	 * --------------------------
+	 */
+
+	// 1 pos: 1-4
+	public int getTotalVariableChars() {
+		return parseControlData.parseTotalVariableChars(record, iOffset, 4);
+	}
+
+	// 2 pos: 5-10
+	public String getFixedWeatherStation_USAFMasterStationCatId() {
+		return parseControlData.parseFixedWeatherStation_USAFMasterStationCatId(record, iOffset + 4, 6);
+	}
+
+	// 3 pos: 11-15
+	public String getFixedWeatherStation_NCEIWbanId() {
+		return parseControlData.parseFixedWeatherStation_NCEIWbanId(record, iOffset + 10, 5);
+	}
+
+	// 4 pos: 16-23
+	public String getGeophysicalPointObservation_Date() {
+		return parseControlData.parseGeophysicalPointObservation_Date(record, iOffset + 15, 8);
+	}
+
+	// 5 pos: 24-27
+	public String getGeophysicalPointObservation_Time() {
+		return parseControlData.parseGeophysicalPointObservation_Time(record, iOffset + 23, 4);
+	}
+
+	// 6 pos: 28-28
+	public char getGeophysicalPointObservation_DataSourceFlag() {
+		return parseControlData.parseGeophysicalPointObservation_DataSourceFlag(charAt(27));
+	}
+
+	// 7 pos: 29-34
+	public int getGeophysicalPointObservation_LatitudeCoord() {
+		return parseControlData.parseGeophysicalPointObservation_LatitudeCoord(record, iOffset + 28, 6);
+	}
+
+	// 8 pos: 35-41
+	public int getGeophysicalPointObservation_LongitudeCoord() {
+		return parseControlData.parseGeophysicalPointObservation_LongitudeCoord(record, iOffset + 34, 7);
+	}
+
+	// 9 pos: 42-46
+	public String getGeophysicalReportType_Code() {
+		return parseControlData.parseGeophysicalReportType_Code(record, iOffset + 41, 5);
+	}
+
+	// 10 pos: 47-51
+	public int getGeophysicalPointObservation_ElevationDimention() {
+		return parseControlData.parseGeophysicalPointObservation_ElevationDimention(record, iOffset + 46, 5);
+	}
+
+	// 11 pos: 52-56
+	public String getFixedWeatherStation_CallLetterId() {
+		return parseControlData.parseFixedWeatherStation_CallLetterId(record, iOffset + 51, 5);
+	}
+
+	// 12 pos: 57-60
+	public String getMeteorogicalPointObservation_QualityControlProcessName() {
+		return parseControlData.parseMeteorogicalPointObservation_QualityControlProcessName(record, iOffset + 56, 4);
+	}
+
+
+	/*
+	 * ==========================
+	 *  Mandatory data getters
+	 * --------------------------
+	 */
+
+	// 13 pos: 61-63
+	public int getWindObservation_DirectionAngle() {
+		return parseMandatoryData.parseWindObservation_DirectionAngle(record, iOffset + 60, 3);
+	}
+
+	// 14 pos: 64-64
+	public char getWindObservation_DirectionQualityCode() {
+		return parseMandatoryData.parseWindObservation_DirectionQualityCode(charAt(63));
+	}
+
+	// 15 pos: 65-65
+	public char getWindObservation_TypeCode() {
+		return parseMandatoryData.parseWindObservation_TypeCode(charAt(64));
+	}
+
+	// 16 pos: 66-69
+	public int getWindObservation_SpeedRate() {
+		return parseMandatoryData.parseWindObservation_SpeedRate(record, iOffset + 65, 4);
+	}
+
+	// 17 pos: 70-70
+	public char getWindObservation_SpeedQualityCode() {
+		return parseMandatoryData.parseWindObservation_SpeedQualityCode(charAt(69));
+	}
+
+	// 18 pos: 71-75
+	public int getSkyConditionObservation_CeilingHeightDimention() {
+		return parseMandatoryData.parseSkyConditionObservation_CeilingHeightDimention(record, iOffset + 70, 5);
+	}
+
+	// 19 pos: 76-76
+	public char getSkyConditionObservation_CeilingQualityCode() {
+		return parseMandatoryData.parseSkyConditionObservation_CeilingQualityCode(charAt(75));
+	}
+
+	// 20 pos: 77-77
+	public char getSkyConditionObservation_CeilingDeterminationCode() {
+		return parseMandatoryData.parseSkyConditionObservation_CeilingDeterminationCode(charAt(76));
+	}
+
+	// 21 pos: 78-78
+	public char getSkyConditionObservation_CavokCode() {
+		return parseMandatoryData.parseSkyConditionObservation_CavokCode(charAt(77));
+	}
+
+	// 22 pos: 79-84
+	public int getVisibilityObservation_DistanceDimension() {
+		return parseMandatoryData.parseVisibilityObservation_DistanceDimension(record, iOffset + 78, 6);
+	}
+
+	// 23 pos: 85-85
+	public char getVisibilityObservation_DistanceQualityCode() {
+		return parseMandatoryData.parseVisibilityObservation_DistanceQualityCode(charAt(84));
+	}
+
+	// 24 pos: 86-86
+	public char getVisibilityObservation_VariabilityCode() {
+		return parseMandatoryData.parseVisibilityObservation_VariabilityCode(charAt(85));
+	}
+
+	// 25 pos: 87-87
+	public char getVisibilityObservation_QualityVariablityCode() {
+		return parseMandatoryData.parseVisibilityObservation_QualityVariablityCode(charAt(86));
+	}
+
+	// 26 pos: 88-92
+	public int getAirTemperatureObservation_AirTemperature() {
+		return parseMandatoryData.parseAirTemperatureObservation_AirTemperature(record, iOffset + 87, 5);
+	}
+
+	// 27 pos: 93-93
+	public char getAirTemperatureObservation_AirTemperatureQualityCode() {
+		return parseMandatoryData.parseAirTemperatureObservation_AirTemperatureQualityCode(charAt(92));
+	}
+
+	// 28 pos: 94-98
+	public int getAirTemperatureObservation_DewPointTemperature() {
+		return parseMandatoryData.parseAirTemperatureObservation_DewPointTemperature(record, iOffset + 93, 5);
+	}
+
+	// 29 pos: 99-99
+	public char getAirTemperatureObservation_DewPointQualityCode() {
+		return parseMandatoryData.parseAirTemperatureObservation_DewPointQualityCode(charAt(98));
+	}
+
+	// 30 pos: 100-104
+	public int getAtmosphericPressueObservation_SeaLevelPressure() {
+		return parseMandatoryData.parseAtmosphericPressueObservation_SeaLevelPressure(record, iOffset + 99, 5);
+	}
+
+	// 31 pos: 105-105
+	public char getAtmosphericPressueObservation_SeaLevelPressureQualityCode() {
+		return parseMandatoryData.parseAtmosphericPressueObservation_SeaLevelPressureQualityCode(charAt(104));
+	}
+
+
+	/*
+	 * ==========================
+	 *  Additional data getter
+	 * --------------------------
+	 */
+
+	// 32 pos: 106+
+	public String getAdditionalData() {
+		if( iLength > iMaxRecordLength ) {
+			return parseAdditionalData.parseAdditionalData(record, iOffset + 105, iLength - 105);
+		}
+		// there is no additional data in the record.
+		return parseAdditionalData.parseAdditionalData("");
+	}
+
+
+	/**
+	 *   The elements of the additional data, indexed on the first call after
+	 * bind(); the offsets are into the bound bytes. The index is reused for
+	 * the next record.
+	 *
+	 * @return
+	 */
+	public AdditionalDataIndex getAdditionalDataIndex() {
+		if( !bIndexed ) {
+			additionalDataIndex.index(record, iOffset, iLength);
+			bIndexed = true;
+		}
+		return additionalDataIndex;
+	}
+
+
+	private char charAt( int position ) {
+		return AsciiFieldDecoding_ParserSimple.toChar(record, iOffset + position);
+	}
+	// ^^ charAt(int)
+
+
+	/*
+	 * ===========
+	 *  Delegates
+	 * -----------
+	 */
+	private final ControlDataSectionParsing_ParserSimple    parseControlData    =
+			new ControlDataSectionParsing_ParserSimple(false);
+	private final MandatoryDataSectionParsing_ParserSimple  parseMandatoryData  =
+			new MandatoryDataSectionParsing_ParserSimple(false);
+	private final AdditionalDataSectionParsing_ParserSimple parseAdditionalData =
+			new AdditionalDataSectionParsing_ParserSimple();
+
+}
+// ^^ class NCDCRecordView
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
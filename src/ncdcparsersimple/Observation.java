@@ -0,0 +1,292 @@
+package ncdcparsersimple;
+
+/**
+ *
+ *   An immutable copy of one parsed ISD record.
+ *
+ *   NCDCParserSimple keeps the fields of the last parsed record only
+ * and is overwritten by the next parse(), so it cannot be handed to
+ * another thread or kept in a collection. An Observation can: it holds
+ * the same values, returned by getters with the same names, and never
+ * changes after it is created. It can be shared between threads freely.
+ *
+ * @author BusyBee
+ *
+ */
+public final class Observation {
+
+	private final int     iTotalVariableChars; // 1 POS: 1-4
+	private final String  sUSAFMasterStationCatId; // 2 POS: 5-10
+	private final String  sNCEIWbanId; // 3 POS: 11-15
+	private final String  sObservationDate; // 4 POS: 16-23
+	private final String  sObservationTime; // 5 POS: 24-27
+	private final char    cDataSourceFlag; // 6 POS: 28-28
+	private final int     iLlatitudeCoord; // 7 POS: 29-34
+	private final int     iLongitudeCoord; // 8 POS: 35-41
+	private final String  sReportTypeCode; // 9 POS: 42-46
+	private final int     iElevationDimention; // 10 POS: 47-51
+	private final String  sCallLetterId; // 11 POS: 52-56
+	private final String  sQualityControlProcessName; // 12 POS: 57-60
+	private final int     iDirectionAngle; // 13 POS: 61-63
+	private final char    cDirectionQualityCode; // 14 POS: 64-64
+	private final char    cWindObservationTypeCode; // 15 POS: 65-65
+	private final int     iWindSpeedRate; // 16 POS: 66-69
+	private final char    cWindSpeedQualityCode; // 17 POS: 70-70
+	private final int     iSkyCeilingHeightDimention; // 18 POS: 71-75
+	private final char    cSkyCeilingQualityCode; // 19 POS: 76-76
+	private final char    cSkyCeilingDeterminationCode; // 20 POS: 77-77
+	private final char    cCAVOKCode; // 21 POS: 78-78
+	private final int     iVisibilityDistanceDimension; // 22 POS: 79-84
+	private final char    cVisibilityDistanceQualityCode; // 23 POS: 85-85
+	private final char    cVisibilityVariabilityCode; // 24 POS: 86-86
+	private final char    cVisibilityQualityVariablityCode; // 25 POS: 87-87
+	private final int     iAirTemperature; // 26 POS: 88-92
+	private final char    cAirTemperatureQualityCode; // 27 POS: 93-93
+	private final int     iDewPointTemperature; // 28 POS: 94-98
+	private final char    cDewPointQualityCode; // 29 POS: 99-99
+	private final int     iSeaLevelPressure; // 30 POS: 100-104
+	private final char    cSeaLevelPressureQualityCode; // 31 POS: 105-105
+	private final String  sAdditionalData; // 32 POS: 106+
+
+	private final int     iMalformedFields; // NCDCField masks
+	private final int     iEpochMinutes; // 4-5
+
+
+	/**
+	 * Copies the record last parsed by the parser.
+	 *
+	 * @param parser
+	 */
+	public Observation( NCDCParserSimple parser ) {
+		this.iTotalVariableChars = parser.getTotalVariableChars();
+		this.sUSAFMasterStationCatId = parser.getFixedWeatherStation_USAFMasterStationCatId();
+		this.sNCEIWbanId = parser.getFixedWeatherStation_NCEIWbanId();
+		this.sObservationDate = parser.getGeophysicalPointObservation_Date();
+		this.sObservationTime = parser.getGeophysicalPointObservation_Time();
+		this.cDataSourceFlag = parser.getGeophysicalPointObservation_DataSourceFlag();
+		this.iLlatitudeCoord = parser.getGeophysicalPointObservation_LatitudeCoord();
+		this.iLongitudeCoord = parser.getGeophysicalPointObservation_LongitudeCoord();
+		this.sReportTypeCode = parser.getGeophysicalReportType_Code();
+		this.iElevationDimention = parser.getGeophysicalPointObservation_ElevationDimention();
+		this.sCallLetterId = parser.getFixedWeatherStation_CallLetterId();
+		this.sQualityControlProcessName = parser.getMeteorogicalPointObservation_QualityControlProcessName();
+		this.iDirectionAngle = parser.getWindObservation_DirectionAngle();
+		this.cDirectionQualityCode = parser.getWindObservation_DirectionQualityCode();
+		this.cWindObservationTypeCode = parser.getWindObservation_TypeCode();
+		this.iWindSpeedRate = parser.getWindObservation_SpeedRate();
+		this.cWindSpeedQualityCode = parser.getWindObservation_SpeedQualityCode();
+		this.iSkyCeilingHeightDimention = parser.getSkyConditionObservation_CeilingHeightDimention();
+		this.cSkyCeilingQualityCode = parser.getSkyConditionObservation_CeilingQualityCode();
+		this.cSkyCeilingDeterminationCode = parser.getSkyConditionObservation_CeilingDeterminationCode();
+		this.cCAVOKCode = parser.getSkyConditionObservation_CavokCode();
+		this.iVisibilityDistanceDimension = parser.getVisibilityObservation_DistanceDimension();
+		this.cVisibilityDistanceQualityCode = parser.getVisibilityObservation_DistanceQualityCode();
+		this.cVisibilityVariabilityCode = parser.getVisibilityObservation_VariabilityCode();
+		this.cVisibilityQualityVariablityCode = parser.getVisibilityObservation_QualityVariablityCode();
+		this.iAirTemperature = parser.getAirTemperatureObservation_AirTemperature();
+		this.cAirTemperatureQualityCode = parser.getAirTemperatureObservation_AirTemperatureQualityCode();
+		this.iDewPointTemperature = parser.getAirTemperatureObservation_DewPointTemperature();
+		this.cDewPointQualityCode = parser.getAirTemperatureObservation_DewPointQualityCode();
+		this.iSeaLevelPressure = parser.getAtmosphericPressueObservation_SeaLevelPressure();
+		this.cSeaLevelPressureQualityCode = parser.getAtmosphericPressueObservation_SeaLevelPressureQualityCode();
+		this.sAdditionalData = parser.getAdditionalData();
+		this.iMalformedFields = parser.getMalformedFields();
+		this.iEpochMinutes = parser.getEpochMinutes();
+	}
+	// ^^ Observation(NCDCParserSimple)
+
+
+	// 1
+	public int getTotalVariableChars() {
+		return iTotalVariableChars;
+	}
+
+	// 2
+	public String getFixedWeatherStation_USAFMasterStationCatId() {
+		return sUSAFMasterStationCatId;
+	}
+
+	// 3
+	public String getFixedWeatherStation_NCEIWbanId() {
+		return sNCEIWbanId;
+	}
+
+	// 4
+	public String getGeophysicalPointObservation_Date() {
+		return sObservationDate;
+	}
+
+	// 5
+	public String getGeophysicalPointObservation_Time() {
+		return sObservationTime;
+	}
+
+	// 6
+	public char getGeophysicalPointObservation_DataSourceFlag() {
+		return cDataSourceFlag;
+	}
+
+	// 7
+	public int getGeophysicalPointObservation_LatitudeCoord() {
+		return iLlatitudeCoord;
+	}
+
+	// 8
+	public int getGeophysicalPointObservation_LongitudeCoord() {
+		return iLongitudeCoord;
+	}
+
+	// 9
+	public String getGeophysicalReportType_Code() {
+		return sReportTypeCode;
+	}
+
+	// 10
+	public int getGeophysicalPointObservation_ElevationDimention() {
+		return iElevationDimention;
+	}
+
+	// 11
+	public String getFixedWeatherStation_CallLetterId() {
+		return sCallLetterId;
+	}
+
+	// 12
+	public String getMeteorogicalPointObservation_QualityControlProcessName() {
+		return sQualityControlProcessName;
+	}
+
+	// 13
+	public int getWindObservation_DirectionAngle() {
+		return iDirectionAngle;
+	}
+
+	// 14
+	public char getWindObservation_DirectionQualityCode() {
+		return cDirectionQualityCode;
+	}
+
+	// 15
+	public char getWindObservation_TypeCode() {
+		return cWindObservationTypeCode;
+	}
+
+	// 16
+	public int getWindObservation_SpeedRate() {
+		return iWindSpeedRate;
+	}
+
+	// 17
+	public char getWindObservation_SpeedQualityCode() {
+		return cWindSpeedQualityCode;
+	}
+
+	// 18
+	public int getSkyConditionObservation_CeilingHeightDimention() {
+		return iSkyCeilingHeightDimention;
+	}
+
+	// 19
+	public char getSkyConditionObservation_CeilingQualityCode() {
+		return cSkyCeilingQualityCode;
+	}
+
+	// 20
+	public char getSkyConditionObservation_CeilingDeterminationCode() {
+		return cSkyCeilingDeterminationCode;
+	}
+
+	// 21
+	public char getSkyConditionObservation_CavokCode() {
+		return cCAVOKCode;
+	}
+
+	// 22
+	public int getVisibilityObservation_DistanceDimension() {
+		return iVisibilityDistanceDimension;
+	}
+
+	// 23
+	public char getVisibilityObservation_DistanceQualityCode() {
+		return cVisibilityDistanceQualityCode;
+	}
+
+	// 24
+	public char getVisibilityObservation_VariabilityCode() {
+		return cVisibilityVariabilityCode;
+	}
+
+	// 25
+	public char getVisibilityObservation_QualityVariablityCode() {
+		return cVisibilityQualityVariablityCode;
+	}
+
+	// 26
+	public int getAirTemperatureObservation_AirTemperature() {
+		return iAirTemperature;
+	}
+
+	// 27
+	public char getAirTemperatureObservation_AirTemperatureQualityCode() {
+		return cAirTemperatureQualityCode;
+	}
+
+	// 28
+	public int getAirTemperatureObservation_DewPointTemperature() {
+		return iDewPointTemperature;
+	}
+
+	// 29
+	public char getAirTemperatureObservation_DewPointQualityCode() {
+		return cDewPointQualityCode;
+	}
+
+	// 30
+	public int getAtmosphericPressueObservation_SeaLevelPressure() {
+		return iSeaLevelPressure;
+	}
+
+	// 31
+	public char getAtmosphericPressueObservation_SeaLevelPressureQualityCode() {
+		return cSeaLevelPressureQualityCode;
+	}
+
+	// 32
+	public String getAdditionalData() {
+		return sAdditionalData;
+	}
+
+	/**
+	 * @return see NCDCParserSimple.getMalformedFields().
+	 */
+	public int getMalformedFields() {
+		return iMalformedFields;
+	}
+
+	public boolean isMalformed( NCDCField field ) {
+		return (iMalformedFields & field.mask()) != 0;
+	}
+
+	/**
+	 * @return see NCDCParserSimple.getStationKey().
+	 */
+	public long getStationKey() {
+		return StationKey.pack(sUSAFMasterStationCatId, sNCEIWbanId);
+	}
+
+	/**
+	 * @return see NCDCParserSimple.getEpochMinutes().
+	 */
+	public int getEpochMinutes() {
+		return iEpochMinutes;
+	}
+
+}
+// ^^ class Observation
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
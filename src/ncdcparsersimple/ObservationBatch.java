@@ -0,0 +1,620 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.Text;
+
+/**
+ *
+ *   A reusable batch of parsed ISD records stored column by column
+ * (struct of arrays) instead of one NCDCParserSimple per record.
+ *
+ *   Every control and mandatory data field has its own primitive
+ * column:
+ *     - the int fields are stored in an int[] column,
+ *     - the char fields (flags and quality codes) are stored in
+ *       a byte[] column, one byte per record,
+ *     - the String fields are stored as their raw ASCII bytes in
+ *       a byte[] column of fixed width, e.g. the USAF identifier
+ *       of record i is at [i * 6, i * 6 + 6).
+ *
+ *   The columns are named after the getters of NCDCParserSimple and
+ * hold the same values, including the minimum or 'missing value'
+ * for malformed data. Only the first size() entries of a column are
+ * valid. The additional data is not stored.
+ *
+ *   A batch is filled by parse() or parseLines() until it is full,
+ * and clear() makes it ready for the next records without allocating.
+ * A batch is not thread-safe.
+ *
+ * @author BusyBee
+ *
+ */
+public class ObservationBatch {
+
+	private final int iMaxRecordLength = 105;
+
+	/*
+	 * Widths of the String fields.
+	 */
+	public static final int USAF_ID_WIDTH       = 6;
+	public static final int WBAN_ID_WIDTH       = 5;
+	public static final int DATE_WIDTH          = 8;
+	public static final int TIME_WIDTH          = 4;
+	public static final int REPORT_TYPE_WIDTH   = 5;
+	public static final int CALL_LETTER_WIDTH   = 5;
+	public static final int QC_PROCESS_WIDTH    = 4;
+
+	private final int iCapacity;
+	private int iSize;
+
+	/*
+	 * ==========================
+	 *    CONTROL DATA SECTION
+	 * --------------------------
+	 */
+	private final int[]  totalVariableChars;             // 1  POS: 1-4
+	private final byte[] usafMasterStationCatId;         // 2  POS: 5-10
+	private final byte[] nceiWbanId;                     // 3  POS: 11-15
+	private final byte[] observationDate;                // 4  POS: 16-23
+	private final byte[] observationTime;                // 5  POS: 24-27
+	private final byte[] dataSourceFlag;                 // 6  POS: 28-28
+	private final int[]  latitudeCoord;                  // 7  POS: 29-34
+	private final int[]  longitudeCoord;                 // 8  POS: 35-41
+	private final byte[] reportTypeCode;                 // 9  POS: 42-46
+	private final int[]  elevationDimention;             // 10 POS: 47-51
+	private final byte[] callLetterId;                   // 11 POS: 52-56
+	private final byte[] qualityControlProcessName;      // 12 POS: 57-60
+
+	/*
+	 * ==========================
+	 *   MANDATORY DATA SECTION
+	 * --------------------------
+	 */
+	private final int[]  directionAngle;                 // 13 POS: 61-63
+	private final byte[] directionQualityCode;           // 14 POS: 64-64
+	private final byte[] windObservationTypeCode;        // 15 POS: 65-65
+	private final int[]  windSpeedRate;                  // 16 POS: 66-69
+	private final byte[] windSpeedQualityCode;           // 17 POS: 70-70
+	private final int[]  skyCeilingHeightDimention;      // 18 POS: 71-75
+	private final byte[] skyCeilingQualityCode;          // 19 POS: 76-76
+	private final byte[] skyCeilingDeterminationCode;    // 20 POS: 77-77
+	private final byte[] cavokCode;                      // 21 POS: 78-78
+	private final int[]  visibilityDistanceDimension;    // 22 POS: 79-84
+	private final byte[] visibilityDistanceQualityCode;  // 23 POS: 85-85
+	private final byte[] visibilityVariabilityCode;      // 24 POS: 86-86
+	private final byte[] visibilityQualityVariablityCode;// 25 POS: 87-87
+	private final int[]  airTemperature;                 // 26 POS: 88-92
+	private final byte[] airTemperatureQualityCode;      // 27 POS: 93-93
+	private final int[]  dewPointTemperature;            // 28 POS: 94-98
+	private final byte[] dewPointQualityCode;            // 29 POS: 99-99
+	private final int[]  seaLevelPressure;               // 30 POS: 100-104
+	private final byte[] seaLevelPressureQualityCode;    // 31 POS: 105-105
+
+	private final int[]  malformedFields;                // NCDCField masks
+	private final int[]  epochMinutes;                   // 4-5 as EpochMinutes
+
+
+	/**
+	 * @param capacity the maximum number of records in the batch.
+	 */
+	public ObservationBatch( int capacity ) {
+
+		if( capacity <= 0 ) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.iCapacity = capacity;
+
+		totalVariableChars              = new int[capacity];
+		usafMasterStationCatId          = new byte[capacity * USAF_ID_WIDTH];
+		nceiWbanId                      = new byte[capacity * WBAN_ID_WIDTH];
+		observationDate                 = new byte[capacity * DATE_WIDTH];
+		observationTime                 = new byte[capacity * TIME_WIDTH];
+		dataSourceFlag                  = new byte[capacity];
+		latitudeCoord                   = new int[capacity];
+		longitudeCoord                  = new int[capacity];
+		reportTypeCode                  = new byte[capacity * REPORT_TYPE_WIDTH];
+		elevationDimention              = new int[capacity];
+		callLetterId                    = new byte[capacity * CALL_LETTER_WIDTH];
+		qualityControlProcessName       = new byte[capacity * QC_PROCESS_WIDTH];
+
+		directionAngle                  = new int[capacity];
+		directionQualityCode            = new byte[capacity];
+		windObservationTypeCode         = new byte[capacity];
+		windSpeedRate                   = new int[capacity];
+		windSpeedQualityCode            = new byte[capacity];
+		skyCeilingHeightDimention       = new int[capacity];
+		skyCeilingQualityCode           = new byte[capacity];
+		skyCeilingDeterminationCode     = new byte[capacity];
+		cavokCode                       = new byte[capacity];
+		visibilityDistanceDimension     = new int[capacity];
+		visibilityDistanceQualityCode   = new byte[capacity];
+		visibilityVariabilityCode       = new byte[capacity];
+		visibilityQualityVariablityCode = new byte[capacity];
+		airTemperature                  = new int[capacity];
+		airTemperatureQualityCode       = new byte[capacity];
+		dewPointTemperature             = new int[capacity];
+		dewPointQualityCode             = new byte[capacity];
+		seaLevelPressure                = new int[capacity];
+		seaLevelPressureQualityCode     = new byte[capacity];
+
+		malformedFields                 = new int[capacity];
+		epochMinutes                    = new int[capacity];
+	}
+	// ^^ ObservationBatch(int)
+
+
+	public int capacity() {
+		return iCapacity;
+	}
+
+	public int size() {
+		return iSize;
+	}
+
+	public boolean isFull() {
+		return iSize == iCapacity;
+	}
+
+	/**
+	 * Empties the batch, so it can be filled again. Nothing is allocated.
+	 */
+	public void clear() {
+		iSize = 0;
+	}
+
+
+	/*
+	 * ==========
+	 *
+	 *   Parser
+	 *
+	 * ----------
+	 */
+
+	/**
+	 *
+	 * IMPORTANT: Checking out if the record's length is
+	 *            less than the length of the control and
+	 *            mandatory data must be done before
+	 *            calling this parser.
+	 *
+	 * @param record
+	 * @return false if the batch is full and the record was not added.
+	 */
+	public boolean parse( Text record ) {
+		return parse(record.getBytes(), 0, record.getLength());
+	}
+	// ^^ parse(Text)
+
+
+	/**
+	 *
+	 * IMPORTANT: Checking out if the record's length is
+	 *            less than the length of the control and
+	 *            mandatory data must be done before
+	 *            calling this parser.
+	 *
+	 *            The control and mandatory data of the record
+	 *            in the bytes [offset, offset + length) are
+	 *            decoded into the next row of the columns.
+	 *
+	 * @param record
+	 * @param offset
+	 * @param length
+	 * @return false if the batch is full and the record was not added.
+	 */
+	public boolean parse( byte[] record, int offset, int length ) {
+
+		if( iSize == iCapacity ) {
+			return false;
+		}
+
+		final int i = iSize;
+		final int o = offset;
+
+		parseControlData.iMalformedFields = 0;
+		parseMandatoryData.iMalformedFields = 0;
+
+		// --------------
+		//  CONTROL DATA
+		// --------------
+
+		// 1 pos: 1-4
+		totalVariableChars[i] = parseControlData.parseTotalVariableChars(record, o, 4);
+		// 2 pos: 5-10
+		System.arraycopy(record, o + 4, usafMasterStationCatId, i * USAF_ID_WIDTH, USAF_ID_WIDTH);
+		// 3 pos: 11-15
+		System.arraycopy(record, o + 10, nceiWbanId, i * WBAN_ID_WIDTH, WBAN_ID_WIDTH);
+		// 4 pos: 16-23
+		System.arraycopy(record, o + 15, observationDate, i * DATE_WIDTH, DATE_WIDTH);
+		// 5 pos: 24-27
+		System.arraycopy(record, o + 23, observationTime, i * TIME_WIDTH, TIME_WIDTH);
+		// 6 pos: 28-28
+		dataSourceFlag[i] = (byte) parseControlData.parseGeophysicalPointObservation_DataSourceFlag(charAt(record, o + 27));
+		// 7 pos: 29-34
+		latitudeCoord[i] = parseControlData.parseGeophysicalPointObservation_LatitudeCoord(record, o + 28, 6);
+		// 8 pos: 35-41
+		longitudeCoord[i] = parseControlData.parseGeophysicalPointObservation_LongitudeCoord(record, o + 34, 7);
+		// 9 pos: 42-46
+		System.arraycopy(record, o + 41, reportTypeCode, i * REPORT_TYPE_WIDTH, REPORT_TYPE_WIDTH);
+		// 10 pos: 47-51
+		elevationDimention[i] = parseControlData.parseGeophysicalPointObservation_ElevationDimention(record, o + 46, 5);
+		// 11 pos: 52-56
+		System.arraycopy(record, o + 51, callLetterId, i * CALL_LETTER_WIDTH, CALL_LETTER_WIDTH);
+		// 12 pos: 57-60
+		System.arraycopy(record, o + 56, qualityControlProcessName, i * QC_PROCESS_WIDTH, QC_PROCESS_WIDTH);
+
+		// ----------------
+		//  MANDATORY DATA
+		// ----------------
+
+		// 13 pos: 61-63
+		directionAngle[i] = parseMandatoryData.parseWindObservation_DirectionAngle(record, o + 60, 3);
+		// 14 pos: 64-64
+		directionQualityCode[i] = (byte) parseMandatoryData.parseWindObservation_DirectionQualityCode(charAt(record, o + 63));
+		// 15 pos: 65-65
+		windObservationTypeCode[i] = (byte) parseMandatoryData.parseWindObservation_TypeCode(charAt(record, o + 64));
+		// 16 pos: 66-69
+		windSpeedRate[i] = parseMandatoryData.parseWindObservation_SpeedRate(record, o + 65, 4);
+		// 17 pos: 70-70
+		windSpeedQualityCode[i] = (byte) parseMandatoryData.parseWindObservation_SpeedQualityCode(charAt(record, o + 69));
+		// 18 pos: 71-75
+		skyCeilingHeightDimention[i] = parseMandatoryData.parseSkyConditionObservation_CeilingHeightDimention(record, o + 70, 5);
+		// 19 pos: 76-76
+		skyCeilingQualityCode[i] = (byte) parseMandatoryData.parseSkyConditionObservation_CeilingQualityCode(charAt(record, o + 75));
+		// 20 pos: 77-77
+		skyCeilingDeterminationCode[i] = (byte) parseMandatoryData.parseSkyConditionObservation_CeilingDeterminationCode(charAt(record, o + 76));
+		// 21 pos: 78-78
+		cavokCode[i] = (byte) parseMandatoryData.parseSkyConditionObservation_CavokCode(charAt(record, o + 77));
+		// 22 pos: 79-84
+		visibilityDistanceDimension[i] = parseMandatoryData.parseVisibilityObservation_DistanceDimension(record, o + 78, 6);
+		// 23 pos: 85-85
+		visibilityDistanceQualityCode[i] = (byte) parseMandatoryData.parseVisibilityObservation_DistanceQualityCode(charAt(record, o + 84));
+		// 24 pos: 86-86
+		visibilityVariabilityCode[i] = (byte) parseMandatoryData.parseVisibilityObservation_VariabilityCode(charAt(record, o + 85));
+		// 25 pos: 87-87
+		visibilityQualityVariablityCode[i] = (byte) parseMandatoryData.parseVisibilityObservation_QualityVariablityCode(charAt(record, o + 86));
+		// 26 pos: 88-92
+		airTemperature[i] = parseMandatoryData.parseAirTemperatureObservation_AirTemperature(record, o + 87, 5);
+		// 27 pos: 93-93
+		airTemperatureQualityCode[i] = (byte) parseMandatoryData.parseAirTemperatureObservation_AirTemperatureQualityCode(charAt(record, o + 92));
+		// 28 pos: 94-98
+		dewPointTemperature[i] = parseMandatoryData.parseAirTemperatureObservation_DewPointTemperature(record, o + 93, 5);
+		// 29 pos: 99-99
+		dewPointQualityCode[i] = (byte) parseMandatoryData.parseAirTemperatureObservation_DewPointQualityCode(charAt(record, o + 98));
+		// 30 pos: 100-104
+		seaLevelPressure[i] = parseMandatoryData.parseAtmosphericPressueObservation_SeaLevelPressure(record, o + 99, 5);
+		// 31 pos: 105-105
+		seaLevelPressureQualityCode[i] = (byte) parseMandatoryData.parseAtmosphericPressueObservation_SeaLevelPressureQualityCode(charAt(record, o + 104));
+
+		malformedFields[i] = parseControlData.iMalformedFields | parseMandatoryData.iMalformedFields;
+		epochMinutes[i] = EpochMinutes.decode(record, o + 15);
+
+		iSize++;
+		return true;
+	}
+	// ^^ parse(byte[], int, int)
+
+
+	/**
+	 *   Parses the newline ('\n' or "\r\n") separated records in the bytes
+	 * [offset, offset + length) until either all the complete lines are
+	 * parsed or the batch is full. Lines shorter than the control and
+	 * mandatory data (105 characters) are skipped.
+	 *
+	 *   A trailing line without '\n' is parsed only if it is at the end
+	 * of the data, i.e. if last is true.
+	 *
+	 * @param data
+	 * @param offset
+	 * @param length
+	 * @param last true if there are no more bytes after the given ones.
+	 * @return the number of bytes consumed; the rest must be passed again
+	 *         to the next (cleared) batch.
+	 */
+	public int parseLines( byte[] data, int offset, int length, boolean last ) {
+
+		final int iEnd = offset + length;
+		int iLineStart = offset;
+
+		while( iLineStart < iEnd && iSize < iCapacity ) {
+
+			int iLineEnd = iLineStart;
+			while( iLineEnd < iEnd && data[iLineEnd] != '\n' ) {
+				iLineEnd++;
+			}
+			if( iLineEnd == iEnd && !last ) {
+				// the line is not complete yet.
+				break;
+			}
+
+			final int iNext = iLineEnd < iEnd ? iLineEnd + 1 : iEnd;
+			if( iLineEnd > iLineStart && data[iLineEnd - 1] == '\r' ) {
+				iLineEnd--;
+			}
+			if( iLineEnd - iLineStart >= iMaxRecordLength ) {
+				parse(data, iLineStart, iLineEnd - iLineStart);
+			}
+			iLineStart = iNext;
+		}
+
+		return iLineStart - offset;
+	}
+	// ^^ parseLines(byte[], int, int, boolean)
+
+
+	private static char charAt( byte[] record, int offset ) {
+		return AsciiFieldDecoding_ParserSimple.toChar(record, offset);
+	}
+	// ^^ charAt(byte[], int)
+
+
+	private static String text( byte[] column, int row, int width ) {
+		return new String(column, row * width, width, StandardCharsets.US_ASCII);
+	}
+	// ^^ text(byte[], int, int)
+
+
+	/*
+	 * =======================
+	 *
+	 *   COLUMN GETTERS
+	 *
+	 *   The arrays are the batch's own columns, not copies.
+	 *   The String fields can also be read per record.
+	 *
+	 * -----------------------
+	 */
+
+	// 1
+	public int[] getTotalVariableChars() {
+		return totalVariableChars;
+	}
+
+	// 2
+	public byte[] getFixedWeatherStation_USAFMasterStationCatId() {
+		return usafMasterStationCatId;
+	}
+
+	public String getFixedWeatherStation_USAFMasterStationCatId(int row) {
+		return text(usafMasterStationCatId, row, USAF_ID_WIDTH);
+	}
+
+	// 3
+	public byte[] getFixedWeatherStation_NCEIWbanId() {
+		return nceiWbanId;
+	}
+
+	public String getFixedWeatherStation_NCEIWbanId(int row) {
+		return text(nceiWbanId, row, WBAN_ID_WIDTH);
+	}
+
+	// 4
+	public byte[] getGeophysicalPointObservation_Date() {
+		return observationDate;
+	}
+
+	public String getGeophysicalPointObservation_Date(int row) {
+		return text(observationDate, row, DATE_WIDTH);
+	}
+
+	// 5
+	public byte[] getGeophysicalPointObservation_Time() {
+		return observationTime;
+	}
+
+	public String getGeophysicalPointObservation_Time(int row) {
+		return text(observationTime, row, TIME_WIDTH);
+	}
+
+	// 6
+	public byte[] getGeophysicalPointObservation_DataSourceFlag() {
+		return dataSourceFlag;
+	}
+
+	// 7
+	public int[] getGeophysicalPointObservation_LatitudeCoord() {
+		return latitudeCoord;
+	}
+
+	// 8
+	public int[] getGeophysicalPointObservation_LongitudeCoord() {
+		return longitudeCoord;
+	}
+
+	// 9
+	public byte[] getGeophysicalReportType_Code() {
+		return reportTypeCode;
+	}
+
+	public String getGeophysicalReportType_Code(int row) {
+		return text(reportTypeCode, row, REPORT_TYPE_WIDTH);
+	}
+
+	// 10
+	public int[] getGeophysicalPointObservation_ElevationDimention() {
+		return elevationDimention;
+	}
+
+	// 11
+	public byte[] getFixedWeatherStation_CallLetterId() {
+		return callLetterId;
+	}
+
+	public String getFixedWeatherStation_CallLetterId(int row) {
+		return text(callLetterId, row, CALL_LETTER_WIDTH);
+	}
+
+	// 12
+	public byte[] getMeteorogicalPointObservation_QualityControlProcessName() {
+		return qualityControlProcessName;
+	}
+
+	public String getMeteorogicalPointObservation_QualityControlProcessName(int row) {
+		return text(qualityControlProcessName, row, QC_PROCESS_WIDTH);
+	}
+
+	// 13
+	public int[] getWindObservation_DirectionAngle() {
+		return directionAngle;
+	}
+
+	// 14
+	public byte[] getWindObservation_DirectionQualityCode() {
+		return directionQualityCode;
+	}
+
+	// 15
+	public byte[] getWindObservation_TypeCode() {
+		return windObservationTypeCode;
+	}
+
+	// 16
+	public int[] getWindObservation_SpeedRate() {
+		return windSpeedRate;
+	}
+
+	// 17
+	public byte[] getWindObservation_SpeedQualityCode() {
+		return windSpeedQualityCode;
+	}
+
+	// 18
+	public int[] getSkyConditionObservation_CeilingHeightDimention() {
+		return skyCeilingHeightDimention;
+	}
+
+	// 19
+	public byte[] getSkyConditionObservation_CeilingQualityCode() {
+		return skyCeilingQualityCode;
+	}
+
+	// 20
+	public byte[] getSkyConditionObservation_CeilingDeterminationCode() {
+		return skyCeilingDeterminationCode;
+	}
+
+	// 21
+	public byte[] getSkyConditionObservation_CavokCode() {
+		return cavokCode;
+	}
+
+	// 22
+	public int[] getVisibilityObservation_DistanceDimension() {
+		return visibilityDistanceDimension;
+	}
+
+	// 23
+	public byte[] getVisibilityObservation_DistanceQualityCode() {
+		return visibilityDistanceQualityCode;
+	}
+
+	// 24
+	public byte[] getVisibilityObservation_VariabilityCode() {
+		return visibilityVariabilityCode;
+	}
+
+	// 25
+	public byte[] getVisibilityObservation_QualityVariablityCode() {
+		return visibilityQualityVariablityCode;
+	}
+
+	// 26
+	public int[] getAirTemperatureObservation_AirTemperature() {
+		return airTemperature;
+	}
+
+	// 27
+	public byte[] getAirTemperatureObservation_AirTemperatureQualityCode() {
+		return airTemperatureQualityCode;
+	}
+
+	// 28
+	public int[] getAirTemperatureObservation_DewPointTemperature() {
+		return dewPointTemperature;
+	}
+
+	// 29
+	public byte[] getAirTemperatureObservation_DewPointQualityCode() {
+		return dewPointQualityCode;
+	}
+
+	// 30
+	public int[] getAtmosphericPressueObservation_SeaLevelPressure() {
+		return seaLevelPressure;
+	}
+
+	// 31
+	public byte[] getAtmosphericPressueObservation_SeaLevelPressureQualityCode() {
+		return seaLevelPressureQualityCode;
+	}
+
+	/**
+	 * @return for every record, the NCDCField.mask() bits of its fields that
+	 *         were malformed, see NCDCParserSimple.getMalformedFields().
+	 */
+	public int[] getMalformedFields() {
+		return malformedFields;
+	}
+
+	/**
+	 * @param row
+	 * @return the StationKey of the identifiers of the row, packed from
+	 *         the bytes.
+	 */
+	public long getStationKey( int row ) {
+		return StationKey.pack(usafMasterStationCatId, row * USAF_ID_WIDTH, nceiWbanId, row * WBAN_ID_WIDTH);
+	}
+
+	/**
+	 * @return for every record, its date and time as minutes since the
+	 *         epoch, see EpochMinutes.
+	 */
+	public int[] getEpochMinutes() {
+		return epochMinutes;
+	}
+
+
+	/**
+	 *   A time-range scan of the batch.
+	 *
+	 * @param from the first minute, see EpochMinutes.of().
+	 * @param to the last minute, inclusive.
+	 * @param rows receives the rows of the records in [from, to], in order;
+	 *        at least size() long.
+	 * @return the number of rows.
+	 */
+	public int selectTimeRange( int from, int to, int[] rows ) {
+
+		int n = 0;
+		for( int i = 0; i < iSize; i++ ) {
+			final int minutes = epochMinutes[i];
+			if( minutes >= from && minutes <= to && minutes != EpochMinutes.MISSING ) {
+				rows[n++] = i;
+			}
+		}
+		return n;
+	}
+	// ^^ selectTimeRange(int, int, int[])
+
+
+	/*
+	 * ===========
+	 *  Delegates
+	 * -----------
+	 */
+	private final ControlDataSectionParsing_ParserSimple   parseControlData   =
+			new ControlDataSectionParsing_ParserSimple();
+	private final MandatoryDataSectionParsing_ParserSimple parseMandatoryData =
+			new MandatoryDataSectionParsing_ParserSimple();
+
+}
+// ^^ class ObservationBatch
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
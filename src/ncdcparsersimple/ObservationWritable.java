@@ -0,0 +1,448 @@
+package ncdcparsersimple;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+/**
+ *
+ *   A compact binary Writable of the control and mandatory data of a
+ * parsed ISD record, so parsed records can be shuffled between map and
+ * reduce without turning them back into text.
+ *
+ *   The record is kept as one fixed-length array of RECORD_LENGTH (92)
+ * bytes, which is also its serialized form:
+ *     - the String fields as their ASCII characters, space padded,
+ *     - the char fields as one byte,
+ *     - the int fields of at most four characters (the total variable
+ *       characters, the wind direction and speed) as a big-endian
+ *       short, the others as a big-endian int. The five character
+ *       fields (e.g. the temperatures) need an int: "99999" is a
+ *       well-formed value of them.
+ *   The station identifiers, the date and the time come first, so the
+ * first KEY_LENGTH (23) bytes order the records by (USAF identifier,
+ * WBAN identifier, date, time). The registered Comparator compares just
+ * these bytes of two serialized records; the sort phase never
+ * deserializes them. equals() and hashCode() use the same bytes, so
+ * records of the same station and time are equal keys.
+ *
+ *   The getters have the same names as those of NCDCParserSimple and
+ * decode the bytes on every call. The additional data is not stored;
+ * the malformed-field mask of the record (see getMalformedFields()) is
+ * kept as a big-endian int after the mandatory data.
+ *
+ * @author BusyBee
+ *
+ */
+public class ObservationWritable implements WritableComparable<ObservationWritable> {
+
+	public static final int KEY_LENGTH = 23;
+	public static final int RECORD_LENGTH = 92;
+
+	/*
+	 * Offsets of the fields in the record.
+	 */
+	private static final int USAF_ID                     =  0; // 2  ASCII[6]
+	private static final int WBAN_ID                     =  6; // 3  ASCII[5]
+	private static final int DATE                        = 11; // 4  ASCII[8]
+	private static final int TIME                        = 19; // 5  ASCII[4]
+	private static final int TOTAL_VARIABLE_CHARS        = 23; // 1  short
+	private static final int DATA_SOURCE_FLAG            = 25; // 6  char
+	private static final int LATITUDE                    = 26; // 7  int
+	private static final int LONGITUDE                   = 30; // 8  int
+	private static final int REPORT_TYPE                 = 34; // 9  ASCII[5]
+	private static final int ELEVATION                   = 39; // 10 int
+	private static final int CALL_LETTER                 = 43; // 11 ASCII[5]
+	private static final int QC_PROCESS                  = 48; // 12 ASCII[4]
+	private static final int WIND_DIRECTION              = 52; // 13 short
+	private static final int WIND_DIRECTION_QC           = 54; // 14 char
+	private static final int WIND_TYPE                   = 55; // 15 char
+	private static final int WIND_SPEED                  = 56; // 16 short
+	private static final int WIND_SPEED_QC               = 58; // 17 char
+	private static final int CEILING_HEIGHT              = 59; // 18 int
+	private static final int CEILING_QC                  = 63; // 19 char
+	private static final int CEILING_DETERMINATION       = 64; // 20 char
+	private static final int CAVOK                       = 65; // 21 char
+	private static final int VISIBILITY                  = 66; // 22 int
+	private static final int VISIBILITY_QC               = 70; // 23 char
+	private static final int VISIBILITY_VARIABILITY      = 71; // 24 char
+	private static final int VISIBILITY_VARIABILITY_QC   = 72; // 25 char
+	private static final int AIR_TEMPERATURE             = 73; // 26 int
+	private static final int AIR_TEMPERATURE_QC          = 77; // 27 char
+	private static final int DEW_POINT                   = 78; // 28 int
+	private static final int DEW_POINT_QC                = 82; // 29 char
+	private static final int SEA_LEVEL_PRESSURE          = 83; // 30 int
+	private static final int SEA_LEVEL_PRESSURE_QC       = 87; // 31 char
+	private static final int MALFORMED_FIELDS            = 88; // int
+
+	private final byte[] data = new byte[RECORD_LENGTH];
+
+
+	static {
+		WritableComparator.define(ObservationWritable.class, new Comparator());
+	}
+
+
+	public ObservationWritable() {
+	}
+
+	public ObservationWritable( NCDCParserSimple parser ) {
+		set(parser);
+	}
+
+
+	/**
+	 *   Copies the control and mandatory data last parsed by the parser.
+	 *
+	 * @param parser
+	 */
+	public void set( NCDCParserSimple parser ) {
+
+		putString(USAF_ID, ObservationBatch.USAF_ID_WIDTH, parser.getFixedWeatherStation_USAFMasterStationCatId());
+		putString(WBAN_ID, ObservationBatch.WBAN_ID_WIDTH, parser.getFixedWeatherStation_NCEIWbanId());
+		putString(DATE, ObservationBatch.DATE_WIDTH, parser.getGeophysicalPointObservation_Date());
+		putString(TIME, ObservationBatch.TIME_WIDTH, parser.getGeophysicalPointObservation_Time());
+		putShort(TOTAL_VARIABLE_CHARS, parser.getTotalVariableChars());
+		data[DATA_SOURCE_FLAG] = (byte) parser.getGeophysicalPointObservation_DataSourceFlag();
+		putInt(LATITUDE, parser.getGeophysicalPointObservation_LatitudeCoord());
+		putInt(LONGITUDE, parser.getGeophysicalPointObservation_LongitudeCoord());
+		putString(REPORT_TYPE, ObservationBatch.REPORT_TYPE_WIDTH, parser.getGeophysicalReportType_Code());
+		putInt(ELEVATION, parser.getGeophysicalPointObservation_ElevationDimention());
+		putString(CALL_LETTER, ObservationBatch.CALL_LETTER_WIDTH, parser.getFixedWeatherStation_CallLetterId());
+		putString(QC_PROCESS, ObservationBatch.QC_PROCESS_WIDTH, parser.getMeteorogicalPointObservation_QualityControlProcessName());
+		putShort(WIND_DIRECTION, parser.getWindObservation_DirectionAngle());
+		data[WIND_DIRECTION_QC] = (byte) parser.getWindObservation_DirectionQualityCode();
+		data[WIND_TYPE] = (byte) parser.getWindObservation_TypeCode();
+		putShort(WIND_SPEED, parser.getWindObservation_SpeedRate());
+		data[WIND_SPEED_QC] = (byte) parser.getWindObservation_SpeedQualityCode();
+		putInt(CEILING_HEIGHT, parser.getSkyConditionObservation_CeilingHeightDimention());
+		data[CEILING_QC] = (byte) parser.getSkyConditionObservation_CeilingQualityCode();
+		data[CEILING_DETERMINATION] = (byte) parser.getSkyConditionObservation_CeilingDeterminationCode();
+		data[CAVOK] = (byte) parser.getSkyConditionObservation_CavokCode();
+		putInt(VISIBILITY, parser.getVisibilityObservation_DistanceDimension());
+		data[VISIBILITY_QC] = (byte) parser.getVisibilityObservation_DistanceQualityCode();
+		data[VISIBILITY_VARIABILITY] = (byte) parser.getVisibilityObservation_VariabilityCode();
+		data[VISIBILITY_VARIABILITY_QC] = (byte) parser.getVisibilityObservation_QualityVariablityCode();
+		putInt(AIR_TEMPERATURE, parser.getAirTemperatureObservation_AirTemperature());
+		data[AIR_TEMPERATURE_QC] = (byte) parser.getAirTemperatureObservation_AirTemperatureQualityCode();
+		putInt(DEW_POINT, parser.getAirTemperatureObservation_DewPointTemperature());
+		data[DEW_POINT_QC] = (byte) parser.getAirTemperatureObservation_DewPointQualityCode();
+		putInt(SEA_LEVEL_PRESSURE, parser.getAtmosphericPressueObservation_SeaLevelPressure());
+		data[SEA_LEVEL_PRESSURE_QC] = (byte) parser.getAtmosphericPressueObservation_SeaLevelPressureQualityCode();
+		putInt(MALFORMED_FIELDS, parser.getMalformedFields());
+	}
+	// ^^ set(NCDCParserSimple)
+
+
+	@Override
+	public void write( DataOutput out ) throws IOException {
+		out.write(data);
+	}
+
+
+	@Override
+	public void readFields( DataInput in ) throws IOException {
+		in.readFully(data);
+	}
+
+
+	@Override
+	public int compareTo( ObservationWritable other ) {
+		return WritableComparator.compareBytes(data, 0, KEY_LENGTH, other.data, 0, KEY_LENGTH);
+	}
+
+
+	@Override
+	public boolean equals( Object other ) {
+
+		if( !(other instanceof ObservationWritable) ) {
+			return false;
+		}
+		return compareTo((ObservationWritable) other) == 0;
+	}
+
+
+	@Override
+	public int hashCode() {
+		return WritableComparator.hashBytes(data, KEY_LENGTH);
+	}
+
+
+	/*
+	 * =======================
+	 *   GETTERS
+	 * -----------------------
+	 */
+
+	// 1
+	public int getTotalVariableChars() {
+		return getShort(TOTAL_VARIABLE_CHARS);
+	}
+
+	// 2
+	public String getFixedWeatherStation_USAFMasterStationCatId() {
+		return new String(data, USAF_ID, ObservationBatch.USAF_ID_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 3
+	public String getFixedWeatherStation_NCEIWbanId() {
+		return new String(data, WBAN_ID, ObservationBatch.WBAN_ID_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 4
+	public String getGeophysicalPointObservation_Date() {
+		return new String(data, DATE, ObservationBatch.DATE_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 5
+	public String getGeophysicalPointObservation_Time() {
+		return new String(data, TIME, ObservationBatch.TIME_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 6
+	public char getGeophysicalPointObservation_DataSourceFlag() {
+		return (char) (data[DATA_SOURCE_FLAG] & 0xFF);
+	}
+
+	// 7
+	public int getGeophysicalPointObservation_LatitudeCoord() {
+		return getInt(LATITUDE);
+	}
+
+	// 8
+	public int getGeophysicalPointObservation_LongitudeCoord() {
+		return getInt(LONGITUDE);
+	}
+
+	// 9
+	public String getGeophysicalReportType_Code() {
+		return new String(data, REPORT_TYPE, ObservationBatch.REPORT_TYPE_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 10
+	public int getGeophysicalPointObservation_ElevationDimention() {
+		return getInt(ELEVATION);
+	}
+
+	// 11
+	public String getFixedWeatherStation_CallLetterId() {
+		return new String(data, CALL_LETTER, ObservationBatch.CALL_LETTER_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 12
+	public String getMeteorogicalPointObservation_QualityControlProcessName() {
+		return new String(data, QC_PROCESS, ObservationBatch.QC_PROCESS_WIDTH, StandardCharsets.US_ASCII);
+	}
+
+	// 13
+	public int getWindObservation_DirectionAngle() {
+		return getShort(WIND_DIRECTION);
+	}
+
+	// 14
+	public char getWindObservation_DirectionQualityCode() {
+		return (char) (data[WIND_DIRECTION_QC] & 0xFF);
+	}
+
+	// 15
+	public char getWindObservation_TypeCode() {
+		return (char) (data[WIND_TYPE] & 0xFF);
+	}
+
+	// 16
+	public int getWindObservation_SpeedRate() {
+		return getShort(WIND_SPEED);
+	}
+
+	// 17
+	public char getWindObservation_SpeedQualityCode() {
+		return (char) (data[WIND_SPEED_QC] & 0xFF);
+	}
+
+	// 18
+	public int getSkyConditionObservation_CeilingHeightDimention() {
+		return getInt(CEILING_HEIGHT);
+	}
+
+	// 19
+	public char getSkyConditionObservation_CeilingQualityCode() {
+		return (char) (data[CEILING_QC] & 0xFF);
+	}
+
+	// 20
+	public char getSkyConditionObservation_CeilingDeterminationCode() {
+		return (char) (data[CEILING_DETERMINATION] & 0xFF);
+	}
+
+	// 21
+	public char getSkyConditionObservation_CavokCode() {
+		return (char) (data[CAVOK] & 0xFF);
+	}
+
+	// 22
+	public int getVisibilityObservation_DistanceDimension() {
+		return getInt(VISIBILITY);
+	}
+
+	// 23
+	public char getVisibilityObservation_DistanceQualityCode() {
+		return (char) (data[VISIBILITY_QC] & 0xFF);
+	}
+
+	// 24
+	public char getVisibilityObservation_VariabilityCode() {
+		return (char) (data[VISIBILITY_VARIABILITY] & 0xFF);
+	}
+
+	// 25
+	public char getVisibilityObservation_QualityVariablityCode() {
+		return (char) (data[VISIBILITY_VARIABILITY_QC] & 0xFF);
+	}
+
+	// 26
+	public int getAirTemperatureObservation_AirTemperature() {
+		return getInt(AIR_TEMPERATURE);
+	}
+
+	// 27
+	public char getAirTemperatureObservation_AirTemperatureQualityCode() {
+		return (char) (data[AIR_TEMPERATURE_QC] & 0xFF);
+	}
+
+	// 28
+	public int getAirTemperatureObservation_DewPointTemperature() {
+		return getInt(DEW_POINT);
+	}
+
+	// 29
+	public char getAirTemperatureObservation_DewPointQualityCode() {
+		return (char) (data[DEW_POINT_QC] & 0xFF);
+	}
+
+	// 30
+	public int getAtmosphericPressueObservation_SeaLevelPressure() {
+		return getInt(SEA_LEVEL_PRESSURE);
+	}
+
+	// 31
+	public char getAtmosphericPressueObservation_SeaLevelPressureQualityCode() {
+		return (char) (data[SEA_LEVEL_PRESSURE_QC] & 0xFF);
+	}
+
+	/**
+	 * @return the NCDCField.mask() bits of the fields that were malformed
+	 *         when the record was parsed.
+	 */
+	public int getMalformedFields() {
+		return getInt(MALFORMED_FIELDS);
+	}
+
+	public boolean isMalformed( NCDCField field ) {
+		return (getInt(MALFORMED_FIELDS) & field.mask()) != 0;
+	}
+
+	/**
+	 * @return the StationKey of the identifiers, packed from the bytes.
+	 */
+	public long getStationKey() {
+		return StationKey.pack(data, USAF_ID);
+	}
+
+	/**
+	 * @return the year of the date, decoded from the bytes, or -1 if it
+	 *         is not a number.
+	 */
+	public int getYear() {
+
+		int year = 0;
+		for( int i = DATE; i < DATE + 4; i++ ) {
+			final int digit = data[i] - '0';
+			if( digit < 0 || digit > 9 ) {
+				return -1;
+			}
+			year = year * 10 + digit;
+		}
+		return year;
+	}
+
+	/**
+	 * @return the date and time as minutes since the epoch, decoded from
+	 *         the bytes, or EpochMinutes.MISSING.
+	 */
+	public int getEpochMinutes() {
+		return EpochMinutes.decode(data, DATE);
+	}
+
+
+	/*
+	 * -----------------------
+	 *   Encoding
+	 * -----------------------
+	 */
+
+	private void putString( int offset, int width, String value ) {
+
+		final int iLength = value == null ? 0 : Math.min(width, value.length());
+		for( int i = 0; i < iLength; i++ ) {
+			data[offset + i] = (byte) value.charAt(i);
+		}
+		for( int i = iLength; i < width; i++ ) {
+			data[offset + i] = ' ';
+		}
+	}
+
+
+	private void putShort( int offset, int value ) {
+		data[offset]     = (byte) (value >> 8);
+		data[offset + 1] = (byte) value;
+	}
+
+
+	private void putInt( int offset, int value ) {
+		data[offset]     = (byte) (value >> 24);
+		data[offset + 1] = (byte) (value >> 16);
+		data[offset + 2] = (byte) (value >> 8);
+		data[offset + 3] = (byte) value;
+	}
+
+
+	private int getShort( int offset ) {
+		return (short) ((data[offset] << 8) | (data[offset + 1] & 0xFF));
+	}
+
+
+	private int getInt( int offset ) {
+		return WritableComparator.readInt(data, offset);
+	}
+
+
+	/**
+	 *   Orders serialized ObservationWritables by (USAF identifier, WBAN
+	 * identifier, date, time) without deserializing them.
+	 */
+	public static class Comparator extends WritableComparator {
+
+		public Comparator() {
+			super(ObservationWritable.class);
+		}
+
+		@Override
+		public int compare( byte[] b1, int s1, int l1, byte[] b2, int s2, int l2 ) {
+			return compareBytes(b1, s1, KEY_LENGTH, b2, s2, KEY_LENGTH);
+		}
+	}
+	// ^^ class Comparator
+
+}
+// ^^ class ObservationWritable
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
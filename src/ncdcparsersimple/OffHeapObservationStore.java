@@ -0,0 +1,610 @@
+package ncdcparsersimple;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ *
+ *   A column store of the control and mandatory data of parsed ISD
+ * records that lives outside the Java heap, so holding a year of
+ * observations does not make the garbage collector's job any bigger.
+ *
+ *   The columns have the same layout as the columns of ObservationBatch
+ * (int fields as 4 bytes, flags and quality codes as 1 byte, String
+ * fields as fixed-width ASCII bytes). Every column is a list of direct
+ * ByteBuffer chunks of the same number of rows, and a new chunk is
+ * allocated when the last one is full, so the store grows without
+ * copying and is not limited to 2 GB per column.
+ *
+ *   Records are appended either from a NCDCParserSimple or, much
+ * cheaper, a whole ObservationBatch at once. Rows are read by the
+ * typed getters named after the getters of NCDCParserSimple.
+ *
+ *   The store must be closed when it is not needed anymore: close()
+ * releases the off-heap memory at once (where the JVM allows it, else
+ * as soon as the chunks are collected) and any later access fails with
+ * an IllegalStateException. A store is not thread-safe.
+ *
+ * @author BusyBee
+ *
+ */
+public class OffHeapObservationStore implements Closeable {
+
+	public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+
+	private static final int INT_WIDTH  = 4;
+	private static final int CODE_WIDTH = 1;
+
+	public static final int MAX_CHUNK_ROWS = Integer.MAX_VALUE / INT_WIDTH;
+
+	/*
+	 * Column widths in bytes, indexed by the field's number (1-31).
+	 */
+	private static final int[] COLUMN_WIDTH = {
+			0,
+			// control data
+			INT_WIDTH,                              // 1
+			ObservationBatch.USAF_ID_WIDTH,         // 2
+			ObservationBatch.WBAN_ID_WIDTH,         // 3
+			ObservationBatch.DATE_WIDTH,            // 4
+			ObservationBatch.TIME_WIDTH,            // 5
+			CODE_WIDTH,                             // 6
+			INT_WIDTH,                              // 7
+			INT_WIDTH,                              // 8
+			ObservationBatch.REPORT_TYPE_WIDTH,     // 9
+			INT_WIDTH,                              // 10
+			ObservationBatch.CALL_LETTER_WIDTH,     // 11
+			ObservationBatch.QC_PROCESS_WIDTH,      // 12
+			// mandatory data
+			INT_WIDTH,                              // 13
+			CODE_WIDTH,                             // 14
+			CODE_WIDTH,                             // 15
+			INT_WIDTH,                              // 16
+			CODE_WIDTH,                             // 17
+			INT_WIDTH,                              // 18
+			CODE_WIDTH,                             // 19
+			CODE_WIDTH,                             // 20
+			CODE_WIDTH,                             // 21
+			INT_WIDTH,                              // 22
+			CODE_WIDTH,                             // 23
+			CODE_WIDTH,                             // 24
+			CODE_WIDTH,                             // 25
+			INT_WIDTH,                              // 26
+			CODE_WIDTH,                             // 27
+			INT_WIDTH,                              // 28
+			CODE_WIDTH,                             // 29
+			INT_WIDTH,                              // 30
+			CODE_WIDTH                              // 31
+	};
+
+	private static final int FIELD_COUNT = COLUMN_WIDTH.length - 1;
+
+	private final int iChunkRows;
+
+	// chunks[field][chunk]
+	private ByteBuffer[][] chunks;
+	private int iChunkCount;
+	private long lSize;
+	private boolean bClosed;
+
+
+	public OffHeapObservationStore() {
+		this(DEFAULT_CHUNK_ROWS);
+	}
+
+	/**
+	 * @param chunkRows the number of rows allocated at once per column, at
+	 *        most MAX_CHUNK_ROWS, so a chunk of the widest column fits a
+	 *        ByteBuffer.
+	 */
+	public OffHeapObservationStore( int chunkRows ) {
+
+		if( chunkRows <= 0 || chunkRows > MAX_CHUNK_ROWS ) {
+			throw new IllegalArgumentException("chunkRows must be in 1-" + MAX_CHUNK_ROWS + ": " + chunkRows);
+		}
+		this.iChunkRows = chunkRows;
+		this.chunks = new ByteBuffer[FIELD_COUNT + 1][8];
+	}
+	// ^^ OffHeapObservationStore(int)
+
+
+	public long size() {
+		return lSize;
+	}
+
+	/**
+	 * @return the number of off-heap bytes allocated by the store.
+	 */
+	public long allocatedBytes() {
+		long bytes = 0;
+		for( int field = 1; field <= FIELD_COUNT; field++ ) {
+			bytes += (long) COLUMN_WIDTH[field] * iChunkRows * iChunkCount;
+		}
+		return bytes;
+	}
+
+	public boolean isClosed() {
+		return bClosed;
+	}
+
+
+	/*
+	 * ==========
+	 *
+	 *   Append
+	 *
+	 * ----------
+	 */
+
+	/**
+	 * Appends the control and mandatory data last parsed by the parser.
+	 *
+	 * @param parser
+	 * @return the row of the appended record.
+	 */
+	public long append( NCDCParserSimple parser ) {
+
+		final long row = nextRow();
+
+		putInt(1, row, parser.getTotalVariableChars());
+		putText(2, row, parser.getFixedWeatherStation_USAFMasterStationCatId());
+		putText(3, row, parser.getFixedWeatherStation_NCEIWbanId());
+		putText(4, row, parser.getGeophysicalPointObservation_Date());
+		putText(5, row, parser.getGeophysicalPointObservation_Time());
+		putCode(6, row, parser.getGeophysicalPointObservation_DataSourceFlag());
+		putInt(7, row, parser.getGeophysicalPointObservation_LatitudeCoord());
+		putInt(8, row, parser.getGeophysicalPointObservation_LongitudeCoord());
+		putText(9, row, parser.getGeophysicalReportType_Code());
+		putInt(10, row, parser.getGeophysicalPointObservation_ElevationDimention());
+		putText(11, row, parser.getFixedWeatherStation_CallLetterId());
+		putText(12, row, parser.getMeteorogicalPointObservation_QualityControlProcessName());
+
+		putInt(13, row, parser.getWindObservation_DirectionAngle());
+		putCode(14, row, parser.getWindObservation_DirectionQualityCode());
+		putCode(15, row, parser.getWindObservation_TypeCode());
+		putInt(16, row, parser.getWindObservation_SpeedRate());
+		putCode(17, row, parser.getWindObservation_SpeedQualityCode());
+		putInt(18, row, parser.getSkyConditionObservation_CeilingHeightDimention());
+		putCode(19, row, parser.getSkyConditionObservation_CeilingQualityCode());
+		putCode(20, row, parser.getSkyConditionObservation_CeilingDeterminationCode());
+		putCode(21, row, parser.getSkyConditionObservation_CavokCode());
+		putInt(22, row, parser.getVisibilityObservation_DistanceDimension());
+		putCode(23, row, parser.getVisibilityObservation_DistanceQualityCode());
+		putCode(24, row, parser.getVisibilityObservation_VariabilityCode());
+		putCode(25, row, parser.getVisibilityObservation_QualityVariablityCode());
+		putInt(26, row, parser.getAirTemperatureObservation_AirTemperature());
+		putCode(27, row, parser.getAirTemperatureObservation_AirTemperatureQualityCode());
+		putInt(28, row, parser.getAirTemperatureObservation_DewPointTemperature());
+		putCode(29, row, parser.getAirTemperatureObservation_DewPointQualityCode());
+		putInt(30, row, parser.getAtmosphericPressueObservation_SeaLevelPressure());
+		putCode(31, row, parser.getAtmosphericPressueObservation_SeaLevelPressureQualityCode());
+
+		lSize++;
+		return row;
+	}
+	// ^^ append(NCDCParserSimple)
+
+
+	/**
+	 *   Appends all the records of the batch, column by column. The batch
+	 * can be cleared and reused afterwards.
+	 *
+	 * @param batch
+	 * @return the row of the first appended record.
+	 */
+	public long append( ObservationBatch batch ) {
+
+		checkOpen();
+		final long firstRow = lSize;
+		final int n = batch.size();
+
+		int done = 0;
+		while( done < n ) {
+
+			final long row = firstRow + done;
+			final int iInChunk = (int) (row % iChunkRows);
+			final int count = Math.min(n - done, iChunkRows - iInChunk);
+			ensureChunk((int) (row / iChunkRows));
+
+			putInts(1, row, batch.getTotalVariableChars(), done, count);
+			putBytes(2, row, batch.getFixedWeatherStation_USAFMasterStationCatId(), done, count);
+			putBytes(3, row, batch.getFixedWeatherStation_NCEIWbanId(), done, count);
+			putBytes(4, row, batch.getGeophysicalPointObservation_Date(), done, count);
+			putBytes(5, row, batch.getGeophysicalPointObservation_Time(), done, count);
+			putBytes(6, row, batch.getGeophysicalPointObservation_DataSourceFlag(), done, count);
+			putInts(7, row, batch.getGeophysicalPointObservation_LatitudeCoord(), done, count);
+			putInts(8, row, batch.getGeophysicalPointObservation_LongitudeCoord(), done, count);
+			putBytes(9, row, batch.getGeophysicalReportType_Code(), done, count);
+			putInts(10, row, batch.getGeophysicalPointObservation_ElevationDimention(), done, count);
+			putBytes(11, row, batch.getFixedWeatherStation_CallLetterId(), done, count);
+			putBytes(12, row, batch.getMeteorogicalPointObservation_QualityControlProcessName(), done, count);
+
+			putInts(13, row, batch.getWindObservation_DirectionAngle(), done, count);
+			putBytes(14, row, batch.getWindObservation_DirectionQualityCode(), done, count);
+			putBytes(15, row, batch.getWindObservation_TypeCode(), done, count);
+			putInts(16, row, batch.getWindObservation_SpeedRate(), done, count);
+			putBytes(17, row, batch.getWindObservation_SpeedQualityCode(), done, count);
+			putInts(18, row, batch.getSkyConditionObservation_CeilingHeightDimention(), done, count);
+			putBytes(19, row, batch.getSkyConditionObservation_CeilingQualityCode(), done, count);
+			putBytes(20, row, batch.getSkyConditionObservation_CeilingDeterminationCode(), done, count);
+			putBytes(21, row, batch.getSkyConditionObservation_CavokCode(), done, count);
+			putInts(22, row, batch.getVisibilityObservation_DistanceDimension(), done, count);
+			putBytes(23, row, batch.getVisibilityObservation_DistanceQualityCode(), done, count);
+			putBytes(24, row, batch.getVisibilityObservation_VariabilityCode(), done, count);
+			putBytes(25, row, batch.getVisibilityObservation_QualityVariablityCode(), done, count);
+			putInts(26, row, batch.getAirTemperatureObservation_AirTemperature(), done, count);
+			putBytes(27, row, batch.getAirTemperatureObservation_AirTemperatureQualityCode(), done, count);
+			putInts(28, row, batch.getAirTemperatureObservation_DewPointTemperature(), done, count);
+			putBytes(29, row, batch.getAirTemperatureObservation_DewPointQualityCode(), done, count);
+			putInts(30, row, batch.getAtmosphericPressueObservation_SeaLevelPressure(), done, count);
+			putBytes(31, row, batch.getAtmosphericPressueObservation_SeaLevelPressureQualityCode(), done, count);
+
+			done += count;
+		}
+
+		lSize += n;
+		return firstRow;
+	}
+	// ^^ append(ObservationBatch)
+
+
+	/*
+	 * =======================
+	 *
+	 *   ROW GETTERS
+	 *
+	 * -----------------------
+	 */
+
+	// 1
+	public int getTotalVariableChars(long row) {
+		return getInt(1, row);
+	}
+
+	// 2
+	public String getFixedWeatherStation_USAFMasterStationCatId(long row) {
+		return getText(2, row);
+	}
+
+	// 3
+	public String getFixedWeatherStation_NCEIWbanId(long row) {
+		return getText(3, row);
+	}
+
+	// 4
+	public String getGeophysicalPointObservation_Date(long row) {
+		return getText(4, row);
+	}
+
+	// 5
+	public String getGeophysicalPointObservation_Time(long row) {
+		return getText(5, row);
+	}
+
+	// 6
+	public char getGeophysicalPointObservation_DataSourceFlag(long row) {
+		return getCode(6, row);
+	}
+
+	// 7
+	public int getGeophysicalPointObservation_LatitudeCoord(long row) {
+		return getInt(7, row);
+	}
+
+	// 8
+	public int getGeophysicalPointObservation_LongitudeCoord(long row) {
+		return getInt(8, row);
+	}
+
+	// 9
+	public String getGeophysicalReportType_Code(long row) {
+		return getText(9, row);
+	}
+
+	// 10
+	public int getGeophysicalPointObservation_ElevationDimention(long row) {
+		return getInt(10, row);
+	}
+
+	// 11
+	public String getFixedWeatherStation_CallLetterId(long row) {
+		return getText(11, row);
+	}
+
+	// 12
+	public String getMeteorogicalPointObservation_QualityControlProcessName(long row) {
+		return getText(12, row);
+	}
+
+	// 13
+	public int getWindObservation_DirectionAngle(long row) {
+		return getInt(13, row);
+	}
+
+	// 14
+	public char getWindObservation_DirectionQualityCode(long row) {
+		return getCode(14, row);
+	}
+
+	// 15
+	public char getWindObservation_TypeCode(long row) {
+		return getCode(15, row);
+	}
+
+	// 16
+	public int getWindObservation_SpeedRate(long row) {
+		return getInt(16, row);
+	}
+
+	// 17
+	public char getWindObservation_SpeedQualityCode(long row) {
+		return getCode(17, row);
+	}
+
+	// 18
+	public int getSkyConditionObservation_CeilingHeightDimention(long row) {
+		return getInt(18, row);
+	}
+
+	// 19
+	public char getSkyConditionObservation_CeilingQualityCode(long row) {
+		return getCode(19, row);
+	}
+
+	// 20
+	public char getSkyConditionObservation_CeilingDeterminationCode(long row) {
+		return getCode(20, row);
+	}
+
+	// 21
+	public char getSkyConditionObservation_CavokCode(long row) {
+		return getCode(21, row);
+	}
+
+	// 22
+	public int getVisibilityObservation_DistanceDimension(long row) {
+		return getInt(22, row);
+	}
+
+	// 23
+	public char getVisibilityObservation_DistanceQualityCode(long row) {
+		return getCode(23, row);
+	}
+
+	// 24
+	public char getVisibilityObservation_VariabilityCode(long row) {
+		return getCode(24, row);
+	}
+
+	// 25
+	public char getVisibilityObservation_QualityVariablityCode(long row) {
+		return getCode(25, row);
+	}
+
+	// 26
+	public int getAirTemperatureObservation_AirTemperature(long row) {
+		return getInt(26, row);
+	}
+
+	// 27
+	public char getAirTemperatureObservation_AirTemperatureQualityCode(long row) {
+		return getCode(27, row);
+	}
+
+	// 28
+	public int getAirTemperatureObservation_DewPointTemperature(long row) {
+		return getInt(28, row);
+	}
+
+	// 29
+	public char getAirTemperatureObservation_DewPointQualityCode(long row) {
+		return getCode(29, row);
+	}
+
+	// 30
+	public int getAtmosphericPressueObservation_SeaLevelPressure(long row) {
+		return getInt(30, row);
+	}
+
+	// 31
+	public char getAtmosphericPressueObservation_SeaLevelPressureQualityCode(long row) {
+		return getCode(31, row);
+	}
+
+
+	/*
+	 * ===========
+	 *  Lifecycle
+	 * -----------
+	 */
+
+	/**
+	 *   Releases the off-heap memory of the store. The store cannot be
+	 * used afterwards. Closing a closed store does nothing.
+	 */
+	@Override
+	public void close() {
+
+		if( bClosed ) {
+			return;
+		}
+		bClosed = true;
+
+		for( int field = 1; field <= FIELD_COUNT; field++ ) {
+			for( int chunk = 0; chunk < iChunkCount; chunk++ ) {
+				freeDirectBuffer(chunks[field][chunk]);
+				chunks[field][chunk] = null;
+			}
+		}
+		chunks = null;
+		iChunkCount = 0;
+		lSize = 0;
+	}
+	// ^^ close()
+
+
+	/*
+	 * ===========
+	 *  Internals
+	 * -----------
+	 */
+
+	private void checkOpen() {
+		if( bClosed ) {
+			throw new IllegalStateException("The store is closed");
+		}
+	}
+
+	private long nextRow() {
+		checkOpen();
+		final long row = lSize;
+		ensureChunk((int) (row / iChunkRows));
+		return row;
+	}
+
+	private void ensureChunk( int chunk ) {
+
+		while( iChunkCount <= chunk ) {
+
+			if( iChunkCount == chunks[1].length ) {
+				for( int field = 1; field <= FIELD_COUNT; field++ ) {
+					chunks[field] = Arrays.copyOf(chunks[field], iChunkCount * 2);
+				}
+			}
+			for( int field = 1; field <= FIELD_COUNT; field++ ) {
+				chunks[field][iChunkCount] = ByteBuffer
+						.allocateDirect(COLUMN_WIDTH[field] * iChunkRows)
+						.order(ByteOrder.nativeOrder());
+			}
+			iChunkCount++;
+		}
+	}
+	// ^^ ensureChunk(int)
+
+	private ByteBuffer chunkOf( int field, long row ) {
+		return chunks[field][(int) (row / iChunkRows)];
+	}
+
+	private int positionOf( int field, long row ) {
+		return (int) (row % iChunkRows) * COLUMN_WIDTH[field];
+	}
+
+	private void putInt( int field, long row, int value ) {
+		chunkOf(field, row).putInt(positionOf(field, row), value);
+	}
+
+	private void putCode( int field, long row, char value ) {
+		chunkOf(field, row).put(positionOf(field, row), (byte) value);
+	}
+
+	private void putText( int field, long row, String value ) {
+
+		final ByteBuffer chunk = chunkOf(field, row);
+		final int position = positionOf(field, row);
+		final int width = COLUMN_WIDTH[field];
+		final int length = value == null ? 0 : Math.min(value.length(), width);
+
+		for( int i = 0; i < length; i++ ) {
+			chunk.put(position + i, (byte) value.charAt(i));
+		}
+		// a shorter (or null) value is padded with spaces.
+		for( int i = length; i < width; i++ ) {
+			chunk.put(position + i, (byte) ' ');
+		}
+	}
+	// ^^ putText(int, long, String)
+
+	private void putInts( int field, long row, int[] column, int from, int count ) {
+		final ByteBuffer chunk = chunkOf(field, row).duplicate().order(ByteOrder.nativeOrder());
+		chunk.position(positionOf(field, row));
+		chunk.asIntBuffer().put(column, from, count);
+	}
+
+	private void putBytes( int field, long row, byte[] column, int from, int count ) {
+		final int width = COLUMN_WIDTH[field];
+		final ByteBuffer chunk = chunkOf(field, row).duplicate();
+		chunk.position(positionOf(field, row));
+		chunk.put(column, from * width, count * width);
+	}
+
+	private int getInt( int field, long row ) {
+		checkRow(row);
+		return chunkOf(field, row).getInt(positionOf(field, row));
+	}
+
+	private char getCode( int field, long row ) {
+		checkRow(row);
+		return (char) (chunkOf(field, row).get(positionOf(field, row)) & 0xFF);
+	}
+
+	private String getText( int field, long row ) {
+
+		checkRow(row);
+		final ByteBuffer chunk = chunkOf(field, row);
+		final int position = positionOf(field, row);
+		final char[] text = new char[COLUMN_WIDTH[field]];
+		for( int i = 0; i < text.length; i++ ) {
+			text[i] = (char) (chunk.get(position + i) & 0xFF);
+		}
+		return new String(text);
+	}
+	// ^^ getText(int, long)
+
+	private void checkRow( long row ) {
+		checkOpen();
+		if( row < 0 || row >= lSize ) {
+			throw new IndexOutOfBoundsException("row " + row + ", size " + lSize);
+		}
+	}
+
+
+	/*
+	 *   Frees a direct buffer at once through sun.misc.Unsafe.invokeCleaner()
+	 * (Java 9+). If that is not available, the buffer is freed when it is
+	 * garbage collected.
+	 */
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Java 8 or a restricted JVM: leave it to the garbage collector.
+			unsafe = null;
+			invokeCleaner = null;
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private static void freeDirectBuffer( ByteBuffer buffer ) {
+		if( buffer == null || UNSAFE == null ) {
+			return;
+		}
+		try {
+			INVOKE_CLEANER.invoke(UNSAFE, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// the buffer is freed when it is garbage collected.
+		}
+	}
+	// ^^ freeDirectBuffer(ByteBuffer)
+
+}
+// ^^ class OffHeapObservationStore
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,229 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ *
+ *   Parses one (large) ISD file on all the cores of a ForkJoinPool.
+ *
+ *   The file is split into byte ranges; every range is read by its own
+ * ISDFileReader, which realigns the range to the next record boundary,
+ * and is parsed into its own ObservationBatch. NCDCParserSimple and
+ * ObservationBatch are mutable, so no parsing state is ever shared
+ * between two tasks.
+ *
+ *   The caller chooses how the results are merged:
+ *     - parseOrdered() returns the batches in the order of the records
+ *       in the file,
+ *     - parseUnordered() hands every full batch to a sink as soon as it
+ *       is parsed, from whichever worker parsed it. The batch is reused
+ *       after the sink returns, so the sink must be thread-safe and must
+ *       not keep the batch.
+ *
+ * @author BusyBee
+ *
+ */
+public class ParallelISDFileParser {
+
+	public static final int DEFAULT_BATCH_SIZE = 4096;
+	public static final long DEFAULT_MIN_RANGE_SIZE = 8L << 20;
+
+	private final ForkJoinPool pool;
+	private final int iBatchSize;
+	private final long lMinRangeSize;
+
+
+	public ParallelISDFileParser() {
+		this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE, DEFAULT_MIN_RANGE_SIZE);
+	}
+
+	/**
+	 * @param pool
+	 * @param batchSize the number of records per batch.
+	 * @param minRangeSize ranges smaller than this are not split any further.
+	 */
+	public ParallelISDFileParser( ForkJoinPool pool, int batchSize, long minRangeSize ) {
+
+		if( batchSize <= 0 || minRangeSize <= 0 ) {
+			throw new IllegalArgumentException("batchSize and minRangeSize must be positive");
+		}
+		this.pool = pool;
+		this.iBatchSize = batchSize;
+		this.lMinRangeSize = minRangeSize;
+	}
+	// ^^ ParallelISDFileParser(ForkJoinPool, int, long)
+
+
+	/**
+	 *   Parses the file and returns its records in file order. Only the last
+	 * batch of every range may be partly filled.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public List<ObservationBatch> parseOrdered( Path file ) throws IOException {
+
+		final long size = Files.size(file);
+		try {
+			return pool.invoke(new OrderedRangeTask(file, 0, size));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	// ^^ parseOrdered(Path)
+
+
+	/**
+	 *   Parses the file and hands every batch to the sink, in no particular
+	 * order and possibly from several threads at once.
+	 *
+	 * @param file
+	 * @param sink
+	 * @return the number of records parsed.
+	 * @throws IOException
+	 */
+	public long parseUnordered( Path file, Consumer<ObservationBatch> sink ) throws IOException {
+
+		final long size = Files.size(file);
+		try {
+			return pool.invoke(new UnorderedRangeTask(file, 0, size, sink));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	// ^^ parseUnordered(Path, Consumer<ObservationBatch>)
+
+
+	/*
+	 *   Parses the records starting in [start, end) and returns their
+	 * batches in file order.
+	 */
+	private final class OrderedRangeTask extends RecursiveTask<List<ObservationBatch>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path file;
+		private final long lStart;
+		private final long lEnd;
+
+		OrderedRangeTask( Path file, long start, long end ) {
+			this.file = file;
+			this.lStart = start;
+			this.lEnd = end;
+		}
+
+		@Override
+		protected List<ObservationBatch> compute() {
+
+			if( lEnd - lStart > lMinRangeSize ) {
+
+				final long middle = lStart + (lEnd - lStart) / 2;
+				final OrderedRangeTask left = new OrderedRangeTask(file, lStart, middle);
+				final OrderedRangeTask right = new OrderedRangeTask(file, middle, lEnd);
+				right.fork();
+				final List<ObservationBatch> result = left.compute();
+				result.addAll(right.join());
+				return result;
+			}
+
+			final List<ObservationBatch> batches = new ArrayList<>();
+			try( ISDFileReader reader = new ISDFileReader(file, lStart, lEnd, ISDFileReader.DEFAULT_WINDOW_SIZE) ) {
+
+				ObservationBatch batch = new ObservationBatch(iBatchSize);
+				while( reader.next(batch) > 0 ) {
+					if( batch.isFull() ) {
+						batches.add(batch);
+						batch = new ObservationBatch(iBatchSize);
+					}
+				}
+				if( batch.size() > 0 ) {
+					batches.add(batch);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return batches;
+		}
+		// ^^ compute()
+
+	}
+	// ^^ class OrderedRangeTask
+
+
+	/*
+	 *   Parses the records starting in [start, end) into one reused batch,
+	 * hands it to the sink whenever it is full and returns the number of
+	 * records parsed.
+	 */
+	private final class UnorderedRangeTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path file;
+		private final long lStart;
+		private final long lEnd;
+		private final Consumer<ObservationBatch> sink;
+
+		UnorderedRangeTask( Path file, long start, long end, Consumer<ObservationBatch> sink ) {
+			this.file = file;
+			this.lStart = start;
+			this.lEnd = end;
+			this.sink = sink;
+		}
+
+		@Override
+		protected Long compute() {
+
+			if( lEnd - lStart > lMinRangeSize ) {
+
+				final long middle = lStart + (lEnd - lStart) / 2;
+				final UnorderedRangeTask left = new UnorderedRangeTask(file, lStart, middle, sink);
+				final UnorderedRangeTask right = new UnorderedRangeTask(file, middle, lEnd, sink);
+				right.fork();
+				final long records = left.compute();
+				return records + right.join();
+			}
+
+			long records = 0;
+			try( ISDFileReader reader = new ISDFileReader(file, lStart, lEnd, ISDFileReader.DEFAULT_WINDOW_SIZE) ) {
+
+				final ObservationBatch batch = new ObservationBatch(iBatchSize);
+				while( reader.next(batch) > 0 ) {
+					if( batch.isFull() ) {
+						records += batch.size();
+						sink.accept(batch);
+						batch.clear();
+					}
+				}
+				if( batch.size() > 0 ) {
+					records += batch.size();
+					sink.accept(batch);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return records;
+		}
+		// ^^ compute()
+
+	}
+	// ^^ class UnorderedRangeTask
+
+}
+// ^^ class ParallelISDFileParser
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
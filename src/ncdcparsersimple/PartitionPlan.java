@@ -0,0 +1,195 @@
+package ncdcparsersimple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ *   Which reducer gets which station-year, planned from the estimated
+ * records of every station-year (see StationLoadSampler), and how even
+ * the reducers are expected to be.
+ *
+ *   The heaviest station-years (up to a maximum number) are assigned
+ * explicitly, the others are left to hash partitioning. The expected load
+ * of every reducer starts with the hashed station-years it gets; then
+ * the assigned station-years are given, heaviest first, to the reducer
+ * with the lowest load so far (longest processing time first). A single
+ * station-year is never split, so a reducer gets at least the load of
+ * the heaviest one. Station-years the partitioner cannot assign (see
+ * StationYearPartitioner) are always hashed.
+ *
+ *   report() is a reducer-skew report comparing the plan with plain hash
+ * partitioning of the same station-years.
+ *
+ * @author BusyBee
+ *
+ */
+public class PartitionPlan {
+
+	public static final int DEFAULT_MAX_ASSIGNED = 20000;
+
+	private final int iReducers;
+	private final Map<String, Integer> assignment;
+	private final Map<String, Long> loads;
+	private final long[] expectedLoads;
+	private final long[] hashLoads;
+
+
+	private PartitionPlan( int reducers, Map<String, Integer> assignment, Map<String, Long> loads,
+			long[] expectedLoads, long[] hashLoads ) {
+
+		this.iReducers = reducers;
+		this.assignment = Collections.unmodifiableMap(assignment);
+		this.loads = loads;
+		this.expectedLoads = expectedLoads;
+		this.hashLoads = hashLoads;
+	}
+
+
+	/**
+	 * @param loads the estimated records per station-year.
+	 * @param reducers
+	 * @return
+	 */
+	public static PartitionPlan build( Map<String, Long> loads, int reducers ) {
+		return build(loads, reducers, DEFAULT_MAX_ASSIGNED);
+	}
+
+	/**
+	 * @param loads the estimated records per station-year.
+	 * @param reducers
+	 * @param maxAssigned the maximum number of station-years assigned explicitly;
+	 *        every one of them is stored in the job configuration.
+	 * @return
+	 */
+	public static PartitionPlan build( Map<String, Long> loads, int reducers, int maxAssigned ) {
+
+		if( reducers <= 0 || maxAssigned < 0 ) {
+			throw new IllegalArgumentException("reducers must be positive and maxAssigned not negative");
+		}
+
+		final List<Map.Entry<String, Long>> units = new ArrayList<>(loads.entrySet());
+		units.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+
+		final long[] expected = new long[reducers];
+		final long[] hashed = new long[reducers];
+		for( int i = 0; i < units.size(); i++ ) {
+			final Map.Entry<String, Long> unit = units.get(i);
+			final int iHash = StationYearPartitioner.hashPartition(unit.getKey(), reducers);
+			hashed[iHash] += unit.getValue();
+			if( i >= maxAssigned || !StationYearPartitioner.isAssignable(unit.getKey()) ) {
+				expected[iHash] += unit.getValue();
+			}
+		}
+
+		final Map<String, Integer> assignment = new HashMap<>();
+		for( int i = 0; i < Math.min(maxAssigned, units.size()); i++ ) {
+			if( !StationYearPartitioner.isAssignable(units.get(i).getKey()) ) {
+				continue;
+			}
+			int iLightest = 0;
+			for( int r = 1; r < reducers; r++ ) {
+				if( expected[r] < expected[iLightest] ) {
+					iLightest = r;
+				}
+			}
+			assignment.put(units.get(i).getKey(), iLightest);
+			expected[iLightest] += units.get(i).getValue();
+		}
+
+		return new PartitionPlan(reducers, assignment, new HashMap<>(loads), expected, hashed);
+	}
+	// ^^ build(Map<String, Long>, int, int)
+
+
+	public int getReducers() {
+		return iReducers;
+	}
+
+	/**
+	 * @return the reducer of every explicitly assigned station-year.
+	 */
+	public Map<String, Integer> getAssignment() {
+		return assignment;
+	}
+
+	/**
+	 * @return the expected records of every reducer.
+	 */
+	public long[] getExpectedLoads() {
+		return expectedLoads.clone();
+	}
+
+	/**
+	 * @return the expected records of the largest reducer divided by the mean.
+	 */
+	public double getSkew() {
+		return skew(expectedLoads);
+	}
+
+	/**
+	 * @return the skew plain hash partitioning would have.
+	 */
+	public double getHashSkew() {
+		return skew(hashLoads);
+	}
+
+
+	private static double skew( long[] reducerLoads ) {
+
+		long max = 0;
+		long total = 0;
+		for( long load : reducerLoads ) {
+			max = Math.max(max, load);
+			total += load;
+		}
+		return total == 0 ? 1.0 : (double) max * reducerLoads.length / total;
+	}
+
+
+	/**
+	 * @param heaviest the number of heaviest station-years listed.
+	 * @return a reducer-skew report.
+	 */
+	public String report( int heaviest ) {
+
+		long total = 0;
+		for( long load : expectedLoads ) {
+			total += load;
+		}
+		final double mean = (double) total / iReducers;
+
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("reducers: %d, station-years: %d (%d assigned), estimated records: %d%n",
+				iReducers, loads.size(), assignment.size(), total));
+		sb.append(String.format("skew (max/mean): planned %.3f, hash %.3f%n", getSkew(), getHashSkew()));
+		for( int r = 0; r < iReducers; r++ ) {
+			sb.append(String.format("  reducer %d: %d records (%.3f of mean), hash %d%n",
+					r, expectedLoads[r], mean == 0 ? 0.0 : expectedLoads[r] / mean, hashLoads[r]));
+		}
+
+		final List<Map.Entry<String, Long>> units = new ArrayList<>(loads.entrySet());
+		units.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+		sb.append(String.format("heaviest station-years:%n"));
+		for( int i = 0; i < Math.min(heaviest, units.size()); i++ ) {
+			final Map.Entry<String, Long> unit = units.get(i);
+			final Integer reducer = assignment.get(unit.getKey());
+			sb.append(String.format("  %s: %d records -> reducer %s%n", unit.getKey(), unit.getValue(),
+					reducer == null ? "hash " + StationYearPartitioner.hashPartition(unit.getKey(), iReducers) : reducer));
+		}
+		return sb.toString();
+	}
+	// ^^ report(int)
+
+}
+// ^^ class PartitionPlan
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
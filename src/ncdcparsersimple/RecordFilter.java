@@ -0,0 +1,174 @@
+package ncdcparsersimple;
+
+/**
+ *
+ *   A predicate evaluated on the raw bytes of an ISD record before any
+ * field of it is decoded, so a rejected record costs a few byte
+ * compares instead of a parse():
+ *
+ *     RecordFilter filter = RecordFilter.equalTo(NCDCField.REPORT_TYPE_CODE, "FM-15")
+ *             .and(RecordFilter.range(NCDCField.OBSERVATION_DATE, "20120101", "20121231"))
+ *             .and(RecordFilter.codeIn(NCDCField.AIR_TEMPERATURE_QUALITY_CODE, "01459"));
+ *     reader.setFilter(filter);
+ *
+ *   The factories compare the bytes at the fixed position of a field
+ * (see NCDCField). range() compares the characters as they are, which
+ * orders the zero padded fields (identifiers, date and time) but not
+ * the signed numbers; intRange() decodes the one field it tests, and
+ * timeRange() the date and time, as EpochMinutes.
+ *
+ *   Like the parser, a filter expects a record of at least 105 bytes.
+ * The filters made here keep no state and can be shared between threads.
+ *
+ * @author BusyBee
+ *
+ */
+@FunctionalInterface
+public interface RecordFilter {
+
+	/**
+	 * @param record
+	 * @param offset the start of the record.
+	 * @param length the length of the record.
+	 * @return true if the record is to be parsed.
+	 */
+	boolean accept( byte[] record, int offset, int length );
+
+
+	/**
+	 * Accepts every record.
+	 */
+	RecordFilter ALL = (record, offset, length) -> true;
+
+
+	default RecordFilter and( RecordFilter other ) {
+		return (record, offset, length) -> accept(record, offset, length) && other.accept(record, offset, length);
+	}
+
+	default RecordFilter or( RecordFilter other ) {
+		return (record, offset, length) -> accept(record, offset, length) || other.accept(record, offset, length);
+	}
+
+	default RecordFilter negate() {
+		return (record, offset, length) -> !accept(record, offset, length);
+	}
+
+
+	/**
+	 * @param field a field of fixed width.
+	 * @param value as many characters as the field is wide, or fewer to
+	 *        compare the beginning of the field only (e.g. "2012" for a date).
+	 * @return a filter of the records whose field is the value.
+	 */
+	static RecordFilter equalTo( NCDCField field, String value ) {
+
+		final byte[] expected = RecordFilterSupport.fieldValue(field, value);
+		final int iFieldOffset = field.offset();
+		return (record, offset, length) -> {
+			final int o = offset + iFieldOffset;
+			for( int i = 0; i < expected.length; i++ ) {
+				if( record[o + i] != expected[i] ) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+	// ^^ equalTo(NCDCField, String)
+
+
+	/**
+	 *   A filter of the records whose field is in [from, to], comparing
+	 * the characters. The bounds may be shorter than the field: then only
+	 * the beginning of the field is compared, e.g. range(OBSERVATION_DATE,
+	 * "2010", "2012") accepts the years 2010 to 2012.
+	 *
+	 * @param field a zero padded field of fixed width.
+	 * @param from
+	 * @param to
+	 * @return
+	 */
+	static RecordFilter range( NCDCField field, String from, String to ) {
+
+		final byte[] low = RecordFilterSupport.fieldValue(field, from);
+		final byte[] high = RecordFilterSupport.fieldValue(field, to);
+		if( low.length != high.length ) {
+			throw new IllegalArgumentException("The bounds must be as long as each other: " + from + ", " + to);
+		}
+		final int iFieldOffset = field.offset();
+		return (record, offset, length) -> {
+			final int o = offset + iFieldOffset;
+			return RecordFilterSupport.compare(record, o, low) >= 0 && RecordFilterSupport.compare(record, o, high) <= 0;
+		};
+	}
+	// ^^ range(NCDCField, String, String)
+
+
+	/**
+	 * @param field a field one character wide, e.g. a quality code.
+	 * @param codes the accepted characters, e.g. "01459".
+	 * @return a filter of the records whose field is one of the codes.
+	 */
+	static RecordFilter codeIn( NCDCField field, String codes ) {
+
+		if( field.width() != 1 ) {
+			throw new IllegalArgumentException(field + " is not a one character field");
+		}
+		final boolean[] accepted = new boolean[256];
+		for( int i = 0; i < codes.length(); i++ ) {
+			accepted[codes.charAt(i) & 0xFF] = true;
+		}
+		final int iFieldOffset = field.offset();
+		return (record, offset, length) -> accepted[record[offset + iFieldOffset] & 0xFF];
+	}
+	// ^^ codeIn(NCDCField, String)
+
+
+	/**
+	 * @param field a numeric field, e.g. AIR_TEMPERATURE.
+	 * @param min
+	 * @param max
+	 * @return a filter of the records whose field decodes to [min, max];
+	 *         a malformed field is rejected.
+	 */
+	static RecordFilter intRange( NCDCField field, int min, int max ) {
+
+		if( field.width() == 0 ) {
+			throw new IllegalArgumentException(field + " is not a field of fixed width");
+		}
+		final int iFieldOffset = field.offset();
+		final int iWidth = field.width();
+		return (record, offset, length) -> {
+			final int value = AsciiFieldDecoding_ParserSimple.decodeInt(record, offset + iFieldOffset, iWidth);
+			return value != AsciiFieldDecoding_ParserSimple.MALFORMED && value >= min && value <= max;
+		};
+	}
+	// ^^ intRange(NCDCField, int, int)
+
+
+	/**
+	 * @param from the first minute, see EpochMinutes.of().
+	 * @param to the last minute, inclusive.
+	 * @return a filter of the records whose date and time are in
+	 *         [from, to]; a malformed date or time is rejected.
+	 */
+	static RecordFilter timeRange( int from, int to ) {
+
+		final int iDateOffset = NCDCField.OBSERVATION_DATE.offset();
+		return (record, offset, length) -> {
+			final int minutes = EpochMinutes.decode(record, offset + iDateOffset);
+			return minutes != EpochMinutes.MISSING && minutes >= from && minutes <= to;
+		};
+	}
+	// ^^ timeRange(int, int)
+
+
+}
+// ^^ interface RecordFilter
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,64 @@
+package ncdcparsersimple;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ *
+ *   The byte handling the RecordFilter factories share. It lives here
+ * rather than in RecordFilter, whose static methods would all be public.
+ *
+ * @author BusyBee
+ *
+ */
+final class RecordFilterSupport {
+
+	private RecordFilterSupport() {
+	}
+
+
+	/**
+	 * @param field
+	 * @param value
+	 * @return the bytes of a value of the field, checked against its width.
+	 */
+	static byte[] fieldValue( NCDCField field, String value ) {
+
+		if( field.width() == 0 ) {
+			throw new IllegalArgumentException(field + " is not a field of fixed width");
+		}
+		if( value.isEmpty() || value.length() > field.width() ) {
+			throw new IllegalArgumentException("\"" + value + "\" does not fit " + field + " (" + field.width() + " characters)");
+		}
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+
+
+	/**
+	 *   Compares the bytes at offset with the value, as unsigned bytes.
+	 *
+	 * @param record
+	 * @param offset
+	 * @param value
+	 * @return less than, equal to or greater than 0.
+	 */
+	static int compare( byte[] record, int offset, byte[] value ) {
+
+		for( int i = 0; i < value.length; i++ ) {
+			final int diff = (record[offset + i] & 0xFF) - (value[i] & 0xFF);
+			if( diff != 0 ) {
+				return diff;
+			}
+		}
+		return 0;
+	}
+
+}
+// ^^ class RecordFilterSupport
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
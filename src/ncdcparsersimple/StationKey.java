@@ -0,0 +1,181 @@
+package ncdcparsersimple;
+
+/**
+ *
+ *   Packs the identity of a station, its USAF (6 characters) and WBAN
+ * (5 characters) identifiers, into one long, so grouping records by
+ * station hashes and compares a long instead of two Strings.
+ *
+ *   Every one of the 11 characters is a base-37 digit: ' ' is 0, '0'-'9'
+ * are 1-10 and 'A'-'Z' are 11-36, which covers the numeric identifiers
+ * as well as the ones with letters (e.g. the USAF identifiers of the
+ * A0xxxx series). 37^11 is less than 2^58, so every key is positive, and
+ * since the digits are in ASCII order, the keys sort like the
+ * identifiers (USAF first, then WBAN). The packing is reversible:
+ * usaf(), wban() and toString() decode a key.
+ *
+ *   An identifier with any other character (e.g. malformed data) has no
+ * key; pack() returns INVALID for it.
+ *
+ * @author BusyBee
+ *
+ */
+public final class StationKey {
+
+	public static final long INVALID = -1L;
+
+	public static final int USAF_WIDTH = 6;
+	public static final int WBAN_WIDTH = 5;
+
+	private static final int RADIX = 37;
+	private static final String DIGITS = " 0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	// the base-37 digit of every ASCII character, -1 if it has none.
+	private static final byte[] VALUES = new byte[128];
+
+	// 37^5, the weight of the last USAF character.
+	private static final long WBAN_RANGE = 37L * 37 * 37 * 37 * 37;
+
+	static {
+		for( int c = 0; c < VALUES.length; c++ ) {
+			VALUES[c] = (byte) DIGITS.indexOf(c);
+		}
+	}
+
+
+	private StationKey() {
+	}
+
+
+	/**
+	 * @param ids the 11 identifier characters, USAF then WBAN, as in an
+	 *        ISD record (positions 5-15).
+	 * @param offset
+	 * @return the key, or INVALID.
+	 */
+	public static long pack( byte[] ids, int offset ) {
+		return pack(ids, offset, ids, offset + USAF_WIDTH);
+	}
+
+
+	/**
+	 * @param usaf
+	 * @param usafOffset
+	 * @param wban
+	 * @param wbanOffset
+	 * @return the key, or INVALID.
+	 */
+	public static long pack( byte[] usaf, int usafOffset, byte[] wban, int wbanOffset ) {
+
+		long key = 0;
+		int bad = 0;
+		for( int i = usafOffset; i < usafOffset + USAF_WIDTH; i++ ) {
+			final int v = VALUES[usaf[i] & 0x7F];
+			bad |= v | usaf[i];
+			key = key * RADIX + v;
+		}
+		for( int i = wbanOffset; i < wbanOffset + WBAN_WIDTH; i++ ) {
+			final int v = VALUES[wban[i] & 0x7F];
+			bad |= v | wban[i];
+			key = key * RADIX + v;
+		}
+		// a non-ASCII byte or a character without digit is negative.
+		return bad < 0 ? INVALID : key;
+	}
+	// ^^ pack(byte[], int, byte[], int)
+
+
+	/**
+	 * @param usaf
+	 * @param wban
+	 * @return the key, or INVALID, also if an identifier is null or does
+	 *         not have its width.
+	 */
+	public static long pack( String usaf, String wban ) {
+
+		if( usaf == null || wban == null || usaf.length() != USAF_WIDTH || wban.length() != WBAN_WIDTH ) {
+			return INVALID;
+		}
+		long key = 0;
+		for( int i = 0; i < USAF_WIDTH; i++ ) {
+			final int v = value(usaf.charAt(i));
+			if( v < 0 ) {
+				return INVALID;
+			}
+			key = key * RADIX + v;
+		}
+		for( int i = 0; i < WBAN_WIDTH; i++ ) {
+			final int v = value(wban.charAt(i));
+			if( v < 0 ) {
+				return INVALID;
+			}
+			key = key * RADIX + v;
+		}
+		return key;
+	}
+	// ^^ pack(String, String)
+
+
+	private static int value( char c ) {
+		return c < VALUES.length ? VALUES[c] : -1;
+	}
+
+
+	public static boolean isValid( long key ) {
+		return key >= 0 && key < WBAN_RANGE * WBAN_RANGE * RADIX;
+	}
+
+
+	/**
+	 * @param key a valid key.
+	 * @return the USAF identifier of the key.
+	 */
+	public static String usaf( long key ) {
+		return decode(key / WBAN_RANGE, USAF_WIDTH);
+	}
+
+
+	/**
+	 * @param key a valid key.
+	 * @return the WBAN identifier of the key.
+	 */
+	public static String wban( long key ) {
+		return decode(key % WBAN_RANGE, WBAN_WIDTH);
+	}
+
+
+	/**
+	 * @param key
+	 * @return "USAF-WBAN", as in the names of the ISD files, or "INVALID".
+	 */
+	public static String toString( long key ) {
+		if( !isValid(key) ) {
+			return "INVALID";
+		}
+		return usaf(key) + "-" + wban(key);
+	}
+
+
+	private static String decode( long digits, int width ) {
+
+		if( digits < 0 ) {
+			throw new IllegalArgumentException("Not a station key");
+		}
+		final char[] c = new char[width];
+		for( int i = width - 1; i >= 0; i-- ) {
+			c[i] = DIGITS.charAt((int) (digits % RADIX));
+			digits /= RADIX;
+		}
+		return new String(c);
+	}
+	// ^^ decode(long, int)
+
+}
+// ^^ class StationKey
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,140 @@
+package ncdcparsersimple;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+
+/**
+ *
+ *   Estimates the number of records of every station-year of the input
+ * of a job with a cheap pre-pass, to plan a StationYearPartitioner.
+ *
+ *   The input is split as NCDCInputFormat splits it. Of every sampled
+ * split only the first records are read; the records of the whole split
+ * are estimated from the fraction of the split they took (the progress
+ * of the record reader), and shared among the station-years seen in
+ * proportion to their sampled records. A split that is read to its end
+ * is counted exactly. If there are more splits than the maximum, evenly
+ * spaced splits are sampled and the station-years of the others are
+ * left to hash partitioning.
+ *
+ *   The progress of a gzipped file advances by whole compressed buffers,
+ * so its estimate tends to be low; sampling more records per split makes
+ * it closer.
+ *
+ * @author BusyBee
+ *
+ */
+public class StationLoadSampler {
+
+	public static final int DEFAULT_MAX_SPLITS = 10000;
+	public static final int DEFAULT_RECORDS_PER_SPLIT = 10000;
+
+	private final int iMaxSplits;
+	private final int iRecordsPerSplit;
+
+
+	public StationLoadSampler() {
+		this(DEFAULT_MAX_SPLITS, DEFAULT_RECORDS_PER_SPLIT);
+	}
+
+	/**
+	 * @param maxSplits the maximum number of splits sampled.
+	 * @param recordsPerSplit the maximum number of records read per split.
+	 */
+	public StationLoadSampler( int maxSplits, int recordsPerSplit ) {
+
+		if( maxSplits <= 0 || recordsPerSplit <= 0 ) {
+			throw new IllegalArgumentException("maxSplits and recordsPerSplit must be positive");
+		}
+		this.iMaxSplits = maxSplits;
+		this.iRecordsPerSplit = recordsPerSplit;
+	}
+	// ^^ StationLoadSampler(int, int)
+
+
+	/**
+	 *   Samples the input of the job.
+	 *
+	 * @param job its input paths are sampled.
+	 * @return the estimated number of records per station-year, keyed by
+	 *         StationYearPartitioner.unitOf().
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public Map<String, Long> sample( JobContext job ) throws IOException, InterruptedException {
+
+		final NCDCInputFormat format = new NCDCInputFormat();
+		final List<InputSplit> splits = format.getSplits(job);
+		final Map<String, Long> loads = new HashMap<>();
+
+		final int iSampled = Math.min(iMaxSplits, splits.size());
+		for( int i = 0; i < iSampled; i++ ) {
+
+			final InputSplit split = splits.get((int) ((long) i * splits.size() / iSampled));
+			final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+			try( RecordReader<LongWritable, NCDCParserSimple> reader = format.createRecordReader(split, context) ) {
+				reader.initialize(split, context);
+				sampleSplit(reader, loads);
+			}
+		}
+		return loads;
+	}
+	// ^^ sample(JobContext)
+
+
+	private void sampleSplit( RecordReader<LongWritable, NCDCParserSimple> reader, Map<String, Long> loads )
+			throws IOException, InterruptedException {
+
+		final Map<String, Integer> counts = new HashMap<>();
+		int records = 0;
+		boolean bEnd = false;
+
+		while( records < iRecordsPerSplit ) {
+			if( !reader.nextKeyValue() ) {
+				bEnd = true;
+				break;
+			}
+			final NCDCParserSimple parser = reader.getCurrentValue();
+			counts.merge(StationYearPartitioner.unitOf(
+					parser.getFixedWeatherStation_USAFMasterStationCatId(),
+					parser.getFixedWeatherStation_NCEIWbanId(),
+					parser.getGeophysicalPointObservation_Date()), 1, Integer::sum);
+			records++;
+		}
+		if( records == 0 ) {
+			return;
+		}
+
+		// the records of the split per sampled record.
+		double scale = 1.0;
+		if( !bEnd ) {
+			final float progress = reader.getProgress();
+			if( progress > 0 ) {
+				scale = 1.0 / progress;
+			}
+		}
+		for( Map.Entry<String, Integer> e : counts.entrySet() ) {
+			loads.merge(e.getKey(), Math.round(e.getValue() * scale), Long::sum);
+		}
+	}
+	// ^^ sampleSplit(RecordReader<LongWritable, NCDCParserSimple>, Map<String, Long>)
+
+}
+// ^^ class StationLoadSampler
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
@@ -0,0 +1,257 @@
+package ncdcparsersimple;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ *
+ *   A map from StationKey keys (or any other long but Long.MIN_VALUE) to
+ * values, for grouping records by station without boxing the keys or
+ * hashing Strings.
+ *
+ *   The map is an open-addressing table: the keys and the values are kept
+ * in two parallel arrays of a power of two slots, and a key that
+ * collides takes the next free slot (linear probing). The slot of a key
+ * is picked by multiplying it with the golden ratio (Fibonacci hashing),
+ * which spreads the consecutive keys of neighbouring stations over the
+ * whole table. The table doubles when it is half full. remove() shifts
+ * the following keys back instead of leaving tombstones, so lookups
+ * never slow down after many removals.
+ *
+ *   A StationMap is not thread-safe.
+ *
+ * @author BusyBee
+ *
+ * @param <V>
+ */
+public class StationMap<V> {
+
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+	private long[] keys;
+	private Object[] values;
+	private int iShift;
+	private int iSize;
+
+
+	public StationMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of keys the map holds without growing.
+	 */
+	public StationMap( int expectedSize ) {
+
+		if( expectedSize < 0 ) {
+			throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+		}
+		int capacity = 2;
+		while( capacity < 2 * expectedSize ) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+
+	private void allocate( int capacity ) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new Object[capacity];
+		iShift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+
+
+	private int slotOf( long key ) {
+		return (int) ((key * GOLDEN_RATIO) >>> iShift);
+	}
+
+
+	/*
+	 *   The slot of the key, or the empty slot where it would go.
+	 */
+	private int find( long key ) {
+
+		if( key == EMPTY ) {
+			throw new IllegalArgumentException("Long.MIN_VALUE cannot be a key");
+		}
+		final int mask = keys.length - 1;
+		int slot = slotOf(key);
+		long k;
+		while( (k = keys[slot]) != key && k != EMPTY ) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+
+	public int size() {
+		return iSize;
+	}
+
+	public boolean isEmpty() {
+		return iSize == 0;
+	}
+
+	public boolean containsKey( long key ) {
+		return keys[find(key)] != EMPTY;
+	}
+
+
+	/**
+	 * @param key
+	 * @return the value of the key, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get( long key ) {
+		return (V) values[find(key)];
+	}
+
+
+	/**
+	 * @param key
+	 * @param value
+	 * @return the previous value of the key, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put( long key, V value ) {
+
+		final int slot = find(key);
+		if( keys[slot] == key ) {
+			final V previous = (V) values[slot];
+			values[slot] = value;
+			return previous;
+		}
+		insert(slot, key, value);
+		return null;
+	}
+	// ^^ put(long, V)
+
+
+	/**
+	 *   The group-by step: returns the value of the key, after creating it
+	 * with the function if the key has none yet.
+	 *
+	 * @param key
+	 * @param function
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public V computeIfAbsent( long key, LongFunction<? extends V> function ) {
+
+		final int slot = find(key);
+		if( keys[slot] == key ) {
+			return (V) values[slot];
+		}
+		final V value = function.apply(key);
+		insert(slot, key, value);
+		return value;
+	}
+	// ^^ computeIfAbsent(long, LongFunction<? extends V>)
+
+
+	private void insert( int slot, long key, V value ) {
+
+		keys[slot] = key;
+		values[slot] = value;
+		if( ++iSize > keys.length >> 1 ) {
+			grow();
+		}
+	}
+
+
+	private void grow() {
+
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		allocate(oldKeys.length << 1);
+
+		final int mask = keys.length - 1;
+		for( int i = 0; i < oldKeys.length; i++ ) {
+			final long key = oldKeys[i];
+			if( key != EMPTY ) {
+				int slot = slotOf(key);
+				while( keys[slot] != EMPTY ) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+	// ^^ grow()
+
+
+	/**
+	 * @param key
+	 * @return the value the key had, or null.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove( long key ) {
+
+		int gap = find(key);
+		if( keys[gap] == EMPTY ) {
+			return null;
+		}
+		final V previous = (V) values[gap];
+		iSize--;
+
+		// shift back the keys that probed past the freed slot.
+		final int mask = keys.length - 1;
+		int slot = (gap + 1) & mask;
+		long k;
+		while( (k = keys[slot]) != EMPTY ) {
+			final int home = slotOf(k);
+			if( ((slot - home) & mask) >= ((slot - gap) & mask) ) {
+				keys[gap] = k;
+				values[gap] = values[slot];
+				gap = slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[gap] = EMPTY;
+		values[gap] = null;
+		return previous;
+	}
+	// ^^ remove(long)
+
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		Arrays.fill(values, null);
+		iSize = 0;
+	}
+
+
+	/**
+	 *   Calls the visitor with every key and its value, in no particular
+	 * order. The map must not be changed meanwhile.
+	 *
+	 * @param visitor
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach( Visitor<? super V> visitor ) {
+		for( int i = 0; i < keys.length; i++ ) {
+			if( keys[i] != EMPTY ) {
+				visitor.visit(keys[i], (V) values[i]);
+			}
+		}
+	}
+
+
+	@FunctionalInterface
+	public interface Visitor<V> {
+		void visit( long key, V value );
+	}
+
+}
+// ^^ class StationMap
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
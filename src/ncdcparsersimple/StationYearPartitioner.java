@@ -0,0 +1,213 @@
+package ncdcparsersimple;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+/**
+ *
+ *   Partitions ObservationWritable keys by station-year (USAF identifier,
+ * WBAN identifier, year), balancing the reducers with a PartitionPlan:
+ *
+ *     Map<String, Long> loads = new StationLoadSampler().sample(job);
+ *     PartitionPlan plan = PartitionPlan.build(loads, reducers);
+ *     System.out.println(plan.report(20));
+ *     StationYearPartitioner.configure(job, plan);
+ *
+ *   All the records of a station-year go to the same reducer. The
+ * station-years of the plan go to their planned reducer, all others to
+ * the hash of the station-year. If the job runs with another number of
+ * reducers than planned, every station-year is hashed.
+ *
+ *   getPartition() runs for every map output record, so it reads the
+ * StationKey and the year straight from the bytes of the key and looks
+ * them up in a StationMap, without building a String. A station-year
+ * whose identifiers have no StationKey or whose year is not a number is
+ * always hashed.
+ *
+ * @author BusyBee
+ *
+ */
+public class StationYearPartitioner<V> extends Partitioner<ObservationWritable, V> implements Configurable {
+
+	public static final String ASSIGNMENT = "ncdcparsersimple.partitioner.assignment";
+	public static final String REDUCERS = "ncdcparsersimple.partitioner.reducers";
+
+	private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+	private Configuration conf;
+	// per station: the first assigned year, then the reducer of every
+	// year from it on, or -1.
+	private final StationMap<int[]> assignment = new StationMap<>();
+	private int iPlannedReducers;
+
+
+	/**
+	 *   Makes the job partition its map output with the plan.
+	 *
+	 * @param job
+	 * @param plan
+	 */
+	public static void configure( Job job, PartitionPlan plan ) {
+
+		final StringBuilder sb = new StringBuilder();
+		for( Map.Entry<String, Integer> e : plan.getAssignment().entrySet() ) {
+			if( sb.length() > 0 ) {
+				sb.append(',');
+			}
+			sb.append(e.getKey()).append('=').append(e.getValue());
+		}
+		job.getConfiguration().set(ASSIGNMENT, sb.toString());
+		job.getConfiguration().setInt(REDUCERS, plan.getReducers());
+		job.setNumReduceTasks(plan.getReducers());
+		job.setPartitionerClass(StationYearPartitioner.class);
+	}
+	// ^^ configure(Job, PartitionPlan)
+
+
+	/**
+	 * @param usaf
+	 * @param wban
+	 * @param date yyyyMMdd
+	 * @return the station-year of a record, e.g. "007026-99999-2012".
+	 */
+	public static String unitOf( String usaf, String wban, String date ) {
+		return usaf + '-' + wban + '-' + date.substring(0, Math.min(4, date.length()));
+	}
+
+
+	/**
+	 * @param unit a station-year as returned by unitOf().
+	 * @return the StationKey of the station-year, or StationKey.INVALID.
+	 */
+	static long stationOf( String unit ) {
+
+		if( unit.length() != 17 || unit.charAt(6) != '-' || unit.charAt(12) != '-' ) {
+			return StationKey.INVALID;
+		}
+		return StationKey.pack(unit.substring(0, 6), unit.substring(7, 12));
+	}
+
+
+	/**
+	 * @param unit a station-year as returned by unitOf().
+	 * @return the year of the station-year, or -1 if it is not a number.
+	 */
+	static int yearOf( String unit ) {
+
+		if( unit.length() != 17 ) {
+			return -1;
+		}
+		int year = 0;
+		for( int i = 13; i < 17; i++ ) {
+			final int digit = unit.charAt(i) - '0';
+			if( digit < 0 || digit > 9 ) {
+				return -1;
+			}
+			year = year * 10 + digit;
+		}
+		return year;
+	}
+	// ^^ yearOf(String)
+
+
+	/**
+	 * @param unit
+	 * @return false if records of the station-year are always hashed.
+	 */
+	static boolean isAssignable( String unit ) {
+		return stationOf(unit) != StationKey.INVALID && yearOf(unit) >= 0;
+	}
+
+
+	static int hashPartition( String unit, int partitions ) {
+		return hashPartition(stationOf(unit), yearOf(unit), partitions);
+	}
+
+
+	static int hashPartition( long station, int year, int partitions ) {
+		return (int) (((station * 31 + year) * GOLDEN_RATIO) >>> 33) % partitions;
+	}
+
+
+	@Override
+	public void setConf( Configuration conf ) {
+
+		this.conf = conf;
+		assignment.clear();
+		iPlannedReducers = conf.getInt(REDUCERS, 0);
+
+		for( String entry : conf.getTrimmedStrings(ASSIGNMENT) ) {
+			final int iEquals = entry.lastIndexOf('=');
+			if( iEquals < 0 ) {
+				throw new IllegalArgumentException("Malformed " + ASSIGNMENT + " entry: " + entry);
+			}
+			final String unit = entry.substring(0, iEquals);
+			if( isAssignable(unit) ) {
+				assign(stationOf(unit), yearOf(unit), Integer.parseInt(entry.substring(iEquals + 1)));
+			}
+		}
+	}
+	// ^^ setConf(Configuration)
+
+
+	private void assign( long station, int year, int reducer ) {
+
+		int[] years = assignment.get(station);
+		if( years == null ) {
+			years = new int[] { year, -1 };
+		} else if( year < years[0] ) {
+			final int[] grown = new int[years.length + years[0] - year];
+			Arrays.fill(grown, -1);
+			System.arraycopy(years, 1, grown, 1 + years[0] - year, years.length - 1);
+			grown[0] = year;
+			years = grown;
+		} else if( year - years[0] + 1 >= years.length ) {
+			final int length = years.length;
+			years = Arrays.copyOf(years, year - years[0] + 2);
+			Arrays.fill(years, length, years.length, -1);
+		}
+		years[year - years[0] + 1] = reducer;
+		assignment.put(station, years);
+	}
+	// ^^ assign(long, int, int)
+
+
+	@Override
+	public Configuration getConf() {
+		return conf;
+	}
+
+
+	@Override
+	public int getPartition( ObservationWritable key, V value, int numPartitions ) {
+
+		final long station = key.getStationKey();
+		final int year = key.getYear();
+
+		if( numPartitions == iPlannedReducers && station != StationKey.INVALID && year >= 0 ) {
+			final int[] years = assignment.get(station);
+			if( years != null ) {
+				final int i = year - years[0] + 1;
+				if( i >= 1 && i < years.length && years[i] >= 0 ) {
+					return years[i];
+				}
+			}
+		}
+		return hashPartition(station, year, numPartitions);
+	}
+	// ^^ getPartition(ObservationWritable, V, int)
+
+}
+// ^^ class StationYearPartitioner
+
+
+////////////////////////
+//
+//    END OF FILE
+//
+////////////////////
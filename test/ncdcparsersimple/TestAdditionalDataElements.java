@@ -0,0 +1,77 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestAdditionalDataElements {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	@Test
+	public void testDecodeRegisteredElements() {
+
+		final String withPrecipitation = record.substring(0, 108) + "AA1010125M1GA1081+009001999" + record.substring(108);
+		final byte[] data = withPrecipitation.getBytes(StandardCharsets.US_ASCII);
+		final NCDCRecordView view = new NCDCRecordView().bind(data, 0, data.length);
+		final int[] slots = new int[AdditionalDataElements.MAX_SUBFIELDS];
+
+		assertTrue(AdditionalDataElements.decode(data, view.getAdditionalDataIndex(), "MA1", slots));
+		assertEquals(10250, slots[0]);
+		assertEquals('1', slots[1]);
+		assertEquals(99999, slots[2]);
+		final ElementDescriptor ma1 = AdditionalDataElements.get("MA1");
+		assertEquals(1025.0, ma1.toDouble(0, slots[0]), 0.0);
+		assertTrue(ma1.isMissing(2, slots[2]));
+
+		assertTrue(AdditionalDataElements.decode(data, view.getAdditionalDataIndex(), "KA1", slots));
+		assertEquals(999, slots[0]);
+		assertEquals('M', slots[1]);
+		assertEquals(9999, slots[2]);
+
+		assertTrue(AdditionalDataElements.decode(data, view.getAdditionalDataIndex(), "AA1", slots));
+		assertEquals(1, slots[0]);
+		assertEquals(125, slots[1]);
+		assertEquals(12.5, AdditionalDataElements.get("AA1").toDouble(1, slots[1]), 0.0);
+		assertEquals('M', slots[2]);
+
+		assertTrue(AdditionalDataElements.decode(data, view.getAdditionalDataIndex(), "GA1", slots));
+		assertEquals(8, slots[0]);
+		assertEquals(900, slots[2]);
+
+		assertFalse(AdditionalDataElements.decode(data, view.getAdditionalDataIndex(), "OC1", slots));
+	}
+
+
+	@Test
+	public void testRegistry() {
+
+		assertEquals("AA4", AdditionalDataElements.get("AA4").getId());
+		assertNull(AdditionalDataElements.get("AA5"));
+		assertNull(AdditionalDataElements.get("REM"));
+
+		for( ElementDescriptor descriptor : AdditionalDataElements.all() ) {
+			assertEquals(descriptor.getId(), AdditionalDataIndex.widthOf(descriptor.getId()), descriptor.getWidth());
+			assertTrue(descriptor.getSubfieldCount() <= AdditionalDataElements.MAX_SUBFIELDS);
+		}
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnregisteredElement() {
+
+		final byte[] data = record.getBytes(StandardCharsets.US_ASCII);
+		AdditionalDataElements.decode(data, new AdditionalDataIndex().index(data, 0, data.length), "ZZ1", new int[13]);
+	}
+
+}
+// ^^ class TestAdditionalDataElements
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,81 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestAdditionalDataIndex {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	private String element( byte[] data, AdditionalDataIndex index, int i ) {
+		return new String(data, index.getStart(i), index.getLength(i), StandardCharsets.US_ASCII);
+	}
+
+
+	@Test
+	public void testIndexRecord() {
+
+		final byte[] data = record.getBytes(StandardCharsets.US_ASCII);
+		final AdditionalDataIndex index = new NCDCRecordView().bind(data, 0, data.length).getAdditionalDataIndex();
+
+		assertTrue(index.isComplete());
+		assertEquals(4, index.size());
+
+		assertEquals("KA1", index.getIdString(0));
+		assertEquals(AdditionalDataIndex.SECTION_ADD, index.getSection(0));
+		assertEquals("999M+99999", element(data, index, 0));
+
+		final int ma1 = index.find("MA1");
+		assertEquals(1, ma1);
+		assertEquals("102501999999", element(data, index, ma1));
+
+		final int met = index.find("MET");
+		assertEquals(AdditionalDataIndex.SECTION_REM, index.getSection(met));
+		assertEquals(69, index.getLength(met));
+		assertTrue(element(data, index, met).startsWith("MOBOB0 METAR"));
+
+		final int q01 = index.find(AdditionalDataIndex.packId("Q01"));
+		assertEquals(AdditionalDataIndex.SECTION_EQD, index.getSection(q01));
+		assertEquals(" -00012ATMX  ", element(data, index, q01));
+
+		assertEquals(-1, index.find("AA1"));
+	}
+
+
+	@Test
+	public void testUnknownElementStopsIndexing() {
+
+		final String unknown = record.substring(0, 105) + "ADDKA1999M+99999XX1123MA1102501999999";
+		final byte[] data = unknown.getBytes(StandardCharsets.US_ASCII);
+		final AdditionalDataIndex index = new AdditionalDataIndex().index(data, 0, data.length);
+
+		assertFalse(index.isComplete());
+		assertEquals(1, index.size());
+		assertEquals(unknown.indexOf("XX1"), index.getUnindexedStart());
+	}
+
+
+	@Test
+	public void testNoAdditionalData() {
+
+		final byte[] data = record.substring(0, 105).getBytes(StandardCharsets.US_ASCII);
+		final AdditionalDataIndex index = new AdditionalDataIndex().index(data, 0, data.length);
+
+		assertTrue(index.isComplete());
+		assertEquals(0, index.size());
+		assertEquals(9, AdditionalDataIndex.widthOf("RH1"));
+		assertEquals(0, AdditionalDataIndex.widthOf("RH9"));
+	}
+
+}
+// ^^ class TestAdditionalDataIndex
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
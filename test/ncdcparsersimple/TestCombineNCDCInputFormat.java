@@ -0,0 +1,110 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCombineNCDCInputFormat {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final int FILES = 40;
+	private final int RECORDS_PER_FILE = 25;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	/*
+	 * Every other file is gzipped. The air temperature (pos 88-92) of
+	 * the i-th record of a file is i.
+	 */
+	private void writeFiles( File directory ) throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < RECORDS_PER_FILE; i++ ) {
+			data.append(record, 0, 87)
+				.append(String.format("%+05d", i))
+				.append(record, 92, record.length())
+				.append('\n');
+		}
+		final byte[] bytes = data.toString().getBytes(StandardCharsets.US_ASCII);
+
+		for( int f = 0; f < FILES; f++ ) {
+			final String name = String.format("%06d-99999-2012", f);
+			if( f % 2 == 0 ) {
+				Files.write(new File(directory, name).toPath(), bytes);
+			} else {
+				try( OutputStream out = new GZIPOutputStream(Files.newOutputStream(new File(directory, name + ".gz").toPath())) ) {
+					out.write(bytes);
+				}
+			}
+		}
+	}
+
+
+	@Test
+	public void testCombineSmallFiles() throws Exception {
+
+		final File directory = folder.newFolder("2012");
+		writeFiles(directory);
+
+		final Configuration conf = new Configuration();
+		conf.setLong(FileInputFormat.SPLIT_MAXSIZE, 20000);
+		final Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, new Path(directory.toURI()));
+
+		final CombineNCDCInputFormat format = new CombineNCDCInputFormat();
+		final List<InputSplit> splits = format.getSplits(job);
+		assertTrue(splits.size() > 1);
+		assertTrue(splits.size() < FILES / 2);
+
+		long sum = 0;
+		int records = 0;
+		for( InputSplit split : splits ) {
+
+			final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+			try( RecordReader<LongWritable, NCDCParserSimple> reader = format.createRecordReader(split, context) ) {
+
+				reader.initialize(split, context);
+				while( reader.nextKeyValue() ) {
+					final NCDCParserSimple parser = reader.getCurrentValue();
+					assertEquals("20120713", parser.getGeophysicalPointObservation_Date());
+					sum += parser.getAirTemperatureObservation_AirTemperature();
+					records++;
+				}
+			}
+		}
+
+		assertEquals(FILES * RECORDS_PER_FILE, records);
+		assertEquals((long) FILES * RECORDS_PER_FILE * (RECORDS_PER_FILE - 1) / 2, sum);
+	}
+
+}
+// ^^ class TestCombineNCDCInputFormat
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
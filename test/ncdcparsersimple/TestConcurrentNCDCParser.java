@@ -0,0 +1,123 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class TestConcurrentNCDCParser {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final int THREADS = 8;
+
+
+	/*
+	 * The air temperature (pos 88-92) of the record is t.
+	 */
+	private String withTemperature( int t ) {
+		return record.substring(0, 87) + String.format("%+05d", t) + record.substring(92);
+	}
+
+
+	@Test
+	public void testManyProducers() throws Exception {
+
+		final ConcurrentNCDCParser engine = new ConcurrentNCDCParser();
+		final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<Integer>> results = new ArrayList<>();
+			for( int t = 0; t < THREADS; t++ ) {
+				final int thread = t;
+				results.add(pool.submit(() -> {
+					int checked = 0;
+					for( int i = 0; i < 2000; i++ ) {
+						final int temperature = thread * 1000 + i % 1000;
+						final String r = withTemperature(temperature);
+						final Observation observation = (i & 1) == 0
+								? engine.parse(r)
+								: engine.parse(r.getBytes(StandardCharsets.US_ASCII), 0, r.length());
+						assertEquals(temperature, observation.getAirTemperatureObservation_AirTemperature());
+						assertEquals("007026", observation.getFixedWeatherStation_USAFMasterStationCatId());
+						checked++;
+					}
+					return checked;
+				}));
+			}
+			for( Future<Integer> result : results ) {
+				assertEquals(2000, (int) result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertTrue(engine.getContextCount() <= THREADS);
+	}
+
+
+	@Test
+	public void testParseLinesInBatches() throws Exception {
+
+		final ConcurrentNCDCParser engine = new ConcurrentNCDCParser(EnumSet.allOf(NCDCField.class), 64);
+
+		final StringBuilder lines = new StringBuilder();
+		for( int i = 0; i < 1000; i++ ) {
+			lines.append(withTemperature(i)).append(i % 7 == 0 ? "\r\n" : "\n");
+			if( i % 100 == 0 ) {
+				lines.append("too short\n");
+			}
+		}
+		final byte[] data = lines.toString().getBytes(StandardCharsets.US_ASCII);
+
+		final AtomicLong sum = new AtomicLong();
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Long>> results = new ArrayList<>();
+			for( int t = 0; t < 4; t++ ) {
+				results.add(pool.submit(() -> engine.parseLines(data, 0, data.length, batch -> {
+					assertTrue(batch.size() <= 64);
+					for( int i = 0; i < batch.size(); i++ ) {
+						sum.addAndGet(batch.getAirTemperatureObservation_AirTemperature()[i]);
+					}
+				})));
+			}
+			for( Future<Long> result : results ) {
+				assertEquals(1000L, (long) result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(4L * 1000 * 999 / 2, sum.get());
+	}
+
+
+	@Test
+	public void testReentrantExtractor() {
+
+		final ConcurrentNCDCParser engine = new ConcurrentNCDCParser();
+		final byte[] outer = withTemperature(100).getBytes(StandardCharsets.US_ASCII);
+
+		final int[] temperatures = engine.parse(outer, 0, outer.length, parser -> {
+			final Observation inner = engine.parse(withTemperature(200));
+			return new int[] { parser.getAirTemperatureObservation_AirTemperature(),
+					inner.getAirTemperatureObservation_AirTemperature() };
+		});
+		assertEquals(100, temperatures[0]);
+		assertEquals(200, temperatures[1]);
+	}
+
+}
+// ^^ class TestConcurrentNCDCParser
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,115 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestEpochMinutes {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	private static int expected( LocalDateTime time ) {
+		return (int) (time.toEpochSecond(ZoneOffset.UTC) / 60);
+	}
+
+
+	@Test
+	public void testAgainstJavaTime() {
+
+		Random random = new Random(3);
+		for( int i = 0; i < 10000; i++ ) {
+			final LocalDateTime time = LocalDateTime.of(1901, 1, 1, 0, 0).plusMinutes(random.nextInt(200 * 525960));
+			final String digits = String.format("%04d%02d%02d%02d%02d", time.getYear(), time.getMonthValue(),
+					time.getDayOfMonth(), time.getHour(), time.getMinute());
+
+			final int minutes = EpochMinutes.decode(digits.getBytes(StandardCharsets.US_ASCII), 0);
+			assertEquals(expected(time), minutes);
+			assertEquals(minutes, EpochMinutes.decode(digits, 0));
+			assertEquals(digits, EpochMinutes.toString(minutes));
+		}
+		assertEquals(0, EpochMinutes.of(1970, 1, 1, 0, 0));
+		assertEquals(expected(LocalDateTime.of(6000, 12, 31, 23, 59)), EpochMinutes.of(6000, 12, 31, 23, 59));
+		assertEquals(expected(LocalDateTime.of(2000, 2, 29, 12, 0)), EpochMinutes.of("20000229", "1200"));
+	}
+
+
+	@Test
+	public void testInvalidDatesAreMissing() {
+
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("20120713", "2400"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("20120713", "1260"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("20121301", "0000"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("20120431", "0000"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("19000229", "0000"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("2012-7-1", "0000"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of("00%204&?", "(+%1"));
+		assertEquals(EpochMinutes.MISSING, EpochMinutes.of(null, "0000"));
+		assertEquals("MISSING", EpochMinutes.toString(EpochMinutes.MISSING));
+	}
+
+
+	@Test
+	public void testParsedRecords() {
+
+		final int minutes = expected(LocalDateTime.of(2012, 7, 13, 12, 0));
+		final byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+		assertEquals(minutes, parser.getEpochMinutes());
+		parser.parse(bytes, 0, bytes.length);
+		assertEquals(minutes, parser.getEpochMinutes());
+		assertEquals(minutes, new Observation(parser).getEpochMinutes());
+
+		ObservationWritable writable = new ObservationWritable();
+		writable.set(parser);
+		assertEquals(minutes, writable.getEpochMinutes());
+
+		// not decoded unless both fields are projected
+		NCDCParserSimple projected = new NCDCParserSimple(EnumSet.of(NCDCField.OBSERVATION_DATE));
+		projected.parse(record);
+		assertEquals(EpochMinutes.MISSING, projected.getEpochMinutes());
+	}
+
+
+	@Test
+	public void testTimeRange() {
+
+		final String earlier = record.substring(0, 15) + "201207131100" + record.substring(27);
+		final String malformed = record.substring(0, 15) + "2012071X1100" + record.substring(27);
+		final String later = record.substring(0, 15) + "201207131300" + record.substring(27);
+
+		final int from = EpochMinutes.of(2012, 7, 13, 11, 30);
+		final int to = EpochMinutes.of(2012, 7, 13, 12, 0);
+
+		RecordFilter filter = RecordFilter.timeRange(from, to);
+		ObservationBatch batch = new ObservationBatch(4);
+		final String[] records = { earlier, record, malformed, later };
+		for( String r : records ) {
+			final byte[] bytes = r.getBytes(StandardCharsets.US_ASCII);
+			assertEquals(r == record, filter.accept(bytes, 0, bytes.length));
+			batch.parse(bytes, 0, bytes.length);
+		}
+
+		final int[] rows = new int[batch.size()];
+		assertEquals(1, batch.selectTimeRange(from, to, rows));
+		assertEquals(1, rows[0]);
+		assertEquals(EpochMinutes.MISSING, batch.getEpochMinutes()[2]);
+		assertEquals(3, batch.selectTimeRange(EpochMinutes.MISSING, Integer.MAX_VALUE, rows));
+	}
+
+}
+// ^^ class TestEpochMinutes
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,96 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestFieldStringCache {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	@Test
+	public void testSharedInstances() {
+
+		FieldStringCache cache = new FieldStringCache(64);
+		cache.setCounting(true);
+		final byte[] bytes = ("xx" + record).getBytes(StandardCharsets.US_ASCII);
+
+		final String first = cache.get(bytes, 2 + 41, 5);
+		assertEquals("FM-15", first);
+		assertSame(first, cache.get(bytes, 2 + 41, 5));
+		assertSame(first, cache.get(record, 41, 46));
+		assertEquals(1, cache.misses());
+		assertEquals(2, cache.hits());
+		assertEquals(2.0 / 3, cache.hitRatio(), 1e-9);
+
+		// same hash slot range, different length or content
+		assertEquals("FM-1", cache.get(record, 41, 45));
+		assertEquals("", cache.get(record, 41, 41));
+
+		cache.resetStats();
+		assertEquals(0, cache.hits() + cache.misses());
+	}
+
+
+	@Test
+	public void testEviction() {
+
+		// one slot: every new value evicts the previous one.
+		FieldStringCache cache = new FieldStringCache(1);
+		cache.setCounting(true);
+		final String usaf = cache.get(record, 4, 10);
+		final String wban = cache.get(record, 10, 15);
+		assertEquals("007026", usaf);
+		assertEquals("99999", wban);
+		assertNotSame(usaf, cache.get(record, 4, 10));
+		assertEquals(3, cache.misses());
+		assertEquals(0, cache.hits());
+	}
+
+
+	@Test
+	public void testCountingIsOffByDefault() {
+
+		FieldStringCache cache = new FieldStringCache(64);
+		assertFalse(cache.isCounting());
+		cache.get(record, 41, 46);
+		cache.get(record, 41, 46);
+		assertEquals(0, cache.hits() + cache.misses());
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacityMustBePowerOfTwo() {
+		new FieldStringCache(100);
+	}
+
+
+	@Test
+	public void testParserSharesFieldValues() {
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+		final String usaf = parser.getFixedWeatherStation_USAFMasterStationCatId();
+		final String type = parser.getGeophysicalReportType_Code();
+
+		final byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+		parser.parse(bytes, 0, bytes.length);
+		assertSame(usaf, parser.getFixedWeatherStation_USAFMasterStationCatId());
+		assertSame(type, parser.getGeophysicalReportType_Code());
+
+		parser.parse(new String(record));
+		assertSame(usaf, parser.getFixedWeatherStation_USAFMasterStationCatId());
+		assertEquals("V020", parser.getMeteorogicalPointObservation_QualityControlProcessName());
+	}
+
+}
+// ^^ class TestFieldStringCache
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
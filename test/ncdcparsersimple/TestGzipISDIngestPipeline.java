@@ -0,0 +1,81 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestGzipISDIngestPipeline {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	/*
+	 * The air temperature (pos 88-92) of the i-th record is i.
+	 */
+	private Path writeGzipFile( String name, int records ) throws IOException {
+
+		final File file = folder.newFile(name);
+		try( OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath())) ) {
+			for( int i = 0; i < records; i++ ) {
+				final String line = record.substring(0, 87) + String.format("%+05d", i) + record.substring(92)
+						+ (i == records - 1 ? "" : "\n");
+				out.write(line.getBytes(StandardCharsets.US_ASCII));
+			}
+		}
+		return file.toPath();
+	}
+
+
+	@Test
+	public void testIngest() throws Exception {
+
+		final List<Path> files = new ArrayList<>();
+		files.add(writeGzipFile("007026-99999-2012.gz", 500));
+		files.add(writeGzipFile("007026-99999-2013.gz", 300));
+		files.add(writeGzipFile("007026-99999-2014.gz", 1));
+
+		// small blocks, so every file is cut into many of them.
+		GzipISDIngestPipeline pipeline = new GzipISDIngestPipeline(2, 3, 1024, 6);
+
+		final AtomicLong sum = new AtomicLong();
+		long records = pipeline.run(files,
+				parser -> sum.addAndGet(parser.getAirTemperatureObservation_AirTemperature()));
+
+		assertEquals(801, records);
+		assertEquals(500L * 499 / 2 + 300L * 299 / 2, sum.get());
+	}
+
+
+	@Test(expected = IOException.class)
+	public void testRecordLongerThanBlock() throws Exception {
+
+		final List<Path> files = new ArrayList<>();
+		files.add(writeGzipFile("007026-99999-2012.gz", 10));
+
+		new GzipISDIngestPipeline(1, 1, 100, 2).run(files, parser -> { });
+	}
+
+}
+// ^^ class TestGzipISDIngestPipeline
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,110 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestISDFileReader {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final String shortRecord = "0000007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1-01001+02301999999";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	private File writeFile() throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < 10; i++ ) {
+			data.append(i % 2 == 0 ? record : shortRecord);
+			data.append(i % 3 == 0 ? "\r\n" : "\n");
+		}
+		data.append("too short\n");
+		// the last record has no '\n'.
+		data.append(record);
+
+		final File file = folder.newFile("007026-99999-2012");
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+
+	@Test
+	public void testReadWholeFile() throws IOException {
+
+		final File file = writeFile();
+		NCDCParserSimple parser = new NCDCParserSimple();
+
+		// a tiny window, so records span several windows.
+		try( ISDFileReader reader = new ISDFileReader(file.toPath(), 0, Long.MAX_VALUE, 64) ) {
+
+			int records = 0;
+			while( reader.next(parser) ) {
+				assertEquals(records % 2 == 0 || records == 10 ? 240 : -100,
+						parser.getAirTemperatureObservation_AirTemperature());
+				records++;
+			}
+			assertEquals(11, records);
+			assertEquals(11, reader.getRecordCount());
+			assertEquals(1, reader.getSkippedLineCount());
+			assertEquals(record.substring(105), parser.getAdditionalData());
+		}
+	}
+
+
+	@Test
+	public void testRangesCoverEveryRecordOnce() throws IOException {
+
+		final File file = writeFile();
+		final long size = file.length();
+
+		for( long step = 1; step < size; step += 37 ) {
+
+			int records = 0;
+			for( long start = 0; start < size; start += step ) {
+				try( ISDFileReader reader = new ISDFileReader(file.toPath(), start, start + step, 100) ) {
+					while( reader.next() ) {
+						assertEquals('0', reader.getRecord()[0]);
+						records++;
+					}
+				}
+			}
+			assertEquals("step " + step, 11, records);
+		}
+	}
+
+
+	@Test
+	public void testReadIntoBatch() throws IOException {
+
+		final File file = writeFile();
+		ObservationBatch batch = new ObservationBatch(4);
+
+		try( ISDFileReader reader = new ISDFileReader(file.toPath()) ) {
+			int total = 0;
+			int added;
+			while( (added = reader.next(batch)) > 0 ) {
+				total += added;
+				batch.clear();
+			}
+			assertEquals(11, total);
+		}
+	}
+
+}
+// ^^ class TestISDFileReader
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
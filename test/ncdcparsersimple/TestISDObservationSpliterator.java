@@ -0,0 +1,144 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestISDObservationSpliterator {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	/*
+	 * The air temperature (pos 88-92) of the i-th record is first + i.
+	 */
+	private File writeFile( File directory, String name, int first, int records ) throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = first; i < first + records; i++ ) {
+			data.append(record, 0, 87)
+				.append(String.format("%+05d", i))
+				.append(record, 92, record.length())
+				.append('\n');
+		}
+		final File file = new File(directory, name);
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+
+	@Test
+	public void testSequentialStreamOfDirectory() throws IOException {
+
+		final File directory = folder.newFolder("isd");
+		writeFile(directory, "007026-99999-2013", 1000, 500);
+		writeFile(directory, "007026-99999-2012", 0, 1000);
+
+		try( Stream<Observation> observations = ISDObservationSpliterator.stream(directory.toPath()) ) {
+
+			final List<Integer> temperatures = observations
+					.map(Observation::getAirTemperatureObservation_AirTemperature)
+					.collect(Collectors.toList());
+
+			assertEquals(1500, temperatures.size());
+			for( int i = 0; i < temperatures.size(); i++ ) {
+				assertEquals(i, temperatures.get(i).intValue());
+			}
+		}
+	}
+
+
+	@Test
+	public void testParallelStreamKeepsOrder() throws IOException {
+
+		final File directory = folder.newFolder("isd");
+		writeFile(directory, "a", 0, 3000);
+		writeFile(directory, "b", 3000, 10);
+		writeFile(directory, "c", 3010, 2000);
+
+		// a tiny minimum split size, so the ranges are split inside the files.
+		ISDObservationSpliterator spliterator = new ISDObservationSpliterator(directory.toPath(), 1024);
+		final List<Integer> temperatures = StreamSupport.stream(spliterator, true)
+				.map(Observation::getAirTemperatureObservation_AirTemperature)
+				.collect(Collectors.toList());
+
+		assertEquals(5010, temperatures.size());
+		for( int i = 0; i < temperatures.size(); i++ ) {
+			assertEquals(i, temperatures.get(i).intValue());
+		}
+	}
+
+
+	@Test
+	public void testSplitsCoverEveryRecordOnce() throws IOException {
+
+		final File file = writeFile(folder.getRoot(), "007026-99999-2012", 0, 777);
+
+		ISDObservationSpliterator spliterator = new ISDObservationSpliterator(file.toPath(), 100);
+		assertEquals(0, spliterator.characteristics() & Spliterator.SIZED);
+
+		final Spliterator<Observation> prefix = spliterator.trySplit();
+		assertNotNull(prefix);
+		final Spliterator<Observation> quarter = prefix.trySplit();
+		assertNotNull(quarter);
+
+		final long[] sum = new long[1];
+		final int[] count = new int[1];
+		for( Spliterator<Observation> s : Arrays.asList(quarter, prefix, spliterator) ) {
+			s.forEachRemaining(o -> {
+				sum[0] += o.getAirTemperatureObservation_AirTemperature();
+				count[0]++;
+			});
+		}
+		assertEquals(777, count[0]);
+		assertEquals(777L * 776 / 2, sum[0]);
+	}
+
+
+	@Test
+	public void testCloseClosesSplits() throws IOException {
+
+		final File file = writeFile(folder.getRoot(), "007026-99999-2012", 0, 777);
+
+		ISDObservationSpliterator spliterator = new ISDObservationSpliterator(file.toPath(), 100);
+		final Spliterator<Observation> prefix = spliterator.trySplit();
+		final Spliterator<Observation> quarter = prefix.trySplit();
+
+		// a short-circuiting operation leaves the splits half read.
+		assertTrue(quarter.tryAdvance(o -> { }));
+		assertTrue(prefix.tryAdvance(o -> { }));
+		spliterator.close();
+
+		assertFalse(quarter.tryAdvance(o -> { }));
+		assertFalse(prefix.tryAdvance(o -> { }));
+		assertFalse(spliterator.tryAdvance(o -> { }));
+
+		try( Stream<Observation> observations = ISDObservationSpliterator.stream(folder.getRoot().toPath()) ) {
+			assertTrue(observations.parallel().anyMatch(o -> o.getAirTemperatureObservation_AirTemperature() == 10));
+		}
+	}
+
+}
+// ^^ class TestISDObservationSpliterator
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
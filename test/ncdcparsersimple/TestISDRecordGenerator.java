@@ -0,0 +1,155 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestISDRecordGenerator {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	private static ISDRecordGenerator newGenerator( long seed ) {
+		ISDRecordGenerator generator = new ISDRecordGenerator(seed);
+		generator.setStations(5);
+		generator.setRecordsPerStation(50);
+		generator.setAdditionalDataLength(400, ISDRecordGenerator.MAX_ADDITIONAL_DATA_LENGTH);
+		return generator;
+	}
+
+
+	@Test
+	public void testSeedIsDeterministic() throws Exception {
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		ByteArrayOutputStream other = new ByteArrayOutputStream();
+		newGenerator(7).write(first);
+		newGenerator(7).write(second);
+		newGenerator(8).write(other);
+
+		assertArrayEquals(first.toByteArray(), second.toByteArray());
+		assertFalse(Arrays.equals(first.toByteArray(), other.toByteArray()));
+	}
+
+
+	@Test
+	public void testRecordsAreValid() {
+
+		ISDRecordGenerator generator = newGenerator(1);
+		NCDCParserSimple parser = new NCDCParserSimple();
+		AdditionalDataIndex index = new AdditionalDataIndex();
+		byte[] buffer = new byte[ISDRecordGenerator.MAX_RECORD_LENGTH];
+
+		Set<String> stations = new HashSet<>();
+		int records = 0;
+		String previous = null;
+		while( generator.hasNext() ) {
+
+			final int length = generator.next(buffer, 0);
+			assertTrue(length >= 105 && length <= ISDRecordGenerator.MAX_RECORD_LENGTH);
+
+			parser.parse(buffer, 0, length);
+			assertEquals(0, parser.getMalformedFields());
+			assertEquals(length - 105, parser.getTotalVariableChars());
+			assertTrue(index.index(buffer, 0, length).isComplete());
+
+			// hourly, in time order within a station
+			final String time = parser.getGeophysicalPointObservation_Date() + parser.getGeophysicalPointObservation_Time();
+			if( stations.add(parser.getFixedWeatherStation_USAFMasterStationCatId()) ) {
+				assertEquals("201201010000", time);
+			} else {
+				assertTrue(time.compareTo(previous) > 0);
+			}
+			previous = time;
+			records++;
+		}
+		assertEquals(250, records);
+		assertEquals(5, stations.size());
+	}
+
+
+	@Test
+	public void testMalformedRatio() {
+
+		ISDRecordGenerator generator = newGenerator(3);
+		generator.setMalformedRatio(NCDCField.AIR_TEMPERATURE, 1);
+		generator.setMalformedRatio(NCDCField.SEA_LEVEL_PRESSURE, 0.5);
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		int malformedPressures = 0;
+		while( generator.hasNext() ) {
+			parser.parse(generator.next());
+			assertTrue(parser.isMalformed(NCDCField.AIR_TEMPERATURE));
+			assertFalse(parser.isMalformed(NCDCField.DEW_POINT_TEMPERATURE));
+			if( parser.isMalformed(NCDCField.SEA_LEVEL_PRESSURE) ) {
+				malformedPressures++;
+			}
+		}
+		assertTrue(malformedPressures > 75 && malformedPressures < 175);
+	}
+
+
+	@Test
+	public void testLongestAdditionalData() {
+
+		// the record reaches the maximum record size.
+		ISDRecordGenerator generator = newGenerator(4);
+		generator.setAdditionalDataLength(1e6, ISDRecordGenerator.MAX_ADDITIONAL_DATA_LENGTH);
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(generator.next());
+		assertEquals(2844 - 105, parser.getTotalVariableChars());
+		assertEquals(2844, ISDRecordGenerator.MAX_RECORD_LENGTH);
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testClockPastMaxYear() {
+
+		// the hours of the leap year 6000 fit, one more hour does not.
+		ISDRecordGenerator generator = new ISDRecordGenerator(4);
+		generator.setStartYear(EpochMinutes.MAX_YEAR);
+		generator.setRecordsPerStation(366 * 24);
+		generator.setRecordsPerStation(366 * 24 + 1);
+	}
+
+
+	@Test
+	public void testWriteFile() throws Exception {
+
+		final File file = folder.newFile("synthetic");
+		final long size = newGenerator(5).writeFile(file.toPath());
+		assertEquals(file.length(), size);
+
+		int records = 0;
+		try( ISDFileReader reader = new ISDFileReader(file.toPath()) ) {
+			NCDCParserSimple parser = new NCDCParserSimple();
+			while( reader.next(parser) ) {
+				records++;
+			}
+		}
+		assertEquals(250, records);
+
+		final String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII);
+		assertTrue(text.endsWith("\n"));
+	}
+
+}
+// ^^ class TestISDRecordGenerator
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
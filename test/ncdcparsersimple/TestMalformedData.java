@@ -2,6 +2,19 @@ package ncdcparsersimple;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
 import org.junit.Test;
 
 public class TestMalformedData {
@@ -143,6 +156,110 @@ public class TestMalformedData {
 		assertEquals(DATA_IS_MISSING, actualResilt);
 	}
 	
+	
+	@Test
+	public void testMalformedBytes() {
+		// pos 88-92 of a record, followed by the quality code
+		final byte[] data = "xx-0(8!1".getBytes(StandardCharsets.US_ASCII);
+		final int DATA_IS_MISSING = 9999;
+		int actualResilt = pMDS.parseAirTemperatureObservation_AirTemperature(data, 2, 5);
+		assertEquals(DATA_IS_MISSING, actualResilt);
+	}
+	
+	
+	@Test
+	public void testMalformedSignWithoutDigits() {
+		// pos 47-51
+		final int DATA_IS_MISSING = 9999;
+		assertEquals(DATA_IS_MISSING, pCDS.parseGeophysicalPointObservation_ElevationDimention("+"));
+		assertEquals(DATA_IS_MISSING, pCDS.parseGeophysicalPointObservation_ElevationDimention(""));
+		assertEquals(DATA_IS_MISSING, pCDS.parseGeophysicalPointObservation_ElevationDimention((String) null));
+	}
+	
+	
+	@Test
+	public void testWellFormedSignedData() {
+		assertEquals(240, AsciiFieldDecoding_ParserSimple.decodeInt("+0240"));
+		assertEquals(-932, AsciiFieldDecoding_ParserSimple.decodeInt("-0932"));
+		assertEquals(5, AsciiFieldDecoding_ParserSimple.decodeInt("0005"));
+		assertEquals(Integer.MAX_VALUE, AsciiFieldDecoding_ParserSimple.decodeInt("2147483647"));
+		assertEquals(AsciiFieldDecoding_ParserSimple.MALFORMED, AsciiFieldDecoding_ParserSimple.decodeInt("2147483648"));
+		assertEquals(AsciiFieldDecoding_ParserSimple.MALFORMED, AsciiFieldDecoding_ParserSimple.decodeInt("99999999999999999999999"));
+	}
+	
+	
+	@Test
+	public void testMalformedDataIsCounted() {
+		
+		final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+		final String malformed = record.substring(0, 87) + "+0X40" + record.substring(92, 99) + "#####" + record.substring(104);
+		
+		final MalformedDataCounters.Snapshot before = MalformedDataCounters.snapshot();
+		
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+		parser.parse(malformed);
+		parser.parse(malformed.getBytes(StandardCharsets.US_ASCII), 0, malformed.length());
+		
+		final MalformedDataCounters.Snapshot counted = MalformedDataCounters.snapshot().minus(before);
+		assertEquals(2, counted.get(NCDCField.AIR_TEMPERATURE));
+		assertEquals(2, counted.get(NCDCField.SEA_LEVEL_PRESSURE));
+		assertEquals(0, counted.get(NCDCField.DEW_POINT_TEMPERATURE));
+		assertEquals(4, counted.total());
+		assertEquals(2, counted.toMap().size());
+		
+		// published as job counters
+		final Counters counters = new Counters();
+		final TaskAttemptContext context = new TaskAttemptContextImpl(new Configuration(), new TaskAttemptID(), new StatusReporter() {
+			@Override public Counter getCounter(Enum<?> name) { return counters.findCounter(name); }
+			@Override public Counter getCounter(String group, String name) { return counters.findCounter(group, name); }
+			@Override public void progress() { }
+			@Override public float getProgress() { return 0; }
+			@Override public void setStatus(String status) { }
+		});
+		counted.publish(context);
+		assertEquals(2, counters.findCounter(MalformedDataCounters.COUNTER_GROUP, "AIR_TEMPERATURE").getValue());
+		assertEquals(2, counters.findCounter(MalformedDataCounters.COUNTER_GROUP, "SEA_LEVEL_PRESSURE").getValue());
+	}
+
+
+	@Test
+	public void testMalformedFieldsMask() throws Exception {
+
+		final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+		final String malformed = record.substring(0, 87) + "+0X40" + record.substring(92, 99) + "#####" + record.substring(104);
+		final int expected = NCDCField.AIR_TEMPERATURE.mask() | NCDCField.SEA_LEVEL_PRESSURE.mask();
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(malformed);
+		assertEquals(expected, parser.getMalformedFields());
+		assertTrue(parser.isMalformed(NCDCField.AIR_TEMPERATURE));
+		assertFalse(parser.isMalformed(NCDCField.DEW_POINT_TEMPERATURE));
+
+		final Observation observation = new Observation(parser);
+		assertEquals(expected, observation.getMalformedFields());
+
+		// carried through a shuffle
+		final ObservationWritable writable = new ObservationWritable();
+		writable.set(parser);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writable.write(new DataOutputStream(bytes));
+		final ObservationWritable read = new ObservationWritable();
+		read.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(expected, read.getMalformedFields());
+		assertTrue(read.isMalformed(NCDCField.SEA_LEVEL_PRESSURE));
+
+		// reset by the next record
+		parser.parse(record.getBytes(StandardCharsets.US_ASCII), 0, record.length());
+		assertEquals(0, parser.getMalformedFields());
+
+		ObservationBatch batch = new ObservationBatch(2);
+		batch.parse(malformed.getBytes(StandardCharsets.US_ASCII), 0, malformed.length());
+		batch.parse(record.getBytes(StandardCharsets.US_ASCII), 0, record.length());
+		assertEquals(expected, batch.getMalformedFields()[0]);
+		assertEquals(0, batch.getMalformedFields()[1]);
+	}
+
 
 }
 // ^^ class TestMalformedData 
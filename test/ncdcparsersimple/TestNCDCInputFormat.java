@@ -0,0 +1,170 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestNCDCInputFormat {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final int RECORDS = 1000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	/*
+	 * The air temperature (pos 88-92) of the i-th record is i; every
+	 * tenth record is followed by a line that is too short.
+	 */
+	private File writeFile() throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < RECORDS; i++ ) {
+			data.append(record, 0, 87)
+				.append(String.format("%+05d", i))
+				.append(record, 92, record.length())
+				.append('\n');
+			if( i % 10 == 0 ) {
+				data.append("too short\n");
+			}
+		}
+		final File file = folder.newFile("007026-99999-2012");
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+
+	@Test
+	public void testProjection() throws Exception {
+
+		final File file = writeFile();
+
+		final Job job = Job.getInstance(new Configuration());
+		FileInputFormat.setInputPaths(job, new Path(file.toURI()));
+		NCDCInputFormat.setProjection(job, EnumSet.of(NCDCField.OBSERVATION_DATE, NCDCField.AIR_TEMPERATURE));
+
+		final NCDCInputFormat format = new NCDCInputFormat();
+		final InputSplit split = format.getSplits(job).get(0);
+		final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+		try( RecordReader<LongWritable, NCDCParserSimple> reader = format.createRecordReader(split, context) ) {
+
+			reader.initialize(split, context);
+			assertTrue(reader.nextKeyValue());
+			assertEquals(0, reader.getCurrentValue().getAirTemperatureObservation_AirTemperature());
+			assertTrue(reader.nextKeyValue());
+			assertEquals(1, reader.getCurrentValue().getAirTemperatureObservation_AirTemperature());
+			assertEquals("20120713", reader.getCurrentValue().getGeophysicalPointObservation_Date());
+			assertNull(reader.getCurrentValue().getFixedWeatherStation_USAFMasterStationCatId());
+		}
+	}
+
+
+	@Test
+	public void testReadAllSplits() throws Exception {
+
+		final File file = writeFile();
+
+		final Configuration conf = new Configuration();
+		conf.setLong(FileInputFormat.SPLIT_MAXSIZE, 10000);
+		final Job job = Job.getInstance(conf);
+		FileInputFormat.setInputPaths(job, new Path(file.toURI()));
+
+		final NCDCInputFormat format = new NCDCInputFormat();
+		final List<InputSplit> splits = format.getSplits(job);
+		assertTrue(splits.size() > 1);
+
+		long sum = 0;
+		int records = 0;
+		long skipped = 0;
+		for( InputSplit split : splits ) {
+
+			final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID());
+			try( RecordReader<LongWritable, NCDCParserSimple> reader = format.createRecordReader(split, context) ) {
+
+				reader.initialize(split, context);
+				while( reader.nextKeyValue() ) {
+					final NCDCParserSimple parser = reader.getCurrentValue();
+					assertEquals("007026", parser.getFixedWeatherStation_USAFMasterStationCatId());
+					assertEquals(record.substring(105), parser.getAdditionalData());
+					sum += parser.getAirTemperatureObservation_AirTemperature();
+					records++;
+				}
+				skipped += ((NCDCRecordReader) reader).getSkippedLineCount();
+			}
+		}
+
+		assertEquals(RECORDS, records);
+		assertEquals((long) RECORDS * (RECORDS - 1) / 2, sum);
+		assertEquals(RECORDS / 10, skipped);
+	}
+
+
+	@Test
+	public void testPublishesOwnMalformedCounts() throws Exception {
+
+		// the air temperature of every record from 990 on is malformed.
+		final File file = folder.newFile("007026-99999-2012");
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < RECORDS; i++ ) {
+			data.append(record, 0, 87)
+				.append(i < 990 ? String.format("%+05d", i) : "+0X40")
+				.append(record, 92, record.length())
+				.append('\n');
+		}
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+
+		final Job job = Job.getInstance(new Configuration());
+		FileInputFormat.setInputPaths(job, new Path(file.toURI()));
+		NCDCInputFormat.setPublishCounters(job, true);
+
+		final NCDCInputFormat format = new NCDCInputFormat();
+		final InputSplit split = format.getSplits(job).get(0);
+		final Counters counters = new Counters();
+		final TaskAttemptContext context = new TaskAttemptContextImpl(job.getConfiguration(), new TaskAttemptID(),
+				new TaskAttemptContextImpl.DummyReporter() {
+					@Override public Counter getCounter(String group, String name) { return counters.findCounter(group, name); }
+				});
+
+		// other parsing in the same JVM while the split is read.
+		final NCDCParserSimple other = new NCDCParserSimple();
+		try( RecordReader<LongWritable, NCDCParserSimple> reader = format.createRecordReader(split, context) ) {
+			reader.initialize(split, context);
+			while( reader.nextKeyValue() ) {
+				other.parse(record.substring(0, 87) + "+0X40" + record.substring(92));
+			}
+			assertEquals(10, ((NCDCRecordReader) reader).getMalformedCounts().get(NCDCField.AIR_TEMPERATURE));
+		}
+		assertEquals(10, counters.findCounter(MalformedDataCounters.COUNTER_GROUP, "AIR_TEMPERATURE").getValue());
+	}
+
+}
+// ^^ class TestNCDCInputFormat
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
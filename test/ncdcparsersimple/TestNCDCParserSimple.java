@@ -2,6 +2,10 @@ package ncdcparsersimple;
 
 import static org.junit.Assert.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import org.apache.hadoop.io.Text;
 import org.junit.Test;
 
 
@@ -82,13 +86,69 @@ public class TestNCDCParserSimple {
 
 	
 	
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+	
+	
 	@Test
 	public void testRecordParsing() {
 		
-		final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
 		NCDCParserSimple parser = new NCDCParserSimple();
 		parser.parse(record);
 		
+		assertExpectedResults(parser);
+	}
+	
+	
+	@Test
+	public void testTextRecordParsing() {
+		
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(new Text(record));
+		
+		assertExpectedResults(parser);
+	}
+	
+	
+	@Test
+	public void testByteRecordParsing() {
+		
+		// the record is somewhere in the middle of a larger buffer
+		final byte[] bytes = ("garbage\n" + record + "\ngarbage").getBytes(StandardCharsets.US_ASCII);
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(bytes, 8, record.length());
+		
+		assertExpectedResults(parser);
+	}
+	
+	
+	@Test
+	public void testProjectedParsing() {
+		
+		NCDCParserSimple parser = new NCDCParserSimple(EnumSet.of(
+				NCDCField.OBSERVATION_DATE, NCDCField.AIR_TEMPERATURE, NCDCField.AIR_TEMPERATURE_QUALITY_CODE));
+		assertTrue(parser.isProjected(NCDCField.AIR_TEMPERATURE));
+		assertFalse(parser.isProjected(NCDCField.ADDITIONAL_DATA));
+		
+		parser.parse(record);
+		assertEquals(EXPECTED_RESULT_observationDate, parser.getGeophysicalPointObservation_Date());
+		assertEquals(EXPECTED_RESULT_airTemperature, parser.getAirTemperatureObservation_AirTemperature());
+		assertEquals(EXPECTED_RESULT_airTemperatureQualityCode, parser.getAirTemperatureObservation_AirTemperatureQualityCode());
+		
+		// the other fields are not decoded
+		assertNull(parser.getFixedWeatherStation_USAFMasterStationCatId());
+		assertEquals(0, parser.getAirTemperatureObservation_DewPointTemperature());
+		assertEquals('\u0000', parser.getWindObservation_TypeCode());
+		assertNull(parser.getAdditionalData());
+		
+		final byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+		parser.parse(bytes, 0, bytes.length);
+		assertEquals(EXPECTED_RESULT_airTemperature, parser.getAirTemperatureObservation_AirTemperature());
+		assertNull(parser.getFixedWeatherStation_USAFMasterStationCatId());
+	}
+	
+	
+	private void assertExpectedResults(NCDCParserSimple parser) {
+		
 		// 1-4
 		assertEquals(EXPECTED_RESULT_totalChars, parser.getTotalVariableChars());
 		// 5-10
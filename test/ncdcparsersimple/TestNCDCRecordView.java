@@ -0,0 +1,77 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class TestNCDCRecordView {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final String malformedRecord = "0105007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1-0(8!1+02301999999";
+
+
+	@Test
+	public void testViewMatchesParser() {
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+
+		NCDCRecordView view = new NCDCRecordView().bind(new Text(record));
+
+		assertEquals(parser.getTotalVariableChars(), view.getTotalVariableChars());
+		assertEquals(parser.getFixedWeatherStation_USAFMasterStationCatId(), view.getFixedWeatherStation_USAFMasterStationCatId());
+		assertEquals(parser.getGeophysicalPointObservation_Date(), view.getGeophysicalPointObservation_Date());
+		assertEquals(parser.getGeophysicalPointObservation_LongitudeCoord(), view.getGeophysicalPointObservation_LongitudeCoord());
+		assertEquals(parser.getGeophysicalReportType_Code(), view.getGeophysicalReportType_Code());
+		assertEquals(parser.getWindObservation_DirectionAngle(), view.getWindObservation_DirectionAngle());
+		assertEquals(parser.getWindObservation_TypeCode(), view.getWindObservation_TypeCode());
+		assertEquals(parser.getVisibilityObservation_DistanceDimension(), view.getVisibilityObservation_DistanceDimension());
+		assertEquals(parser.getAirTemperatureObservation_AirTemperature(), view.getAirTemperatureObservation_AirTemperature());
+		assertEquals(parser.getAirTemperatureObservation_DewPointTemperature(), view.getAirTemperatureObservation_DewPointTemperature());
+		assertEquals(parser.getAtmosphericPressueObservation_SeaLevelPressureQualityCode(), view.getAtmosphericPressueObservation_SeaLevelPressureQualityCode());
+		assertEquals(parser.getAdditionalData(), view.getAdditionalData());
+	}
+
+
+	@Test
+	public void testRebinding() {
+
+		final byte[] bytes = (record + "\n" + malformedRecord).getBytes(StandardCharsets.US_ASCII);
+		final int DATA_IS_MISSING = 9999;
+
+		NCDCRecordView view = new NCDCRecordView();
+
+		view.bind(bytes, 0, record.length());
+		assertEquals(240, view.getAirTemperatureObservation_AirTemperature());
+
+		view.bind(bytes, record.length() + 1, malformedRecord.length());
+		assertEquals(DATA_IS_MISSING, view.getAirTemperatureObservation_AirTemperature());
+		assertEquals(230, view.getAirTemperatureObservation_DewPointTemperature());
+		assertEquals("", view.getAdditionalData());
+	}
+
+
+	@Test
+	public void testGettersDoNotCountMalformedData() {
+
+		final MalformedDataCounters.Snapshot before = MalformedDataCounters.snapshot();
+
+		NCDCRecordView view = new NCDCRecordView().bind(new Text(malformedRecord));
+		view.getAirTemperatureObservation_AirTemperature();
+		view.getAirTemperatureObservation_AirTemperature();
+
+		assertEquals(0, MalformedDataCounters.snapshot().minus(before).get(NCDCField.AIR_TEMPERATURE));
+	}
+
+}
+// ^^ class TestNCDCRecordView
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,75 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestObservationBatch {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final String malformedRecord = "0105007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1-0(8!1+02301999999";
+
+
+	@Test
+	public void testParseLines() {
+
+		final byte[] data = (record + "\r\n" + "short line\n" + malformedRecord + "\n" + record)
+				.getBytes(StandardCharsets.US_ASCII);
+
+		ObservationBatch batch = new ObservationBatch(10);
+
+		// the last record has no '\n' and more data may follow.
+		int consumed = batch.parseLines(data, 0, data.length, false);
+		assertEquals(2, batch.size());
+		assertEquals(data.length - record.length(), consumed);
+
+		consumed += batch.parseLines(data, consumed, data.length - consumed, true);
+		assertEquals(3, batch.size());
+		assertEquals(data.length, consumed);
+
+		assertEquals(128, batch.getTotalVariableChars()[0]);
+		assertEquals("007026", batch.getFixedWeatherStation_USAFMasterStationCatId(0));
+		assertEquals("99999", batch.getFixedWeatherStation_NCEIWbanId(1));
+		assertEquals("20120713", batch.getGeophysicalPointObservation_Date(2));
+		assertEquals("1200", batch.getGeophysicalPointObservation_Time(0));
+		assertEquals("FM-15", batch.getGeophysicalReportType_Code(0));
+		assertEquals("7026 ", batch.getFixedWeatherStation_CallLetterId(0));
+		assertEquals("V020", batch.getMeteorogicalPointObservation_QualityControlProcessName(0));
+		assertEquals(110, batch.getWindObservation_DirectionAngle()[0]);
+		assertEquals('N', batch.getWindObservation_TypeCode()[0]);
+		assertEquals(240, batch.getAirTemperatureObservation_AirTemperature()[0]);
+		assertEquals(9999, batch.getAirTemperatureObservation_AirTemperature()[1]);
+		assertEquals(230, batch.getAirTemperatureObservation_DewPointTemperature()[1]);
+		assertEquals('1', batch.getAirTemperatureObservation_AirTemperatureQualityCode()[2]);
+		assertEquals(99999, batch.getAtmosphericPressueObservation_SeaLevelPressure()[2]);
+	}
+
+
+	@Test
+	public void testReuse() {
+
+		final byte[] data = record.getBytes(StandardCharsets.US_ASCII);
+
+		ObservationBatch batch = new ObservationBatch(2);
+		assertTrue(batch.parse(data, 0, data.length));
+		assertTrue(batch.parse(data, 0, data.length));
+		assertTrue(batch.isFull());
+		assertFalse(batch.parse(data, 0, data.length));
+
+		batch.clear();
+		assertEquals(0, batch.size());
+		assertTrue(batch.parse(data, 0, data.length));
+		assertEquals(1, batch.size());
+	}
+
+}
+// ^^ class TestObservationBatch
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
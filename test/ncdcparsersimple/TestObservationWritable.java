@@ -0,0 +1,138 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.io.WritableComparator;
+import org.junit.Test;
+
+public class TestObservationWritable {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	private byte[] serialize( ObservationWritable writable ) throws IOException {
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try( DataOutputStream out = new DataOutputStream(bytes) ) {
+			writable.write(out);
+		}
+		return bytes.toByteArray();
+	}
+
+
+	/*
+	 * The record of station usaf at date and time.
+	 */
+	private ObservationWritable observation( String usaf, String date, String time ) {
+
+		final NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record.substring(0, 4) + usaf + record.substring(10, 15) + date + time + record.substring(27));
+		return new ObservationWritable(parser);
+	}
+
+
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		final NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+
+		final byte[] bytes = serialize(new ObservationWritable(parser));
+		assertEquals(ObservationWritable.RECORD_LENGTH, bytes.length);
+
+		final ObservationWritable copy = new ObservationWritable();
+		copy.readFields(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+		assertEquals(parser.getTotalVariableChars(), copy.getTotalVariableChars());
+		assertEquals("007026", copy.getFixedWeatherStation_USAFMasterStationCatId());
+		assertEquals("99999", copy.getFixedWeatherStation_NCEIWbanId());
+		assertEquals("20120713", copy.getGeophysicalPointObservation_Date());
+		assertEquals("1200", copy.getGeophysicalPointObservation_Time());
+		assertEquals('4', copy.getGeophysicalPointObservation_DataSourceFlag());
+		assertEquals(0, copy.getGeophysicalPointObservation_LatitudeCoord());
+		assertEquals(0, copy.getGeophysicalPointObservation_LongitudeCoord());
+		assertEquals("FM-15", copy.getGeophysicalReportType_Code());
+		assertEquals(7026, copy.getGeophysicalPointObservation_ElevationDimention());
+		assertEquals("7026 ", copy.getFixedWeatherStation_CallLetterId());
+		assertEquals("V020", copy.getMeteorogicalPointObservation_QualityControlProcessName());
+		assertEquals(110, copy.getWindObservation_DirectionAngle());
+		assertEquals('1', copy.getWindObservation_DirectionQualityCode());
+		assertEquals('N', copy.getWindObservation_TypeCode());
+		assertEquals(5, copy.getWindObservation_SpeedRate());
+		assertEquals('1', copy.getWindObservation_SpeedQualityCode());
+		assertEquals(99999, copy.getSkyConditionObservation_CeilingHeightDimention());
+		assertEquals(999999, copy.getVisibilityObservation_DistanceDimension());
+		assertEquals(240, copy.getAirTemperatureObservation_AirTemperature());
+		assertEquals('1', copy.getAirTemperatureObservation_AirTemperatureQualityCode());
+		assertEquals(230, copy.getAirTemperatureObservation_DewPointTemperature());
+		assertEquals(99999, copy.getAtmosphericPressueObservation_SeaLevelPressure());
+		assertEquals('9', copy.getAtmosphericPressueObservation_SeaLevelPressureQualityCode());
+	}
+
+
+	@Test
+	public void testFiveCharacterFieldsOutOfShortRange() throws IOException {
+
+		// "99999" at elevation, air temperature and dew point is well-formed
+		// but does not fit a short.
+		final NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record.substring(0, 46) + "99999" + record.substring(51, 87) + "99999" + record.charAt(92)
+				+ "99999" + record.substring(98));
+		assertEquals(0, parser.getMalformedFields());
+
+		final byte[] bytes = serialize(new ObservationWritable(parser));
+		final ObservationWritable copy = new ObservationWritable();
+		copy.readFields(new DataInputStream(new ByteArrayInputStream(bytes)));
+
+		assertEquals(99999, copy.getGeophysicalPointObservation_ElevationDimention());
+		assertEquals(99999, copy.getAirTemperatureObservation_AirTemperature());
+		assertEquals(99999, copy.getAirTemperatureObservation_DewPointTemperature());
+		assertEquals('1', copy.getAirTemperatureObservation_AirTemperatureQualityCode());
+		assertEquals(99999, copy.getAtmosphericPressueObservation_SeaLevelPressure());
+		assertEquals(0, copy.getMalformedFields());
+	}
+
+
+	@Test
+	public void testRawComparatorMatchesCompareTo() throws IOException {
+
+		final ObservationWritable[] observations = {
+				observation("007026", "20120713", "1200"),
+				observation("007026", "20120713", "1300"),
+				observation("007026", "20120714", "0000"),
+				observation("010010", "20120101", "0000"),
+				observation("007026", "20120713", "1200"),
+		};
+
+		final WritableComparator comparator = WritableComparator.get(ObservationWritable.class);
+		assertTrue(comparator instanceof ObservationWritable.Comparator);
+
+		for( ObservationWritable a : observations ) {
+			for( ObservationWritable b : observations ) {
+				final byte[] ba = serialize(a);
+				final byte[] bb = serialize(b);
+				assertEquals(Integer.signum(a.compareTo(b)),
+						Integer.signum(comparator.compare(ba, 0, ba.length, bb, 0, bb.length)));
+			}
+		}
+
+		assertTrue(observations[0].compareTo(observations[1]) < 0);
+		assertTrue(observations[2].compareTo(observations[3]) < 0);
+		assertEquals(observations[0], observations[4]);
+		assertEquals(observations[0].hashCode(), observations[4].hashCode());
+	}
+
+}
+// ^^ class TestObservationWritable
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
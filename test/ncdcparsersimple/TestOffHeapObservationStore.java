@@ -0,0 +1,76 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestOffHeapObservationStore {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	@Test
+	public void testAppendParserAndBatch() {
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+
+		final byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+		ObservationBatch batch = new ObservationBatch(5);
+		while( batch.parse(bytes, 0, bytes.length) ) {
+			// fill the batch
+		}
+
+		// small chunks, so the batch spans several of them.
+		try( OffHeapObservationStore store = new OffHeapObservationStore(3) ) {
+
+			assertEquals(0, store.append(parser));
+			assertEquals(1, store.append(batch));
+			assertEquals(6, store.size());
+
+			for( long row = 0; row < store.size(); row++ ) {
+				assertEquals(128, store.getTotalVariableChars(row));
+				assertEquals("007026", store.getFixedWeatherStation_USAFMasterStationCatId(row));
+				assertEquals("20120713", store.getGeophysicalPointObservation_Date(row));
+				assertEquals("FM-15", store.getGeophysicalReportType_Code(row));
+				assertEquals(7026, store.getGeophysicalPointObservation_ElevationDimention(row));
+				assertEquals('N', store.getWindObservation_TypeCode(row));
+				assertEquals(240, store.getAirTemperatureObservation_AirTemperature(row));
+				assertEquals(230, store.getAirTemperatureObservation_DewPointTemperature(row));
+				assertEquals(99999, store.getAtmosphericPressueObservation_SeaLevelPressure(row));
+				assertEquals('9', store.getAtmosphericPressueObservation_SeaLevelPressureQualityCode(row));
+			}
+		}
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testChunkTooLarge() {
+		new OffHeapObservationStore(OffHeapObservationStore.MAX_CHUNK_ROWS + 1);
+	}
+
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosedStore() {
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+
+		OffHeapObservationStore store = new OffHeapObservationStore(3);
+		store.append(parser);
+		store.close();
+		assertTrue(store.isClosed());
+
+		store.getAirTemperatureObservation_AirTemperature(0);
+	}
+
+}
+// ^^ class TestOffHeapObservationStore
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,100 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestParallelISDFileParser {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	private final int RECORDS = 3000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	/*
+	 * The air temperature (pos 88-92) of the i-th record is i.
+	 */
+	private File writeFile() throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < RECORDS; i++ ) {
+			data.append(record, 0, 87)
+				.append(String.format("%+05d", i))
+				.append(record, 92, record.length())
+				.append('\n');
+		}
+		final File file = folder.newFile("multi-station");
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+
+	@Test
+	public void testOrderedMerge() throws IOException {
+
+		final File file = writeFile();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// tiny ranges, so the file is split at many places.
+			ParallelISDFileParser parser = new ParallelISDFileParser(pool, 100, 4096);
+			List<ObservationBatch> batches = parser.parseOrdered(file.toPath());
+
+			int expected = 0;
+			for( ObservationBatch batch : batches ) {
+				for( int i = 0; i < batch.size(); i++ ) {
+					assertEquals(expected++, batch.getAirTemperatureObservation_AirTemperature()[i]);
+				}
+			}
+			assertEquals(RECORDS, expected);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+
+	@Test
+	public void testUnorderedSink() throws IOException {
+
+		final File file = writeFile();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ParallelISDFileParser parser = new ParallelISDFileParser(pool, 100, 4096);
+
+			final AtomicLong count = new AtomicLong();
+			final AtomicLong sum = new AtomicLong();
+			long records = parser.parseUnordered(file.toPath(), batch -> {
+				for( int i = 0; i < batch.size(); i++ ) {
+					sum.addAndGet(batch.getAirTemperatureObservation_AirTemperature()[i]);
+				}
+				count.addAndGet(batch.size());
+			});
+
+			assertEquals(RECORDS, records);
+			assertEquals(RECORDS, count.get());
+			assertEquals((long) RECORDS * (RECORDS - 1) / 2, sum.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
+// ^^ class TestParallelISDFileParser
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
@@ -0,0 +1,104 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestRecordFilter {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	private boolean accepts( RecordFilter filter, String line ) {
+
+		// the record is somewhere in the middle of a larger buffer
+		final byte[] bytes = ("garbage\n" + line).getBytes(StandardCharsets.US_ASCII);
+		return filter.accept(bytes, 8, line.length());
+	}
+
+
+	@Test
+	public void testFactories() {
+
+		assertTrue(accepts(RecordFilter.equalTo(NCDCField.REPORT_TYPE_CODE, "FM-15"), record));
+		assertFalse(accepts(RecordFilter.equalTo(NCDCField.REPORT_TYPE_CODE, "FM-12"), record));
+		assertTrue(accepts(RecordFilter.equalTo(NCDCField.OBSERVATION_DATE, "2012"), record));
+
+		assertTrue(accepts(RecordFilter.range(NCDCField.USAF_MASTER_STATION_CATALOG_ID, "007000", "007100"), record));
+		assertFalse(accepts(RecordFilter.range(NCDCField.USAF_MASTER_STATION_CATALOG_ID, "010000", "999999"), record));
+		assertTrue(accepts(RecordFilter.range(NCDCField.OBSERVATION_DATE, "20120713", "20120713"), record));
+		assertFalse(accepts(RecordFilter.range(NCDCField.OBSERVATION_DATE, "2013", "2014"), record));
+
+		assertTrue(accepts(RecordFilter.codeIn(NCDCField.AIR_TEMPERATURE_QUALITY_CODE, "01459"), record));
+		assertFalse(accepts(RecordFilter.codeIn(NCDCField.SEA_LEVEL_PRESSURE_QUALITY_CODE, "01"), record));
+
+		assertTrue(accepts(RecordFilter.intRange(NCDCField.AIR_TEMPERATURE, -100, 300), record));
+		assertFalse(accepts(RecordFilter.intRange(NCDCField.AIR_TEMPERATURE, 250, 300), record));
+		final String malformed = record.substring(0, 87) + "+0X40" + record.substring(92);
+		assertFalse(accepts(RecordFilter.intRange(NCDCField.AIR_TEMPERATURE, -9999, 9999), malformed));
+	}
+
+
+	@Test
+	public void testCombinators() {
+
+		final RecordFilter fm15 = RecordFilter.equalTo(NCDCField.REPORT_TYPE_CODE, "FM-15");
+		final RecordFilter in2013 = RecordFilter.equalTo(NCDCField.OBSERVATION_DATE, "2013");
+
+		assertFalse(accepts(fm15.and(in2013), record));
+		assertTrue(accepts(fm15.or(in2013), record));
+		assertTrue(accepts(in2013.negate(), record));
+		assertTrue(accepts(RecordFilter.ALL, record));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testValueLongerThanField() {
+		RecordFilter.equalTo(NCDCField.OBSERVATION_TIME, "12000");
+	}
+
+
+	@Test
+	public void testReaderSkipsRejectedRecords() throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < 100; i++ ) {
+			final String type = i % 10 == 0 ? "FM-15" : "FM-12";
+			data.append(record, 0, 41).append(type).append(record, 46, record.length()).append('\n');
+		}
+		final File file = folder.newFile("007026-99999-2012");
+		Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+
+		try( ISDFileReader reader = new ISDFileReader(file.toPath()) ) {
+
+			reader.setFilter(RecordFilter.equalTo(NCDCField.REPORT_TYPE_CODE, "FM-15"));
+			final NCDCParserSimple parser = new NCDCParserSimple();
+			int records = 0;
+			while( reader.next(parser) ) {
+				assertEquals("FM-15", parser.getGeophysicalReportType_Code());
+				records++;
+			}
+			assertEquals(10, records);
+			assertEquals(10, reader.getRecordCount());
+			assertEquals(90, reader.getRejectedRecordCount());
+		}
+	}
+
+}
+// ^^ class TestRecordFilter
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
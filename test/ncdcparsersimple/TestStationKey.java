@@ -0,0 +1,89 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class TestStationKey {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+
+	@Test
+	public void testPackAndDecode() {
+
+		final long key = StationKey.pack("007026", "99999");
+		assertTrue(StationKey.isValid(key));
+		assertEquals("007026", StationKey.usaf(key));
+		assertEquals("99999", StationKey.wban(key));
+		assertEquals("007026-99999", StationKey.toString(key));
+
+		// identifiers with letters and blanks
+		final long letters = StationKey.pack("A07355", "0 1Z9");
+		assertEquals("A07355", StationKey.usaf(letters));
+		assertEquals("0 1Z9", StationKey.wban(letters));
+
+		final long largest = StationKey.pack("ZZZZZZ", "ZZZZZ");
+		assertTrue(largest > 0 && StationKey.isValid(largest));
+		assertEquals("ZZZZZZ-ZZZZZ", StationKey.toString(largest));
+	}
+
+
+	@Test
+	public void testKeysSortLikeIdentifiers() {
+
+		final String[][] ids = {
+			{ "      ", "     " }, { "007026", "99999" }, { "007026", "A0000" },
+			{ "010010", "00000" }, { "999999", "99999" }, { "A00001", "00000" }, { "A0000Z", "00000" }
+		};
+		for( int i = 1; i < ids.length; i++ ) {
+			assertTrue(StationKey.pack(ids[i - 1][0], ids[i - 1][1]) < StationKey.pack(ids[i][0], ids[i][1]));
+		}
+	}
+
+
+	@Test
+	public void testInvalidIdentifiers() {
+
+		assertEquals(StationKey.INVALID, StationKey.pack("00#026", "99999"));
+		assertEquals(StationKey.INVALID, StationKey.pack("a07355", "99999"));
+		assertEquals(StationKey.INVALID, StationKey.pack("07026", "99999"));
+		assertEquals(StationKey.INVALID, StationKey.pack(null, "99999"));
+		assertEquals(StationKey.INVALID, StationKey.pack(new byte[] { '0', '0', (byte) 0xB0, '0', '2', '6', '9', '9', '9', '9', '9' }, 0));
+		assertFalse(StationKey.isValid(StationKey.INVALID));
+		assertEquals("INVALID", StationKey.toString(StationKey.INVALID));
+	}
+
+
+	@Test
+	public void testSameKeyEverywhere() throws Exception {
+
+		final long key = StationKey.pack("007026", "99999");
+		final byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+		assertEquals(key, StationKey.pack(bytes, 4));
+
+		NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(record);
+		assertEquals(key, parser.getStationKey());
+		assertEquals(key, new Observation(parser).getStationKey());
+
+		ObservationWritable writable = new ObservationWritable();
+		writable.set(parser);
+		assertEquals(key, writable.getStationKey());
+
+		ObservationBatch batch = new ObservationBatch(2);
+		batch.parse(bytes, 0, bytes.length);
+		batch.parse(bytes, 0, bytes.length);
+		assertEquals(key, batch.getStationKey(1));
+	}
+
+}
+// ^^ class TestStationKey
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
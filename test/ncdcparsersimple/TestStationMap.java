@@ -0,0 +1,84 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestStationMap {
+
+	@Test
+	public void testGroupBy() {
+
+		StationMap<long[]> counts = new StationMap<>();
+		final long a = StationKey.pack("007026", "99999");
+		final long b = StationKey.pack("A07355", "99999");
+
+		for( int i = 0; i < 10; i++ ) {
+			counts.computeIfAbsent(i % 3 == 0 ? b : a, key -> new long[1])[0]++;
+		}
+		assertEquals(2, counts.size());
+		assertEquals(6, counts.get(a)[0]);
+		assertEquals(4, counts.get(b)[0]);
+		assertNull(counts.get(StationKey.pack("010010", "00000")));
+
+		final long[] sum = new long[1];
+		counts.forEach((key, count) -> sum[0] += count[0]);
+		assertEquals(10, sum[0]);
+	}
+
+
+	@Test
+	public void testAgainstHashMap() {
+
+		// few keys in a small range, so they collide, grow and shift back.
+		StationMap<Integer> map = new StationMap<>(0);
+		Map<Long, Integer> expected = new HashMap<>();
+		Random random = new Random(11);
+
+		for( int i = 0; i < 20000; i++ ) {
+			final long key = random.nextInt(500) * 37L;
+			switch( random.nextInt(3) ) {
+			case 0:
+				assertEquals(expected.put(key, i), map.put(key, i));
+				break;
+			case 1:
+				assertEquals(expected.remove(key), map.remove(key));
+				break;
+			default:
+				assertEquals(expected.get(key), map.get(key));
+				assertEquals(expected.containsKey(key), map.containsKey(key));
+				break;
+			}
+			assertEquals(expected.size(), map.size());
+		}
+
+		final int[] visited = new int[1];
+		map.forEach((key, value) -> {
+			assertEquals(expected.get(key), value);
+			visited[0]++;
+		});
+		assertEquals(expected.size(), visited[0]);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertNull(map.get(0));
+	}
+
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMinValueIsNotAKey() {
+		new StationMap<String>().put(Long.MIN_VALUE, "");
+	}
+
+}
+// ^^ class TestStationMap
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////
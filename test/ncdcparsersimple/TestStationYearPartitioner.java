@@ -0,0 +1,150 @@
+package ncdcparsersimple;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestStationYearPartitioner {
+
+	private final String record = "0128007026999992012071312004+00000+000000FM-15+70267026 V0201101N000519999999N9999999N1+02401+02301999999ADDKA1999M+99999MA1102501999999REMMET069MOBOB0 METAR 7026 //010 000000 131159Z AUTO 11001KT //// 24/23 A3027;EQDQ01 -00012ATMX  ";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	private String line( String usaf ) {
+		return record.substring(0, 4) + usaf + record.substring(10);
+	}
+
+
+	private void writeStationFile( File directory, String usaf, int records ) throws IOException {
+
+		final StringBuilder data = new StringBuilder();
+		for( int i = 0; i < records; i++ ) {
+			data.append(line(usaf)).append('\n');
+		}
+		Files.write(new File(directory, usaf + "-99999-2012").toPath(), data.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+
+	@Test
+	public void testPlanSpreadsHeavyStations() {
+
+		final Map<String, Long> loads = new HashMap<>();
+		loads.put("000001-99999-2012", 1000L);
+		loads.put("000002-99999-2012", 900L);
+		loads.put("000003-99999-2012", 800L);
+		for( int i = 10; i < 100; i++ ) {
+			loads.put(String.format("%06d-99999-2012", i), 10L);
+		}
+
+		final PartitionPlan plan = PartitionPlan.build(loads, 3, 3);
+		assertEquals(3, plan.getAssignment().size());
+
+		// the three heavy stations end up on three different reducers.
+		assertEquals(3, plan.getAssignment().values().stream().distinct().count());
+		assertTrue(plan.getSkew() <= plan.getHashSkew());
+
+		long total = 0;
+		for( long load : plan.getExpectedLoads() ) {
+			total += load;
+		}
+		assertEquals(2700 + 900, total);
+		assertTrue(plan.report(5).contains("000001-99999-2012: 1000 records"));
+	}
+
+
+	@Test
+	public void testSampleAndPartition() throws Exception {
+
+		final File directory = folder.newFolder("2012");
+		writeStationFile(directory, "000001", 2000);
+		writeStationFile(directory, "000002", 50);
+		writeStationFile(directory, "000003", 50);
+		writeStationFile(directory, "000004", 1500);
+
+		final Job job = Job.getInstance(new Configuration());
+		FileInputFormat.setInputPaths(job, new Path(directory.toURI()));
+
+		// 1000 records per split: the two large files are estimated.
+		final Map<String, Long> loads = new StationLoadSampler(100, 1000).sample(job);
+		assertEquals(4, loads.size());
+		assertEquals(50L, loads.get("000002-99999-2012").longValue());
+		assertEquals(2000, loads.get("000001-99999-2012"), 200);
+		assertEquals(1500, loads.get("000004-99999-2012"), 150);
+
+		final PartitionPlan plan = PartitionPlan.build(loads, 2);
+		StationYearPartitioner.configure(job, plan);
+		assertEquals(2, job.getNumReduceTasks());
+
+		@SuppressWarnings("unchecked")
+		final StationYearPartitioner<Object> partitioner =
+				ReflectionUtils.newInstance(StationYearPartitioner.class, job.getConfiguration());
+
+		final NCDCParserSimple parser = new NCDCParserSimple();
+		parser.parse(line("000001"));
+		final int heavy = partitioner.getPartition(new ObservationWritable(parser), null, 2);
+		parser.parse(line("000004"));
+		final int secondHeavy = partitioner.getPartition(new ObservationWritable(parser), null, 2);
+
+		assertNotEquals(heavy, secondHeavy);
+		assertEquals(plan.getAssignment().get("000001-99999-2012").intValue(), heavy);
+	}
+
+
+	@Test
+	public void testPartitionByStationKeyAndYear() throws Exception {
+
+		final Map<String, Long> loads = new HashMap<>();
+		for( int year = 2005; year < 2015; year++ ) {
+			loads.put("000001-99999-" + year, 1000L + year);
+			loads.put("000002-99999-" + year, 10L);
+		}
+		final PartitionPlan plan = PartitionPlan.build(loads, 4, 10);
+
+		final Job job = Job.getInstance(new Configuration());
+		StationYearPartitioner.configure(job, plan);
+		@SuppressWarnings("unchecked")
+		final StationYearPartitioner<Object> partitioner =
+				ReflectionUtils.newInstance(StationYearPartitioner.class, job.getConfiguration());
+
+		final NCDCParserSimple parser = new NCDCParserSimple();
+		for( int year = 2005; year < 2015; year++ ) {
+			for( String usaf : new String[] { "000001", "000002" } ) {
+				parser.parse(line(usaf).substring(0, 15) + year + line(usaf).substring(19));
+				final ObservationWritable key = new ObservationWritable(parser);
+				final String unit = usaf + "-99999-" + year;
+
+				// assigned station-years go to their reducer, the others to
+				// the same hash the plan expects.
+				final Integer reducer = plan.getAssignment().get(unit);
+				assertEquals(reducer != null ? reducer : StationYearPartitioner.hashPartition(unit, 4),
+						partitioner.getPartition(key, null, 4));
+				assertEquals(StationYearPartitioner.hashPartition(unit, 3), partitioner.getPartition(key, null, 3));
+			}
+		}
+		assertEquals(10, plan.getAssignment().size());
+	}
+
+}
+// ^^ class TestStationYearPartitioner
+
+////////////////////////
+//
+//   END OF FILE
+//
+////////////////////